@@ -0,0 +1,59 @@
+package com.paucar.customer_ms.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Elige la instancia de ACCOUNT-MS con "potencia de dos opciones": toma dos al azar y se queda con la menos
+ * cargada según {@link CargaInstanciasCuentas}. Comparar solo dos evita que todas las réplicas de CUSTOMER-MS
+ * se lancen a la vez sobre la instancia que parece más rápida, como pasaría eligiendo siempre la mejor.
+ */
+@Slf4j
+public class BalanceadorServicioCuentas implements ReactorServiceInstanceLoadBalancer {
+
+    private final ObjectProvider<ServiceInstanceListSupplier> proveedorInstancias;
+    private final String servicio;
+    private final CargaInstanciasCuentas cargaInstancias;
+
+    public BalanceadorServicioCuentas(ObjectProvider<ServiceInstanceListSupplier> proveedorInstancias, String servicio,
+                                      CargaInstanciasCuentas cargaInstancias) {
+        this.proveedorInstancias = proveedorInstancias;
+        this.servicio = servicio;
+        this.cargaInstancias = cargaInstancias;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier instancias = proveedorInstancias.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return instancias.get(request).next().map(this::elegir);
+    }
+
+    Response<ServiceInstance> elegir(List<ServiceInstance> instancias) {
+        if (instancias.isEmpty()) {
+            log.warn("No hay instancias disponibles de {}", servicio);
+            return new EmptyResponse();
+        }
+        if (instancias.size() == 1) {
+            return new DefaultResponse(instancias.get(0));
+        }
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        int primera = aleatorio.nextInt(instancias.size());
+        int segunda = aleatorio.nextInt(instancias.size() - 1);
+        if (segunda >= primera) {
+            segunda++;
+        }
+        return new DefaultResponse(cargaInstancias.menosCargada(instancias.get(primera), instancias.get(segunda)));
+    }
+}
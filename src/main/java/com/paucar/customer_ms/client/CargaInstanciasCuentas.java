@@ -0,0 +1,182 @@
+package com.paucar.customer_ms.client;
+
+import com.paucar.customer_ms.config.ServicioCuentasPropiedades;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.LongSupplier;
+
+/**
+ * Solicitudes en curso y latencia reciente de cada instancia de ACCOUNT-MS. Feign avisa al empezar y al
+ * terminar cada llamada balanceada. La latencia es una media móvil "de pico": una respuesta más lenta que la
+ * media la sustituye de inmediato y las más rápidas la bajan poco a poco, así una instancia que se degrada deja
+ * de elegirse enseguida y recupera tráfico cuando vuelve a responder bien.
+ *
+ * <p>Las altas, las bajas y los cambios de cada instancia se hacen dentro de {@code compute} del mapa, así la
+ * limpieza periódica de instancias inactivas no puede quitar una entrada mientras otra solicitud la actualiza.
+ */
+public class CargaInstanciasCuentas
+        implements LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance>, DisposableBean {
+
+    private final ConcurrentMap<String, Carga> cargas = new ConcurrentHashMap<>();
+    private final long decaimientoNanos;
+    private final long olvidoNanos;
+    private final long penalizacionFalloNanos;
+    private final LongSupplier reloj;
+    private volatile ScheduledFuture<?> limpieza;
+
+    public CargaInstanciasCuentas(ServicioCuentasPropiedades.Balanceo balanceo) {
+        this(balanceo, System::nanoTime);
+    }
+
+    CargaInstanciasCuentas(ServicioCuentasPropiedades.Balanceo balanceo, LongSupplier reloj) {
+        this.decaimientoNanos = balanceo.getDecaimiento().toNanos();
+        this.olvidoNanos = balanceo.getOlvido().toNanos();
+        this.penalizacionFalloNanos = balanceo.getPenalizacionFallo().toNanos();
+        this.reloj = reloj;
+    }
+
+    // Cada plazo de olvido suelta las instancias que discovery ya no devuelve, fuera del camino de las solicitudes.
+    public void programarLimpieza(TaskScheduler programador) {
+        limpieza = programador.scheduleWithFixedDelay(this::olvidarInactivas, Duration.ofNanos(olvidoNanos));
+    }
+
+    @Override
+    public void destroy() {
+        if (limpieza != null) {
+            limpieza.cancel(false);
+        }
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return RequestDataContext.class.isAssignableFrom(requestContextClass)
+                && ResponseData.class.isAssignableFrom(responseClass)
+                && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer()) {
+            return;
+        }
+        long ahora = reloj.getAsLong();
+        request.getContext().setRequestStartTime(ahora);
+        cargas.compute(clave(lbResponse.getServer()), (clave, carga) -> {
+            Carga actual = carga == null ? new Carga() : carga;
+            actual.enCurso++;
+            actual.ultimaActividad = ahora;
+            return actual;
+        });
+    }
+
+    @Override
+    public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        long ahora = reloj.getAsLong();
+        long duracion = ahora - completionContext.getLoadBalancerRequest().getContext().getRequestStartTime();
+        // Un rechazo de conexión llega antes que cualquier respuesta: sin penalizar, la instancia caída
+        // parecería la más rápida.
+        long muestra = fallo(completionContext) ? Math.max(duracion, penalizacionFalloNanos) : duracion;
+        cargas.compute(clave(lbResponse.getServer()), (clave, carga) -> {
+            Carga actual = carga == null ? new Carga() : carga;
+            actual.enCurso = Math.max(actual.enCurso - 1, 0);
+            actual.registrar(muestra, ahora, decaimientoNanos);
+            return actual;
+        });
+    }
+
+    // Solo instancias sin solicitudes en curso y sin actividad durante el plazo de olvido.
+    void olvidarInactivas() {
+        long ahora = reloj.getAsLong();
+        for (String clave : cargas.keySet()) {
+            cargas.computeIfPresent(clave, (ignorada, carga) ->
+                    carga.enCurso == 0 && ahora - carga.ultimaActividad > olvidoNanos ? null : carga);
+        }
+    }
+
+    int instanciasConocidas() {
+        return cargas.size();
+    }
+
+    /**
+     * De dos candidatas, la de menor coste esperado: latencia por (solicitudes en curso + 1). Si solo se conoce
+     * la latencia de una se asume la misma para la otra, de modo que una instancia nueva o sin tráfico reciente
+     * compite por su carga en curso en lugar de quedar descartada o recibir todas las solicitudes.
+     */
+    ServiceInstance menosCargada(ServiceInstance primera, ServiceInstance segunda) {
+        long ahora = reloj.getAsLong();
+        Carga cargaPrimera = cargas.get(clave(primera));
+        Carga cargaSegunda = cargas.get(clave(segunda));
+        double latenciaPrimera = cargaPrimera == null ? 0 : cargaPrimera.latencia(ahora, olvidoNanos);
+        double latenciaSegunda = cargaSegunda == null ? 0 : cargaSegunda.latencia(ahora, olvidoNanos);
+        if (latenciaPrimera == 0) {
+            latenciaPrimera = latenciaSegunda == 0 ? 1 : latenciaSegunda;
+        }
+        if (latenciaSegunda == 0) {
+            latenciaSegunda = latenciaPrimera;
+        }
+        double costoPrimera = latenciaPrimera * (enCurso(cargaPrimera) + 1);
+        double costoSegunda = latenciaSegunda * (enCurso(cargaSegunda) + 1);
+        return costoSegunda < costoPrimera ? segunda : primera;
+    }
+
+    private static boolean fallo(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+        if (completionContext.status() == CompletionContext.Status.FAILED) {
+            return true;
+        }
+        ResponseData respuesta = completionContext.getClientResponse();
+        return respuesta != null && respuesta.getHttpStatus() != null && respuesta.getHttpStatus().is5xxServerError();
+    }
+
+    private static int enCurso(Carga carga) {
+        return carga == null ? 0 : carga.enCurso;
+    }
+
+    private static String clave(ServiceInstance instancia) {
+        return instancia.getHost() + ":" + instancia.getPort();
+    }
+
+    // Se modifica solo dentro de compute sobre su clave; las lecturas de menosCargada toleran un valor reciente.
+    private static final class Carga {
+
+        private volatile int enCurso;
+        private volatile long ultimaActividad;
+        private double latenciaNanos;
+        private long ultimaRespuesta;
+
+        synchronized void registrar(long duracion, long ahora, long decaimiento) {
+            if (latenciaNanos == 0 || duracion > latenciaNanos) {
+                latenciaNanos = duracion;
+            } else {
+                double peso = Math.exp(-(double) (ahora - ultimaRespuesta) / decaimiento);
+                latenciaNanos = latenciaNanos * peso + duracion * (1 - peso);
+            }
+            ultimaRespuesta = ahora;
+            ultimaActividad = ahora;
+        }
+
+        // 0 si nunca respondió o si lleva más del plazo de olvido sin hacerlo.
+        synchronized double latencia(long ahora, long olvido) {
+            return ahora - ultimaRespuesta > olvido ? 0 : latenciaNanos;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.paucar.customer_ms.client;
+
+import com.paucar.customer_ms.client.dto.Cuenta;
+import com.paucar.customer_ms.client.dto.ResumenCuentasActivas;
+import com.paucar.customer_ms.config.ServicioCuentasPropiedades;
+import com.paucar.customer_ms.util.ApiResponse;
+import com.paucar.customer_ms.util.EstadoCuenta;
+import feign.FeignException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Decide si un cliente tiene cuentas activas sin descargar ni decodificar todas sus cuentas. Usa la ruta
+ * ligera de ACCOUNT-MS y, si esa versión no la expone, la lista de cuentas leída hasta la primera ACTIVO.
+ * Ambas son GET idempotentes y pasan por PoliticaLlamadasCuentas (respaldo y reintentos). Para un lote usa
+ * POST /cuentas/clientes, que se asume de solo lectura y con las cuentas de todos los clientes pedidos (cada una
+ * con clienteId y estado), así que también pasa por la política. Si ACCOUNT-MS no la expone se consulta cliente
+ * por cliente.
+ */
+@Slf4j
+@Component
+public class ConsultaCuentasActivas {
+
+    private final CuentaFeign cuentaFeign;
+    private final PoliticaLlamadasCuentas politicaLlamadasCuentas;
+
+    // Se desactiva con el primer 404 para no pagar esa llamada extra en cada eliminación.
+    private volatile boolean rutaLigeraDisponible;
+    private volatile boolean rutaLoteDisponible = true;
+
+    public ConsultaCuentasActivas(CuentaFeign cuentaFeign, PoliticaLlamadasCuentas politicaLlamadasCuentas,
+                                  ServicioCuentasPropiedades servicioCuentasPropiedades) {
+        this.cuentaFeign = cuentaFeign;
+        this.politicaLlamadasCuentas = politicaLlamadasCuentas;
+        this.rutaLigeraDisponible = servicioCuentasPropiedades.isRutaLigeraActivas();
+    }
+
+    public boolean tieneCuentasActivas(Long clienteId) {
+        if (rutaLigeraDisponible) {
+            try {
+                ApiResponse<Boolean> respuesta = politicaLlamadasCuentas.ejecutar("existencia-activas",
+                        () -> cuentaFeign.existenCuentasActivas(clienteId)).getBody();
+                if (respuesta != null && respuesta.getDatos() != null) {
+                    return respuesta.getDatos();
+                }
+            } catch (FeignException.NotFound ex) {
+                rutaLigeraDisponible = false;
+                log.warn("ACCOUNT-MS no expone la consulta de cuentas activas; se leerá la lista de cuentas del cliente");
+            }
+        }
+
+        ResumenCuentasActivas resumen = politicaLlamadasCuentas.ejecutar("resumen-cuentas",
+                () -> cuentaFeign.resumirCuentasPorClienteId(clienteId)).getBody();
+        if (resumen == null || resumen.getTieneActivas() == null) {
+            throw new IllegalStateException("No se pudo obtener información de las cuentas del cliente.");
+        }
+        return resumen.getTieneActivas();
+    }
+
+    public Set<Long> clientesConCuentasActivas(Collection<Long> clienteIds) {
+        if (clienteIds.isEmpty()) {
+            return Set.of();
+        }
+        if (rutaLoteDisponible) {
+            try {
+                List<Long> ids = new ArrayList<>(clienteIds);
+                ApiResponse<List<Cuenta>> respuesta = politicaLlamadasCuentas.ejecutar("cuentas-lote",
+                        () -> cuentaFeign.obtenerCuentasPorClienteIds(ids)).getBody();
+                if (respuesta == null || respuesta.getDatos() == null) {
+                    throw new IllegalStateException("No se pudo obtener información de las cuentas de los clientes.");
+                }
+                Set<Long> conActivas = new HashSet<>();
+                for (Cuenta cuenta : respuesta.getDatos()) {
+                    if (cuenta.getEstado() == EstadoCuenta.ACTIVO) {
+                        conActivas.add(cuenta.getClienteId());
+                    }
+                }
+                return conActivas;
+            } catch (FeignException.NotFound ex) {
+                rutaLoteDisponible = false;
+                log.warn("ACCOUNT-MS no expone la consulta de cuentas por lote; se consultará cliente por cliente");
+            }
+        }
+
+        Set<Long> conActivas = new HashSet<>();
+        for (Long clienteId : clienteIds) {
+            if (tieneCuentasActivas(clienteId)) {
+                conActivas.add(clienteId);
+            }
+        }
+        return conActivas;
+    }
+}
@@ -1,18 +1,36 @@
 package com.paucar.customer_ms.client;
 
 import com.paucar.customer_ms.client.dto.Cuenta;
+import com.paucar.customer_ms.client.dto.ResumenCuentasActivas;
 import com.paucar.customer_ms.util.ApiResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
 import java.util.List;
 
-
-@FeignClient(name = "ACCOUNT-MS", url = "https://account-ms-production.up.railway.app")
+// Sin servicio-cuentas.url las llamadas pasan por el balanceador (BalanceoServicioCuentasConfiguracion);
+// con ella van directas a esa URL.
+@FeignClient(name = "ACCOUNT-MS", url = "${servicio-cuentas.url:}", fallbackFactory = CuentaFeignFallbackFactory.class)
 public interface CuentaFeign {
 
     @GetMapping("/cuentas/cliente/{clienteId}")
     ResponseEntity<ApiResponse<List<Cuenta>>> obtenerCuentasPorClienteId(@PathVariable("clienteId") Long clienteId);
+
+    // Contrato ligero: solo si el cliente tiene alguna cuenta ACTIVO. Las versiones de ACCOUNT-MS que
+    // no lo exponen responden 404.
+    @GetMapping("/cuentas/cliente/{clienteId}/activas/existe")
+    ResponseEntity<ApiResponse<Boolean>> existenCuentasActivas(@PathVariable("clienteId") Long clienteId);
+
+    // Misma ruta que obtenerCuentasPorClienteId, decodificada sin materializar las cuentas.
+    @GetMapping("/cuentas/cliente/{clienteId}")
+    ResponseEntity<ResumenCuentasActivas> resumirCuentasPorClienteId(@PathVariable("clienteId") Long clienteId);
+
+    // Devuelve en una sola llamada las cuentas de todos los clientes indicados. Es una consulta aunque sea POST;
+    // las versiones de ACCOUNT-MS que no la exponen responden 404.
+    @PostMapping("/cuentas/clientes")
+    ResponseEntity<ApiResponse<List<Cuenta>>> obtenerCuentasPorClienteIds(@RequestBody List<Long> clienteIds);
 }
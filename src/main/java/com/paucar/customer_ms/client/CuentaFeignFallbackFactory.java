@@ -0,0 +1,65 @@
+package com.paucar.customer_ms.client;
+
+import com.paucar.customer_ms.client.dto.Cuenta;
+import com.paucar.customer_ms.client.dto.ResumenCuentasActivas;
+import com.paucar.customer_ms.exception.ServicioCuentasNoDisponibleException;
+import com.paucar.customer_ms.util.ApiResponse;
+import feign.FeignException;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// No hay respuesta por defecto posible para las cuentas: se falla rápido con un error claro
+// cuando el circuito está abierto, el bulkhead está lleno o ACCOUNT-MS no responde a tiempo.
+@Component
+public class CuentaFeignFallbackFactory implements FallbackFactory<CuentaFeign> {
+
+    @Override
+    public CuentaFeign create(Throwable causa) {
+        return new CuentaFeign() {
+            @Override
+            public ResponseEntity<ApiResponse<List<Cuenta>>> obtenerCuentasPorClienteId(Long clienteId) {
+                throw traducir(causa);
+            }
+
+            @Override
+            public ResponseEntity<ApiResponse<Boolean>> existenCuentasActivas(Long clienteId) {
+                throw traducir(causa);
+            }
+
+            @Override
+            public ResponseEntity<ResumenCuentasActivas> resumirCuentasPorClienteId(Long clienteId) {
+                throw traducir(causa);
+            }
+
+            @Override
+            public ResponseEntity<ApiResponse<List<Cuenta>>> obtenerCuentasPorClienteIds(List<Long> clienteIds) {
+                throw traducir(causa);
+            }
+        };
+    }
+
+    static RuntimeException traducir(Throwable causa) {
+        if (causa instanceof CallNotPermittedException) {
+            return new ServicioCuentasNoDisponibleException(
+                    "El servicio de cuentas no está disponible temporalmente. Intente nuevamente en unos segundos.", causa);
+        }
+        if (causa instanceof BulkheadFullException) {
+            return new ServicioCuentasNoDisponibleException(
+                    "El servicio de cuentas está recibiendo demasiadas solicitudes. Intente nuevamente en unos segundos.", causa);
+        }
+        if (causa instanceof RetryableException) {
+            return new ServicioCuentasNoDisponibleException(
+                    "El servicio de cuentas no respondió a tiempo.", causa);
+        }
+        if (causa instanceof FeignException feignException) {
+            return feignException;
+        }
+        return new ServicioCuentasNoDisponibleException("Error al comunicarse con el servicio de cuentas.", causa);
+    }
+}
@@ -0,0 +1,19 @@
+package com.paucar.customer_ms.client;
+
+import feign.FeignException;
+
+import java.util.function.Predicate;
+
+// Los errores 4xx son respuestas válidas de ACCOUNT-MS y no deben abrir el circuito. El bulkhead es un semáforo
+// (disable-thread-pool) y no hay time limiter: la llamada corre en el hilo de la petición y el error llega tal cual.
+public class FalloServicioCuentas implements Predicate<Throwable> {
+
+    @Override
+    public boolean test(Throwable error) {
+        if (error instanceof FeignException feignException) {
+            int estado = feignException.status();
+            return estado < 400 || estado >= 500;
+        }
+        return true;
+    }
+}
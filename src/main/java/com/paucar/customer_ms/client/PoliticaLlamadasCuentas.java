@@ -0,0 +1,343 @@
+package com.paucar.customer_ms.client;
+
+import com.paucar.customer_ms.config.ServicioCuentasPropiedades;
+import com.paucar.customer_ms.exception.ServicioCuentasNoDisponibleException;
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.net.ConnectException;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Consultas idempotentes a ACCOUNT-MS con solicitud de respaldo y reintentos. Si una consulta tarda más que el
+ * percentil configurado de las últimas latencias observadas, se envía otra igual y se usa la primera respuesta
+ * correcta. Cuando el respaldo está activo, los dos intentos corren en un pool acotado y el hilo de la petición
+ * solo espera la primera respuesta: el intento que pierde termina por su cuenta, sin interrumpirlo, porque con
+ * hilos de plataforma una interrupción no corta una lectura de socket ya empezada. Sin hilos libres la consulta
+ * corre en el hilo de la petición y sin respaldo. Los errores 5xx y de conexión se reintentan con espera
+ * exponencial y aleatoria. El circuito abierto y el bulkhead lleno no se reintentan.
+ *
+ * <p>Respaldos y reintentos gastan un mismo presupuesto que cada consulta recarga en una fracción: durante una
+ * caída de ACCOUNT-MS el saldo se agota y el tráfico extra queda limitado a esa fracción.
+ */
+@Component
+public class PoliticaLlamadasCuentas implements DisposableBean {
+
+    private static final int VENTANA_LATENCIAS = 512;
+    private static final int RECALCULO_CADA = 64;
+    private static final long MILESIMAS = 1_000;
+
+    private final ServicioCuentasPropiedades propiedades;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService ejecutor;
+    private final ScheduledThreadPoolExecutor programador;
+    private final ConcurrentMap<String, Operacion> operaciones = new ConcurrentHashMap<>();
+    private final AtomicLong presupuestoMilesimas;
+
+    @Autowired
+    public PoliticaLlamadasCuentas(ServicioCuentasPropiedades propiedades, MeterRegistry meterRegistry) {
+        this(propiedades, meterRegistry, crearEjecutor(propiedades.getRespaldo().getHilosMaximos()));
+    }
+
+    PoliticaLlamadasCuentas(ServicioCuentasPropiedades propiedades, MeterRegistry meterRegistry, ExecutorService ejecutor) {
+        this.propiedades = propiedades;
+        this.meterRegistry = meterRegistry;
+        this.ejecutor = ejecutor;
+        CustomizableThreadFactory hilosProgramador = new CustomizableThreadFactory("cuentas-programador-");
+        hilosProgramador.setDaemon(true);
+        this.programador = new ScheduledThreadPoolExecutor(1, hilosProgramador);
+        this.programador.setRemoveOnCancelPolicy(true);
+        this.presupuestoMilesimas = new AtomicLong(propiedades.getReintentos().getPresupuestoMaximo() * MILESIMAS);
+        Gauge.builder("cliente.cuentas.reintentos.presupuesto", presupuestoMilesimas, saldo -> saldo.get() / (double) MILESIMAS)
+                .description("Reintentos y respaldos a ACCOUNT-MS que aún se pueden enviar")
+                .register(meterRegistry);
+    }
+
+    // Para los intentos de las consultas con respaldo, con hilos reutilizados y acotados. Lleno, rechaza: la
+    // principal pasa al hilo de la petición, y el respaldo, que lo lanza el programador, no se envía.
+    private static ExecutorService crearEjecutor(int hilosMaximos) {
+        CustomizableThreadFactory hilos = new CustomizableThreadFactory("cuentas-respaldo-");
+        hilos.setDaemon(true);
+        return new ThreadPoolExecutor(0, hilosMaximos, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), hilos,
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public void destroy() {
+        programador.shutdownNow();
+        ejecutor.shutdownNow();
+    }
+
+    public <T> T ejecutar(String nombre, Supplier<T> llamada) {
+        Operacion operacion = operaciones.computeIfAbsent(nombre, Operacion::new);
+        ServicioCuentasPropiedades.Reintentos reintentos = propiedades.getReintentos();
+        depositar(reintentos);
+        for (int intento = 0; ; intento++) {
+            try {
+                return ejecutarConRespaldo(operacion, llamada);
+            } catch (RuntimeException ex) {
+                if (intento >= reintentos.getMaximo() || !esReintentable(ex)) {
+                    throw ex;
+                }
+                if (!retirar()) {
+                    operacion.reintentosSinPresupuesto.increment();
+                    throw ex;
+                }
+                operacion.reintentosEnviados.increment();
+                dormir(espera(reintentos, intento));
+            }
+        }
+    }
+
+    // 5xx y fallos al conectar: la consulta no llegó a procesarse o falló del lado de ACCOUNT-MS. Un timeout de
+    // lectura no se reintenta: de la consulta lenta ya se encarga el respaldo.
+    static boolean esReintentable(Throwable error) {
+        for (Throwable actual = error; actual != null; actual = actual.getCause()) {
+            if (actual instanceof CallNotPermittedException || actual instanceof BulkheadFullException) {
+                return false;
+            }
+            if (actual instanceof FeignException feignException && feignException.status() >= 500) {
+                return true;
+            }
+            if (actual instanceof ConnectException || actual instanceof ConnectTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private <T> T ejecutarConRespaldo(Operacion operacion, Supplier<T> llamada) {
+        long retardo = operacion.retardoRespaldo();
+        if (retardo < 0) {
+            return operacion.medir(llamada);
+        }
+
+        Carrera<T> carrera = new Carrera<>(operacion, llamada);
+        try {
+            ejecutor.execute(() -> carrera.ejecutarIntento(false));
+        } catch (RejectedExecutionException ex) {
+            operacion.respaldosRechazados.increment();
+            return operacion.medir(llamada);
+        }
+        ScheduledFuture<?> respaldoProgramado = programador.schedule(carrera::lanzarRespaldo, retardo, TimeUnit.NANOSECONDS);
+        try {
+            Respuesta<T> respuesta = carrera.esperar(propiedades.getRespaldo().getEsperaMaxima().toNanos());
+            if (respuesta.respaldo()) {
+                operacion.respaldosGanadores.increment();
+            }
+            return respuesta.valor();
+        } finally {
+            respaldoProgramado.cancel(false);
+        }
+    }
+
+    private static RuntimeException desenvolver(Throwable error) {
+        if (error instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (error instanceof Error grave) {
+            throw grave;
+        }
+        return new ServicioCuentasNoDisponibleException("Error al comunicarse con el servicio de cuentas.", error);
+    }
+
+    // Espera exponencial con variación completa: aleatoria entre cero y el tope de ese intento.
+    private static long espera(ServicioCuentasPropiedades.Reintentos reintentos, int intento) {
+        long inicial = reintentos.getEsperaInicial().toMillis();
+        long tope = Math.min(reintentos.getEsperaMaxima().toMillis(), inicial << Math.min(intento, 20));
+        return ThreadLocalRandom.current().nextLong(tope + 1);
+    }
+
+    private static void dormir(long milisegundos) {
+        try {
+            Thread.sleep(milisegundos);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServicioCuentasNoDisponibleException("Se interrumpió la consulta al servicio de cuentas.", ex);
+        }
+    }
+
+    private void depositar(ServicioCuentasPropiedades.Reintentos reintentos) {
+        long deposito = Math.round(reintentos.getProporcionPresupuesto() * MILESIMAS);
+        long maximo = reintentos.getPresupuestoMaximo() * MILESIMAS;
+        presupuestoMilesimas.getAndUpdate(saldo -> Math.min(maximo, saldo + deposito));
+    }
+
+    private boolean retirar() {
+        long saldo;
+        do {
+            saldo = presupuestoMilesimas.get();
+            if (saldo < MILESIMAS) {
+                return false;
+            }
+        } while (!presupuestoMilesimas.compareAndSet(saldo, saldo - MILESIMAS));
+        return true;
+    }
+
+    private void devolver() {
+        presupuestoMilesimas.addAndGet(MILESIMAS);
+    }
+
+    // La primera respuesta correcta gana; falla solo cuando fallaron todos los intentos lanzados. Lanzar el
+    // respaldo y registrar un fallo se hacen con el monitor de la carrera para que no se cuente un intento de menos.
+    private final class Carrera<T> {
+
+        private final Operacion operacion;
+        private final Supplier<T> llamada;
+        private final CompletableFuture<Respuesta<T>> resultado = new CompletableFuture<>();
+        private int pendientes = 1;
+        private Throwable primerError;
+
+        Carrera(Operacion operacion, Supplier<T> llamada) {
+            this.operacion = operacion;
+            this.llamada = llamada;
+        }
+
+        // En el hilo del programador, cuando la principal supera el retardo.
+        synchronized void lanzarRespaldo() {
+            if (resultado.isDone()) {
+                return;
+            }
+            if (!retirar()) {
+                operacion.respaldosSinPresupuesto.increment();
+                return;
+            }
+            try {
+                ejecutor.execute(() -> ejecutarIntento(true));
+                pendientes++;
+                operacion.respaldosEnviados.increment();
+            } catch (RejectedExecutionException ex) {
+                devolver();
+                operacion.respaldosRechazados.increment();
+            }
+        }
+
+        void ejecutarIntento(boolean deRespaldo) {
+            try {
+                resultado.complete(new Respuesta<>(operacion.medir(llamada), deRespaldo));
+            } catch (Throwable ex) {
+                fallar(ex);
+            }
+        }
+
+        private synchronized void fallar(Throwable ex) {
+            if (primerError == null) {
+                primerError = ex;
+            }
+            if (--pendientes == 0) {
+                resultado.completeExceptionally(primerError);
+            }
+        }
+
+        // Si se agota la espera, los intentos en curso siguen hasta su propio read-timeout y su respuesta se descarta.
+        Respuesta<T> esperar(long esperaMaximaNanos) {
+            try {
+                return resultado.get(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException ex) {
+                throw new ServicioCuentasNoDisponibleException("El servicio de cuentas no respondió a tiempo.", ex);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new ServicioCuentasNoDisponibleException("Se interrumpió la consulta al servicio de cuentas.", ex);
+            } catch (ExecutionException ex) {
+                throw desenvolver(ex.getCause());
+            }
+        }
+    }
+
+    private record Respuesta<T>(T valor, boolean respaldo) {
+    }
+
+    private final class Operacion {
+
+        private final AtomicLongArray latencias = new AtomicLongArray(VENTANA_LATENCIAS);
+        private final AtomicLong registradas = new AtomicLong();
+        private volatile long percentilNanos = -1;
+
+        private final Counter respaldosEnviados;
+        private final Counter respaldosGanadores;
+        private final Counter respaldosSinPresupuesto;
+        private final Counter respaldosRechazados;
+        private final Counter reintentosEnviados;
+        private final Counter reintentosSinPresupuesto;
+
+        Operacion(String nombre) {
+            respaldosEnviados = contador("cliente.cuentas.respaldos", nombre, "enviado");
+            respaldosGanadores = contador("cliente.cuentas.respaldos", nombre, "ganador");
+            respaldosSinPresupuesto = contador("cliente.cuentas.respaldos", nombre, "sin_presupuesto");
+            respaldosRechazados = contador("cliente.cuentas.respaldos", nombre, "sin_hilos");
+            reintentosEnviados = contador("cliente.cuentas.reintentos", nombre, "enviado");
+            reintentosSinPresupuesto = contador("cliente.cuentas.reintentos", nombre, "sin_presupuesto");
+            TimeGauge.builder("cliente.cuentas.respaldos.retardo", this, TimeUnit.NANOSECONDS,
+                            operacion -> Math.max(operacion.retardoRespaldo(), 0))
+                    .description("Espera antes de enviar la solicitud de respaldo; 0 mientras no se usa")
+                    .tag("operacion", nombre)
+                    .register(meterRegistry);
+        }
+
+        private Counter contador(String metrica, String nombre, String resultado) {
+            return Counter.builder(metrica)
+                    .tag("operacion", nombre)
+                    .tag("resultado", resultado)
+                    .register(meterRegistry);
+        }
+
+        // -1 sin respaldo: deshabilitado o sin suficientes latencias observadas.
+        long retardoRespaldo() {
+            ServicioCuentasPropiedades.Respaldo respaldo = propiedades.getRespaldo();
+            if (!respaldo.isHabilitado() || percentilNanos < 0) {
+                return -1;
+            }
+            return Math.max(percentilNanos, respaldo.getRetardoMinimo().toNanos());
+        }
+
+        // Se registran las latencias de todas las respuestas correctas, también la del intento que perdió.
+        <T> T medir(Supplier<T> llamada) {
+            long inicio = System.nanoTime();
+            T valor = llamada.get();
+            long n = registradas.getAndIncrement();
+            latencias.set((int) (n % VENTANA_LATENCIAS), System.nanoTime() - inicio);
+            long muestras = n + 1;
+            if (muestras >= propiedades.getRespaldo().getMuestrasMinimas()
+                    && (percentilNanos < 0 || muestras % RECALCULO_CADA == 0)) {
+                recalcular((int) Math.min(muestras, VENTANA_LATENCIAS));
+            }
+            return valor;
+        }
+
+        private void recalcular(int muestras) {
+            long[] copia = new long[muestras];
+            for (int i = 0; i < muestras; i++) {
+                copia[i] = latencias.get(i);
+            }
+            Arrays.sort(copia);
+            int posicion = (int) Math.ceil(propiedades.getRespaldo().getPercentil() * muestras) - 1;
+            percentilNanos = copia[Math.max(0, Math.min(posicion, muestras - 1))];
+        }
+    }
+}
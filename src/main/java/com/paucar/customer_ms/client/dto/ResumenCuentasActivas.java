@@ -0,0 +1,76 @@
+package com.paucar.customer_ms.client.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.paucar.customer_ms.util.EstadoCuenta;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.IOException;
+
+/**
+ * Lectura reducida de la respuesta de /cuentas/cliente/{id}: solo indica si alguna cuenta está ACTIVO.
+ * El deserializador recorre "datos" sin crear objetos Cuenta y deja de leer en la primera cuenta activa.
+ */
+@Getter
+@AllArgsConstructor
+@JsonDeserialize(using = ResumenCuentasActivas.Lector.class)
+public class ResumenCuentasActivas {
+
+    // null cuando la respuesta no trae el arreglo "datos".
+    private final Boolean tieneActivas;
+
+    static class Lector extends StdDeserializer<ResumenCuentasActivas> {
+
+        private static final String ACTIVO = EstadoCuenta.ACTIVO.name();
+
+        Lector() {
+            super(ResumenCuentasActivas.class);
+        }
+
+        @Override
+        public ResumenCuentasActivas deserialize(JsonParser parser, DeserializationContext contexto) throws IOException {
+            if (!parser.isExpectedStartObjectToken()) {
+                return (ResumenCuentasActivas) contexto.handleUnexpectedToken(ResumenCuentasActivas.class, parser);
+            }
+            Boolean tieneActivas = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String campo = parser.currentName();
+                JsonToken valor = parser.nextToken();
+                if ("datos".equals(campo) && valor == JsonToken.START_ARRAY) {
+                    // El resto del cuerpo queda sin analizar; el cliente HTTP lo descarta al cerrar el flujo.
+                    if (contieneActiva(parser)) {
+                        return new ResumenCuentasActivas(true);
+                    }
+                    tieneActivas = false;
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return new ResumenCuentasActivas(tieneActivas);
+        }
+
+        // Sin cuenta activa deja el parser sobre el cierre del arreglo.
+        private boolean contieneActiva(JsonParser parser) throws IOException {
+            JsonToken elemento;
+            while ((elemento = parser.nextToken()) != JsonToken.END_ARRAY && elemento != null) {
+                if (elemento != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String campo = parser.currentName();
+                    JsonToken valor = parser.nextToken();
+                    if ("estado".equals(campo) && valor == JsonToken.VALUE_STRING && ACTIVO.equals(parser.getText())) {
+                        return true;
+                    }
+                    parser.skipChildren();
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.paucar.customer_ms.config;
+
+import com.paucar.customer_ms.client.BalanceadorServicioCuentas;
+import com.paucar.customer_ms.client.CargaInstanciasCuentas;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.TaskScheduler;
+
+// Balanceador de ACCOUNT-MS, registrado con @LoadBalancerClient en CuentaFeignConfiguracion. Sin @Configuration
+// a propósito: sus beans viven en el contexto propio del cliente balanceado, no en el de la aplicación.
+// La lista de instancias es la predeterminada: discovery con caché local, refrescada fuera de cada solicitud.
+public class BalanceoServicioCuentasConfiguracion {
+
+    @Bean
+    public CargaInstanciasCuentas cargaInstanciasCuentas(ObjectProvider<ServicioCuentasPropiedades> propiedades,
+                                                         ObjectProvider<TaskScheduler> programador) {
+        CargaInstanciasCuentas carga =
+                new CargaInstanciasCuentas(propiedades.getIfAvailable(ServicioCuentasPropiedades::new).getBalanceo());
+        // El programador de @EnableScheduling de la aplicación; sin él las instancias retiradas solo ocupan memoria.
+        programador.ifUnique(carga::programarLimpieza);
+        return carga;
+    }
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> balanceadorServicioCuentas(Environment environment,
+                                                                          LoadBalancerClientFactory loadBalancerClientFactory,
+                                                                          CargaInstanciasCuentas cargaInstanciasCuentas) {
+        String servicio = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new BalanceadorServicioCuentas(
+                loadBalancerClientFactory.getLazyProvider(servicio, ServiceInstanceListSupplier.class),
+                servicio, cargaInstanciasCuentas);
+    }
+}
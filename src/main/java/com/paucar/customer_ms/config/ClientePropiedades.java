@@ -0,0 +1,81 @@
+package com.paucar.customer_ms.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "cliente")
+public class ClientePropiedades {
+
+    private Paginacion paginacion = new Paginacion();
+    private Exportacion exportacion = new Exportacion();
+    private Lote lote = new Lote();
+    private Cache cache = new Cache();
+    private CacheListado cacheListado = new CacheListado();
+    private Indice indice = new Indice();
+    private Busqueda busqueda = new Busqueda();
+    private VistaCuentas vistaCuentas = new VistaCuentas();
+    private ConsultasParalelas consultasParalelas = new ConsultasParalelas();
+
+    @Data
+    public static class Paginacion {
+        private int limitePorDefecto = 50;
+        private int limiteMaximo = 500;
+    }
+
+    @Data
+    public static class Exportacion {
+        private int filasPorBloque = 500;
+    }
+
+    @Data
+    public static class Lote {
+        private int tamanoMaximo = 1000;
+        private int idsPorConsulta = 500;
+    }
+
+    @Data
+    public static class Cache {
+        private boolean habilitado = true;
+        private long tamanoMaximo = 10_000;
+        private Duration tiempoVida = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class CacheListado {
+        private boolean habilitado = true;
+        private long tamanoMaximo = 256;
+        private Duration tiempoVida = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Indice {
+        private boolean habilitado = true;
+        private long capacidadEmails = 1_000_000;
+        private double tasaFalsosPositivos = 0.01;
+        private Duration intervaloReconstruccion = Duration.ofHours(6);
+    }
+
+    @Data
+    public static class Busqueda {
+        private boolean habilitado = true;
+        private double similitudMinima = 0.4;
+        private int limitePorDefecto = 10;
+        private int limiteMaximo = 50;
+        private Duration intervaloReconstruccion = Duration.ofHours(6);
+    }
+
+    @Data
+    public static class VistaCuentas {
+        private boolean habilitado = true;
+        private Duration vigenciaMaxima = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class ConsultasParalelas {
+        private boolean habilitado = true;
+        private int hilosMaximos = 4;
+    }
+}
@@ -0,0 +1,25 @@
+package com.paucar.customer_ms.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@LoadBalancerClient(name = "ACCOUNT-MS", configuration = BalanceoServicioCuentasConfiguracion.class)
+public class CuentaFeignConfiguracion {
+
+    // Publica conexiones disponibles, arrendadas, pendientes y máximas del pool de Feign.
+    @Bean
+    public MeterBinder metricasPoolServicioCuentas(ObjectProvider<HttpClientConnectionManager> connectionManager) {
+        return registro -> connectionManager.ifAvailable(manager -> {
+            if (manager instanceof PoolingHttpClientConnectionManager pool) {
+                new PoolingHttpClientConnectionManagerMetricsBinder(pool, "feign").bindTo(registro);
+            }
+        });
+    }
+}
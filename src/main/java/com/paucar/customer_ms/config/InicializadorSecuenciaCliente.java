@@ -0,0 +1,39 @@
+package com.paucar.customer_ms.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Alinea el generador de ids de {@code cliente} con los registros existentes.
+ * Las filas creadas cuando la tabla usaba AUTO_INCREMENT quedan por debajo del valor
+ * inicial del generador, así que se adelanta hasta MAX(id) + 1 si hace falta.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InicializadorSecuenciaCliente implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Long maximo = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM cliente", Long.class);
+        long siguiente = maximo + 1;
+
+        int actualizadas = jdbcTemplate.update(
+                "UPDATE secuencia_id SET siguiente_valor = ? WHERE entidad = 'cliente' AND siguiente_valor <= ?",
+                siguiente, maximo);
+        int insertadas = jdbcTemplate.update(
+                "INSERT INTO secuencia_id (entidad, siguiente_valor) SELECT 'cliente', ? FROM DUAL "
+                        + "WHERE NOT EXISTS (SELECT 1 FROM secuencia_id WHERE entidad = 'cliente')",
+                siguiente);
+
+        if (actualizadas + insertadas > 0) {
+            log.info("Generador de ids de cliente alineado en {}", siguiente);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.paucar.customer_ms.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "servicio-cuentas")
+public class ServicioCuentasPropiedades {
+
+    private boolean rutaLigeraActivas = true;
+    private Respaldo respaldo = new Respaldo();
+    private Reintentos reintentos = new Reintentos();
+    private Balanceo balanceo = new Balanceo();
+
+    // Solicitud de respaldo: si la consulta tarda más que el percentil observado se envía otra igual.
+    @Data
+    public static class Respaldo {
+        private boolean habilitado = true;
+        private double percentil = 0.95;
+        private Duration retardoMinimo = Duration.ofMillis(20);
+        private int muestrasMinimas = 50;
+        // Intentos en curso a la vez, principales y respaldos; con todos ocupados la consulta va sin respaldo.
+        private int hilosMaximos = 32;
+        // Límite de espera a la primera respuesta; debe superar connect-timeout más read-timeout de Feign.
+        private Duration esperaMaxima = Duration.ofSeconds(6);
+    }
+
+    @Data
+    public static class Reintentos {
+        private int maximo = 2;
+        private Duration esperaInicial = Duration.ofMillis(50);
+        private Duration esperaMaxima = Duration.ofMillis(500);
+        // Cada consulta aporta esta fracción de un reintento o respaldo; el saldo no pasa de presupuestoMaximo.
+        private double proporcionPresupuesto = 0.2;
+        private int presupuestoMaximo = 20;
+    }
+
+    // Latencia por instancia de ACCOUNT-MS que usa el balanceador para elegir entre dos candidatas.
+    @Data
+    public static class Balanceo {
+        // Tiempo en que una respuesta pierde casi dos tercios de su peso en la latencia media.
+        private Duration decaimiento = Duration.ofSeconds(2);
+        // Sin respuestas durante este plazo la latencia de la instancia se da por desconocida.
+        private Duration olvido = Duration.ofSeconds(30);
+        // Un fallo o un 5xx cuenta como una respuesta que tardó al menos esto.
+        private Duration penalizacionFallo = Duration.ofSeconds(1);
+    }
+}
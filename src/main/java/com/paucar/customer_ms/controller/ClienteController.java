@@ -1,13 +1,24 @@
 package com.paucar.customer_ms.controller;
 
+import com.paucar.customer_ms.dto.CambiosClienteDTO;
 import com.paucar.customer_ms.dto.ClienteDTO;
+import com.paucar.customer_ms.dto.CoincidenciaClienteDTO;
+import com.paucar.customer_ms.dto.ConteoCuentasActivasDTO;
+import com.paucar.customer_ms.dto.FiltroClientesDTO;
+import com.paucar.customer_ms.dto.PaginaClientesDTO;
+import com.paucar.customer_ms.dto.ResultadoLoteDTO;
 import com.paucar.customer_ms.util.ApiResponse;
+import com.paucar.customer_ms.util.EtiquetaCliente;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import com.paucar.customer_ms.service.cache.ListadoClientesCache;
 import com.paucar.customer_ms.service.consulta.ClienteConsultaService;
+import com.paucar.customer_ms.service.cuentas.VistaCuentasActivasService;
 import com.paucar.customer_ms.service.gestion.ClienteGestionService;
 
 import java.util.List;
@@ -21,14 +32,71 @@ public class ClienteController {
 
     private final ClienteConsultaService clienteConsultaService;
     private final ClienteGestionService clienteGestionService;
+    private final ListadoClientesCache listadoClientesCache;
+    private final VistaCuentasActivasService vistaCuentasActivasService;
 
+    // La página se sirve desde ListadoClientesCache ya serializada; gzip solo si el cliente lo acepta.
     @GetMapping
-    public ResponseEntity<ApiResponse<List<ClienteDTO>>> obtenerTodosLosClientes() {
-        List<ClienteDTO> clientes = clienteConsultaService.obtenerTodosLosClientes();
+    public ResponseEntity<byte[]> obtenerTodosLosClientes(
+            @RequestParam(name = "limit", required = false) Integer limite,
+            @RequestParam(name = "after", required = false) Long cursor,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String codificaciones) {
+        ListadoClientesCache.RespuestaSerializada respuesta = listadoClientesCache.obtener(limite, cursor, () -> {
+            PaginaClientesDTO pagina = clienteConsultaService.obtenerClientesPaginados(limite, cursor);
+            return ApiResponse.<List<ClienteDTO>>builder()
+                    .estado(HttpStatus.OK.value())
+                    .mensaje("Lista de clientes recuperada exitosamente")
+                    .datos(pagina.getClientes())
+                    .siguienteCursor(pagina.getSiguienteCursor())
+                    .build();
+        });
+        // Con ETag en la respuesta, Spring contesta 304 sin cuerpo cuando coincide con If-None-Match.
+        ResponseEntity.BodyBuilder respuestaOk = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (aceptaGzip(codificaciones)) {
+            return respuestaOk.eTag(respuesta.etiquetaGzip())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(respuesta.gzip());
+        }
+        return respuestaOk.eTag(respuesta.etiqueta()).body(respuesta.json());
+    }
+
+    @GetMapping("/busqueda")
+    public ResponseEntity<ApiResponse<List<ClienteDTO>>> buscarClientes(
+            @RequestParam(name = "nombre", required = false) String nombre,
+            @RequestParam(name = "apellido", required = false) String apellido,
+            @RequestParam(name = "dni", required = false) String dni,
+            @RequestParam(name = "email", required = false) String email,
+            @RequestParam(name = "limit", required = false) Integer limite,
+            @RequestParam(name = "after", required = false) Long cursor) {
+        FiltroClientesDTO filtro = FiltroClientesDTO.builder()
+                .nombre(nombre)
+                .apellido(apellido)
+                .dni(dni)
+                .email(email)
+                .build();
+        PaginaClientesDTO pagina = clienteConsultaService.buscarClientes(filtro, limite, cursor);
         ApiResponse<List<ClienteDTO>> respuesta = ApiResponse.<List<ClienteDTO>>builder()
                 .estado(HttpStatus.OK.value())
-                .mensaje("Lista de clientes recuperada exitosamente")
-                .datos(clientes)
+                .mensaje("Búsqueda de clientes realizada exitosamente")
+                .datos(pagina.getClientes())
+                .siguienteCursor(pagina.getSiguienteCursor())
+                .build();
+        return ResponseEntity.ok()
+                .eTag(EtiquetaCliente.dePagina(pagina.getClientes(), pagina.getSiguienteCursor()))
+                .body(respuesta);
+    }
+
+    @GetMapping("/busqueda/aproximada")
+    public ResponseEntity<ApiResponse<List<CoincidenciaClienteDTO>>> buscarClientesAproximado(
+            @RequestParam(name = "texto", required = false) String texto,
+            @RequestParam(name = "limit", required = false) Integer limite) {
+        List<CoincidenciaClienteDTO> coincidencias = clienteConsultaService.buscarClientesAproximado(texto, limite);
+        ApiResponse<List<CoincidenciaClienteDTO>> respuesta = ApiResponse.<List<CoincidenciaClienteDTO>>builder()
+                .estado(HttpStatus.OK.value())
+                .mensaje("Búsqueda aproximada realizada exitosamente")
+                .datos(coincidencias)
                 .build();
         return new ResponseEntity<>(respuesta, HttpStatus.OK);
     }
@@ -42,7 +110,7 @@ public class ClienteController {
                     .mensaje("Cliente encontrado con éxito")
                     .datos(valor)
                     .build();
-            return new ResponseEntity<>(respuesta, HttpStatus.OK);
+            return ResponseEntity.ok().eTag(EtiquetaCliente.deCliente(valor)).body(respuesta);
         }).orElseGet(() -> {
             ApiResponse<ClienteDTO> respuesta = ApiResponse.<ClienteDTO>builder()
                     .estado(HttpStatus.NOT_FOUND.value())
@@ -60,27 +128,117 @@ public class ClienteController {
                 .mensaje("Cliente creado exitosamente")
                 .datos(nuevoCliente)
                 .build();
-        return new ResponseEntity<>(respuesta, HttpStatus.CREATED);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(EtiquetaCliente.deCliente(nuevoCliente)).body(respuesta);
+    }
+
+    @PostMapping("/lote")
+    public ResponseEntity<ApiResponse<ResultadoLoteDTO>> crearClientesEnLote(@RequestBody List<ClienteDTO> clientesDTO) {
+        ResultadoLoteDTO resultado = clienteGestionService.guardarClientesEnLote(clientesDTO);
+        ApiResponse<ResultadoLoteDTO> respuesta = ApiResponse.<ResultadoLoteDTO>builder()
+                .estado(HttpStatus.OK.value())
+                .mensaje("Lote procesado: " + resultado.getExitosos() + " clientes creados, "
+                        + resultado.getFallidos() + " con errores")
+                .datos(resultado)
+                .build();
+        return new ResponseEntity<>(respuesta, HttpStatus.OK);
+    }
+
+    // Varios clientes por ID en una sola llamada; los IDs inexistentes se informan por ítem, sin 404.
+    @PostMapping("/lote/consulta")
+    public ResponseEntity<ApiResponse<ResultadoLoteDTO>> buscarClientesPorIds(@RequestBody List<Long> ids) {
+        ResultadoLoteDTO resultado = clienteConsultaService.buscarClientesPorIds(ids);
+        ApiResponse<ResultadoLoteDTO> respuesta = ApiResponse.<ResultadoLoteDTO>builder()
+                .estado(HttpStatus.OK.value())
+                .mensaje("Lote procesado: " + resultado.getExitosos() + " clientes encontrados, "
+                        + resultado.getFallidos() + " con errores")
+                .datos(resultado)
+                .build();
+        return new ResponseEntity<>(respuesta, HttpStatus.OK);
+    }
+
+    @PostMapping("/lote/eliminacion")
+    public ResponseEntity<ApiResponse<ResultadoLoteDTO>> eliminarClientesEnLote(@RequestBody List<Long> ids) {
+        ResultadoLoteDTO resultado = clienteGestionService.eliminarClientesEnLote(ids);
+        ApiResponse<ResultadoLoteDTO> respuesta = ApiResponse.<ResultadoLoteDTO>builder()
+                .estado(HttpStatus.OK.value())
+                .mensaje("Lote procesado: " + resultado.getExitosos() + " clientes eliminados, "
+                        + resultado.getFallidos() + " con errores")
+                .datos(resultado)
+                .build();
+        return new ResponseEntity<>(respuesta, HttpStatus.OK);
+    }
+
+    // ACCOUNT-MS notifica aquí el total de cuentas activas de cada cliente; DELETE lo usa mientras esté vigente.
+    @PostMapping("/lote/cuentas-activas")
+    public ResponseEntity<ApiResponse<ResultadoLoteDTO>> registrarConteosCuentasActivas(
+            @RequestBody List<ConteoCuentasActivasDTO> conteos) {
+        ResultadoLoteDTO resultado = vistaCuentasActivasService.registrarConteos(conteos);
+        ApiResponse<ResultadoLoteDTO> respuesta = ApiResponse.<ResultadoLoteDTO>builder()
+                .estado(HttpStatus.OK.value())
+                .mensaje("Lote procesado: " + resultado.getExitosos() + " conteos recibidos, "
+                        + resultado.getFallidos() + " con errores")
+                .datos(resultado)
+                .build();
+        return new ResponseEntity<>(respuesta, HttpStatus.OK);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<ApiResponse<ClienteDTO>> actualizarCliente(@PathVariable Long id, @Valid @RequestBody ClienteDTO clienteDTO) {
-        ClienteDTO clienteActualizado = clienteGestionService.actualizarCliente(id, clienteDTO);
+    public ResponseEntity<ApiResponse<ClienteDTO>> actualizarCliente(
+            @PathVariable Long id,
+            @Valid @RequestBody ClienteDTO clienteDTO,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ClienteDTO clienteActualizado = clienteGestionService.actualizarCliente(
+                id, clienteDTO, EtiquetaCliente.versionEsperada(ifMatch));
         ApiResponse<ClienteDTO> respuesta = ApiResponse.<ClienteDTO>builder()
                 .estado(HttpStatus.OK.value())
                 .mensaje("Cliente actualizado exitosamente")
                 .datos(clienteActualizado)
                 .build();
-        return new ResponseEntity<>(respuesta, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(EtiquetaCliente.deCliente(clienteActualizado)).body(respuesta);
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<ApiResponse<Void>> actualizarClienteParcialmente(
+            @PathVariable Long id,
+            @RequestBody CambiosClienteDTO cambios,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long versionEsperada = EtiquetaCliente.versionEsperada(ifMatch);
+        clienteGestionService.actualizarClienteParcialmente(id, cambios, versionEsperada);
+        ApiResponse<Void> respuesta = ApiResponse.<Void>builder()
+                .estado(HttpStatus.OK.value())
+                .mensaje("Cliente actualizado exitosamente")
+                .build();
+        // Sin If-Match la versión nueva no se conoce sin leer el cliente, así que no se envía ETag.
+        ResponseEntity.BodyBuilder respuestaOk = ResponseEntity.ok();
+        if (versionEsperada != null) {
+            respuestaOk.eTag(EtiquetaCliente.deVersion(versionEsperada + 1));
+        }
+        return respuestaOk.body(respuesta);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<ApiResponse<Void>> eliminarCliente(@PathVariable Long id) {
-        clienteGestionService.eliminarClientePorId(id);
+    public ResponseEntity<ApiResponse<Void>> eliminarCliente(
+            @PathVariable Long id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        clienteGestionService.eliminarClientePorId(id, EtiquetaCliente.versionEsperada(ifMatch));
         ApiResponse<Void> respuesta = ApiResponse.<Void>builder()
                 .estado(HttpStatus.OK.value())
                 .mensaje("Cliente eliminado exitosamente")
                 .build();
         return new ResponseEntity<>(respuesta, HttpStatus.OK);
     }
+
+    // "gzip" presente en Accept-Encoding y sin q=0.
+    private static boolean aceptaGzip(String codificaciones) {
+        if (codificaciones == null) {
+            return false;
+        }
+        for (String codificacion : codificaciones.split(",")) {
+            String[] partes = codificacion.split(";");
+            if (partes[0].trim().equalsIgnoreCase("gzip")) {
+                return partes.length == 1 || !partes[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,45 @@
+package com.paucar.customer_ms.controller;
+
+import com.paucar.customer_ms.exception.ExportacionInterrumpidaException;
+import com.paucar.customer_ms.service.exportacion.ClienteExportacionService;
+import com.paucar.customer_ms.util.FormatoExportacion;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/cliente/exportacion")
+@CrossOrigin(originPatterns = "*", allowCredentials = "true")
+@RequiredArgsConstructor
+public class ClienteExportacionController {
+
+    private final ClienteExportacionService clienteExportacionService;
+
+    @GetMapping
+    public void exportarClientes(@RequestParam(name = "formato", defaultValue = "ndjson") String formato,
+                                 HttpServletResponse response) throws IOException {
+        FormatoExportacion formatoExportacion = FormatoExportacion.desde(formato);
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(formatoExportacion.getTipoContenido());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"clientes." + formatoExportacion.getExtension() + "\"");
+
+        // Si aún no se envió nada, se descartan las cabeceras del archivo para que ExcepcionesGlobales responda en
+        // JSON. Con parte del archivo ya enviada eso no es posible: se deja de escribir y ExcepcionesGlobales
+        // relanza la excepción para que el contenedor corte la conexión.
+        try {
+            clienteExportacionService.exportarClientes(formatoExportacion, response.getOutputStream());
+        } catch (IOException | RuntimeException ex) {
+            if (!response.isCommitted()) {
+                response.reset();
+                throw ex;
+            }
+            throw new ExportacionInterrumpidaException("La exportación de clientes se interrumpió a medio enviar.", ex);
+        }
+    }
+}
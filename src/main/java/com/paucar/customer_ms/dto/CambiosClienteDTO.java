@@ -0,0 +1,23 @@
+package com.paucar.customer_ms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Cuerpo de PATCH /cliente/{id}: solo se modifican los campos presentes; los nulos se dejan como están.
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CambiosClienteDTO {
+
+    private String nombre;
+    private String apellido;
+    private String dni;
+    private String email;
+
+    public boolean tieneCambios() {
+        return nombre != null || apellido != null || dni != null || email != null;
+    }
+}
@@ -3,7 +3,7 @@ package com.paucar.customer_ms.dto;
 
 import lombok.*;
 
-@Builder
+@Builder(toBuilder = true)
 @Setter
 @Getter
 @Data
@@ -16,5 +16,6 @@ public class ClienteDTO {
     private String apellido;
     private String dni;
     private String email;
+    private long version;
 
 }
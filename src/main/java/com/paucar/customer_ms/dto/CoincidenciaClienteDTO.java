@@ -0,0 +1,18 @@
+package com.paucar.customer_ms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Resultado de la búsqueda aproximada: similitud entre 0 y 1 respecto al texto buscado.
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoincidenciaClienteDTO {
+
+    private ClienteDTO cliente;
+    private double similitud;
+
+}
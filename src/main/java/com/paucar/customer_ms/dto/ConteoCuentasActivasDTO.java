@@ -0,0 +1,21 @@
+package com.paucar.customer_ms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Notificación de ACCOUNT-MS: total de cuentas activas del cliente en el instante indicado, no una variación.
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConteoCuentasActivasDTO {
+
+    private Long clienteId;
+    private Integer cuentasActivas;
+    private Instant actualizadoEn;
+
+}
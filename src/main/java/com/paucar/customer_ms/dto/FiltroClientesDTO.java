@@ -0,0 +1,20 @@
+package com.paucar.customer_ms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Criterios de GET /cliente/busqueda: nombre, apellido y DNI por prefijo; email exacto.
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FiltroClientesDTO {
+
+    private String nombre;
+    private String apellido;
+    private String dni;
+    private String email;
+
+}
@@ -0,0 +1,19 @@
+package com.paucar.customer_ms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaClientesDTO {
+
+    private List<ClienteDTO> clientes;
+    private Long siguienteCursor;
+
+}
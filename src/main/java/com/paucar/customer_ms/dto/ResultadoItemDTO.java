@@ -0,0 +1,22 @@
+package com.paucar.customer_ms.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ResultadoItemDTO {
+
+    private Integer indice;
+    private Long id;
+    private boolean exitoso;
+    private String mensaje;
+    private ClienteDTO cliente;
+
+}
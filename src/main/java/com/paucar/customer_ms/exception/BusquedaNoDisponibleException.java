@@ -0,0 +1,7 @@
+package com.paucar.customer_ms.exception;
+
+public class BusquedaNoDisponibleException extends RuntimeException {
+    public BusquedaNoDisponibleException(String message) {
+        super(message);
+    }
+}
@@ -1,10 +1,17 @@
 package com.paucar.customer_ms.exception;
 
+import com.paucar.customer_ms.model.Cliente;
 import com.paucar.customer_ms.util.ApiResponse;
 import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -13,39 +20,90 @@ import org.springframework.web.method.annotation.MethodArgumentTypeMismatchExcep
 import org.springframework.web.servlet.NoHandlerFoundException;
 
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+@Slf4j
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class ExcepcionesGlobales {
 
+    private final MeterRegistry meterRegistry;
+
     @ExceptionHandler(EmailYaRegistradoException.class)
     public ResponseEntity<ApiResponse<Void>> manejarExcepcionEmailYaRegistrado(EmailYaRegistradoException ex) {
+        contarExcepcion(ex);
         return construirRespuestaError(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(DniYaRegistradoException.class)
     public ResponseEntity<ApiResponse<Void>> manejarExcepcionDniYaRegistrado(DniYaRegistradoException ex) {
+        contarExcepcion(ex);
         return construirRespuestaError(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
+    // Las restricciones únicas de la tabla resuelven la carrera entre dos altas simultáneas con el mismo email o DNI.
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ApiResponse<Void>> manejarExcepcionIntegridadDatos(DataIntegrityViolationException ex) {
+        contarExcepcion(ex);
+        String restriccion = obtenerRestriccionViolada(ex);
+        if (restriccion.contains(Cliente.RESTRICCION_EMAIL_UNICO)) {
+            return construirRespuestaError("El correo electrónico ya está en uso.", HttpStatus.BAD_REQUEST);
+        }
+        if (restriccion.contains(Cliente.RESTRICCION_DNI_UNICO)) {
+            return construirRespuestaError("El DNI ya está en uso.", HttpStatus.BAD_REQUEST);
+        }
+        return construirRespuestaError("La operación viola una restricción de integridad de los datos.", HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(ClienteNoEncontradoException.class)
     public ResponseEntity<ApiResponse<Void>> manejarExcepcionClienteNoEncontrado(ClienteNoEncontradoException ex) {
+        contarExcepcion(ex);
         return construirRespuestaError(ex.getMessage(), HttpStatus.NOT_FOUND);
     }
 
     @ExceptionHandler(ClienteConCuentasActivasException.class)
     public ResponseEntity<ApiResponse<Void>> manejarExcepcionClienteConCuentasActivas(ClienteConCuentasActivasException ex) {
+        contarExcepcion(ex);
         return construirRespuestaError(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(VersionClienteNoCoincideException.class)
+    public ResponseEntity<ApiResponse<Void>> manejarExcepcionVersionClienteNoCoincide(VersionClienteNoCoincideException ex) {
+        contarExcepcion(ex);
+        return construirRespuestaError(ex.getMessage(), HttpStatus.PRECONDITION_FAILED);
+    }
+
+    // Dos modificaciones simultáneas sin If-Match: la segunda en guardar pierde en lugar de pisar a la primera.
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<Void>> manejarExcepcionBloqueoOptimista(ObjectOptimisticLockingFailureException ex) {
+        contarExcepcion(ex);
+        return construirRespuestaError("El cliente fue modificado por otra operación al mismo tiempo. "
+                + "Consúltelo de nuevo e intente nuevamente.", HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(ServicioCuentasNoDisponibleException.class)
+    public ResponseEntity<ApiResponse<Void>> manejarExcepcionServicioCuentasNoDisponible(ServicioCuentasNoDisponibleException ex) {
+        contarExcepcion(ex);
+        return construirRespuestaError(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(BusquedaNoDisponibleException.class)
+    public ResponseEntity<ApiResponse<Void>> manejarExcepcionBusquedaNoDisponible(BusquedaNoDisponibleException ex) {
+        contarExcepcion(ex);
+        return construirRespuestaError(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ApiResponse<Void>> manejarExcepcionArgumentoInvalido(IllegalArgumentException ex) {
+        contarExcepcion(ex);
         return construirRespuestaError(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(NoHandlerFoundException.class)
     public ResponseEntity<ApiResponse<Void>> manejarExcepcionRecursoNoEncontrado(NoHandlerFoundException ex) {
+        contarExcepcion(ex);
         ApiResponse<Void> respuestaError = ApiResponse.<Void>builder()
                 .estado(HttpStatus.NOT_FOUND.value())
                 .mensaje("El recurso solicitado no fue encontrado. Verifique la URL.")
@@ -57,6 +115,7 @@ public class ExcepcionesGlobales {
 
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     public ResponseEntity<ApiResponse<Void>> manejarExcepcionTipoArgumento(MethodArgumentTypeMismatchException ex) {
+        contarExcepcion(ex);
         String mensajeError = String.format("El valor '%s' no es válido para el parámetro '%s'. Se esperaba un valor de tipo '%s'.",
                 ex.getValue(), ex.getName(), ex.getRequiredType().getSimpleName());
         return construirRespuestaError(mensajeError, HttpStatus.BAD_REQUEST);
@@ -64,6 +123,7 @@ public class ExcepcionesGlobales {
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse<Map<String, String>>> manejarExcepcionesValidacion(MethodArgumentNotValidException ex) {
+        contarExcepcion(ex);
         Map<String, String> errores = new HashMap<>();
         ex.getBindingResult().getFieldErrors().forEach(error -> errores.put(error.getField(), error.getDefaultMessage()));
 
@@ -78,7 +138,8 @@ public class ExcepcionesGlobales {
 
     @ExceptionHandler(FeignException.class)
     public ResponseEntity<ApiResponse<Void>> manejarExcepcionFeign(FeignException ex) {
-        System.out.println("Capturada la excepción FeignException con estado: " + ex.status());
+        contarExcepcion(ex);
+        log.warn("Error en la llamada a otro microservicio con estado {}: {}", ex.status(), ex.getMessage());
         if (ex.status() == 404) {
             return construirRespuestaError("El recurso no fue encontrado en el servicio externo.", HttpStatus.NOT_FOUND);
         }
@@ -87,6 +148,7 @@ public class ExcepcionesGlobales {
 
     @ExceptionHandler(ConstraintViolationException.class)
     public ResponseEntity<ApiResponse<Map<String, String>>> manejarExcepcionViolacionRestriccion(ConstraintViolationException ex) {
+        contarExcepcion(ex);
         Map<String, String> errores = ex.getConstraintViolations().stream()
                 .collect(Collectors.toMap(
                         violation -> violation.getPropertyPath().toString(),
@@ -104,11 +166,43 @@ public class ExcepcionesGlobales {
     }
 
 
+    // La respuesta ya está confirmada: un cuerpo de error se mezclaría con el archivo. Al relanzarla, el contenedor
+    // corta la conexión y el cliente recibe el archivo incompleto como un fallo.
+    @ExceptionHandler(ExportacionInterrumpidaException.class)
+    public void manejarExcepcionExportacionInterrumpida(ExportacionInterrumpidaException ex) {
+        contarExcepcion(ex);
+        log.warn("{} Causa: {}", ex.getMessage(), ex.getCause().toString());
+        throw ex;
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<Void>> manejarExcepcionGlobal(Exception ex) {
+        contarExcepcion(ex);
+        log.error("Excepción no controlada", ex);
         return construirRespuestaError("Ocurrió un error inesperado. Por favor, intente más tarde.", HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    private void contarExcepcion(Exception ex) {
+        Counter.builder("cliente.excepciones")
+                .description("Excepciones atendidas por ExcepcionesGlobales")
+                .tag("excepcion", ex.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private String obtenerRestriccionViolada(DataIntegrityViolationException ex) {
+        Throwable causa = ex;
+        while (causa != null) {
+            if (causa instanceof org.hibernate.exception.ConstraintViolationException violacion
+                    && violacion.getConstraintName() != null) {
+                return violacion.getConstraintName().toLowerCase(Locale.ROOT);
+            }
+            causa = causa.getCause();
+        }
+        String mensaje = ex.getMostSpecificCause().getMessage();
+        return mensaje == null ? "" : mensaje.toLowerCase(Locale.ROOT);
+    }
+
     private ResponseEntity<ApiResponse<Void>> construirRespuestaError(String mensaje, HttpStatus estado) {
         ApiResponse<Void> respuestaError = ApiResponse.<Void>builder()
                 .estado(estado.value())
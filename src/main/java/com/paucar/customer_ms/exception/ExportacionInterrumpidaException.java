@@ -0,0 +1,7 @@
+package com.paucar.customer_ms.exception;
+
+public class ExportacionInterrumpidaException extends RuntimeException {
+    public ExportacionInterrumpidaException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,7 @@
+package com.paucar.customer_ms.exception;
+
+public class ServicioCuentasNoDisponibleException extends RuntimeException {
+    public ServicioCuentasNoDisponibleException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
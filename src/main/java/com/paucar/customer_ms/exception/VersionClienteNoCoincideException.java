@@ -0,0 +1,7 @@
+package com.paucar.customer_ms.exception;
+
+public class VersionClienteNoCoincideException extends RuntimeException {
+    public VersionClienteNoCoincideException(String message) {
+        super(message);
+    }
+}
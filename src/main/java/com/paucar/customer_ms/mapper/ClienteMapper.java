@@ -4,11 +4,14 @@ package com.paucar.customer_ms.mapper;
 import com.paucar.customer_ms.dto.ClienteDTO;
 import com.paucar.customer_ms.model.Cliente;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface ClienteMapper {
 
     ClienteDTO convertiADTO(Cliente customer);
+    // La versión la asigna Hibernate; la que envía el cliente llega por If-Match.
+    @Mapping(target = "version", ignore = true)
     Cliente convertirAEntidad(ClienteDTO customerDTO);
 
 }
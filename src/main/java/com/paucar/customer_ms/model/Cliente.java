@@ -12,11 +12,24 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Data
 @Entity
-@Table(name = "cliente")
+// La búsqueda por DNI y por email usa los índices de las restricciones únicas; nombre y apellido tienen los suyos.
+@Table(name = "cliente", uniqueConstraints = {
+        @UniqueConstraint(name = Cliente.RESTRICCION_EMAIL_UNICO, columnNames = "email"),
+        @UniqueConstraint(name = Cliente.RESTRICCION_DNI_UNICO, columnNames = "dni")
+}, indexes = {
+        @Index(name = "idx_cliente_apellido_nombre", columnList = "apellido, nombre"),
+        @Index(name = "idx_cliente_nombre", columnList = "nombre")
+})
 public class Cliente {
 
+    public static final String RESTRICCION_EMAIL_UNICO = "uk_cliente_email";
+    public static final String RESTRICCION_DNI_UNICO = "uk_cliente_dni";
+
+    // Ids por bloques (pooled-lo) en lugar de IDENTITY para que Hibernate pueda agrupar los INSERT en lotes JDBC.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "cliente_id")
+    @TableGenerator(name = "cliente_id", table = "secuencia_id", pkColumnName = "entidad",
+            valueColumnName = "siguiente_valor", pkColumnValue = "cliente", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "El nombre es obligatorio")
@@ -36,4 +49,9 @@ public class Cliente {
     @Email(message = "El formato del correo electrónico no es válido")
     private String email;
 
+    // Bloqueo optimista: cada UPDATE comprueba e incrementa la versión. Se expone como ETag.
+    // Primitivo para que Spring Data siga decidiendo por el id si la entidad es nueva.
+    @Version
+    private long version;
+
 }
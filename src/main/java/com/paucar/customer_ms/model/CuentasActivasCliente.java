@@ -0,0 +1,40 @@
+package com.paucar.customer_ms.model;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Copia local de cuántas cuentas activas tiene cada cliente en ACCOUNT-MS, alimentada por sus notificaciones.
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+@Table(name = "cuentas_activas_cliente")
+public class CuentasActivasCliente {
+
+    @Id
+    private Long clienteId;
+
+    private int cuentasActivas;
+
+    // Momento del conteo según ACCOUNT-MS: ordena las notificaciones y decide si el conteo sigue vigente.
+    private Instant actualizadoEn;
+
+    // Dos notificaciones simultáneas del mismo cliente no se pisan. Al ser objeto, null indica a Spring Data
+    // que la fila es nueva sin el SELECT previo de un id asignado.
+    @Version
+    private Long version;
+
+    public CuentasActivasCliente(Long clienteId, int cuentasActivas, Instant actualizadoEn) {
+        this.clienteId = clienteId;
+        this.cuentasActivas = cuentasActivas;
+        this.actualizadoEn = actualizadoEn;
+    }
+
+    public void actualizar(int cuentasActivas, Instant actualizadoEn) {
+        this.cuentasActivas = cuentasActivas;
+        this.actualizadoEn = actualizadoEn;
+    }
+}
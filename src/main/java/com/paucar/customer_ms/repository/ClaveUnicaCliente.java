@@ -0,0 +1,6 @@
+package com.paucar.customer_ms.repository;
+
+public interface ClaveUnicaCliente {
+    String getEmail();
+    String getDni();
+}
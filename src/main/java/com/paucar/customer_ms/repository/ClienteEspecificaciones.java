@@ -0,0 +1,63 @@
+package com.paucar.customer_ms.repository;
+
+import com.paucar.customer_ms.dto.FiltroClientesDTO;
+import com.paucar.customer_ms.model.Cliente;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filtros de la búsqueda de clientes. Solo se añaden los criterios presentes y todos son
+ * comparaciones por prefijo o por igualdad sobre la columna tal cual, para que la base de datos
+ * pueda usar los índices de nombre, apellido, DNI y email. La distinción entre mayúsculas y
+ * minúsculas la decide la colación de la columna.
+ */
+public final class ClienteEspecificaciones {
+
+    private static final char ESCAPE = '\\';
+
+    private ClienteEspecificaciones() {
+    }
+
+    public static Specification<Cliente> buscar(FiltroClientesDTO filtro, Long cursor) {
+        return (raiz, consulta, criterios) -> {
+            List<Predicate> predicados = new ArrayList<>();
+            if (tieneValor(filtro.getNombre())) {
+                predicados.add(criterios.like(raiz.get("nombre"), prefijo(filtro.getNombre()), ESCAPE));
+            }
+            if (tieneValor(filtro.getApellido())) {
+                predicados.add(criterios.like(raiz.get("apellido"), prefijo(filtro.getApellido()), ESCAPE));
+            }
+            if (tieneValor(filtro.getDni())) {
+                predicados.add(criterios.like(raiz.get("dni"), prefijo(filtro.getDni()), ESCAPE));
+            }
+            if (tieneValor(filtro.getEmail())) {
+                predicados.add(criterios.equal(raiz.get("email"), filtro.getEmail().trim()));
+            }
+            if (cursor != null) {
+                predicados.add(criterios.lessThan(raiz.get("id"), cursor));
+            }
+            return criterios.and(predicados.toArray(Predicate[]::new));
+        };
+    }
+
+    public static boolean tieneCriterios(FiltroClientesDTO filtro) {
+        return filtro != null && (tieneValor(filtro.getNombre()) || tieneValor(filtro.getApellido())
+                || tieneValor(filtro.getDni()) || tieneValor(filtro.getEmail()));
+    }
+
+    // Los comodines que escriba el usuario se buscan como texto literal.
+    private static String prefijo(String valor) {
+        String escapado = valor.trim()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return escapado + "%";
+    }
+
+    private static boolean tieneValor(String valor) {
+        return valor != null && !valor.isBlank();
+    }
+}
@@ -1,13 +1,98 @@
 package com.paucar.customer_ms.repository;
 
+import com.paucar.customer_ms.dto.ClienteDTO;
 import com.paucar.customer_ms.model.Cliente;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 
-public interface ClienteRepository extends JpaRepository<Cliente, Long> {
+public interface ClienteRepository extends JpaRepository<Cliente, Long>, JpaSpecificationExecutor<Cliente>,
+        ClienteRepositoryPersonalizado {
 
     Optional<Cliente> findByEmail(String email);
     Optional<Cliente> findByDni(String dni);
+    List<Cliente> findByEmailOrDni(String email, String dni);
+    List<Cliente> findByEmailInOrDniIn(Collection<String> emails, Collection<String> dnis);
+
+    // Lecturas que construyen el DTO en la propia consulta: sin entidades gestionadas, sin copia para la
+    // comprobación de cambios y sin flush antes de ejecutarlas.
+    String SELECCION_DTO = "SELECT new com.paucar.customer_ms.dto.ClienteDTO("
+            + "c.id, c.nombre, c.apellido, c.dni, c.email, c.version) FROM Cliente c";
+
+    @Transactional(readOnly = true)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query(SELECCION_DTO + " ORDER BY c.id DESC")
+    List<ClienteDTO> findDTOs(Limit limite);
+
+    @Transactional(readOnly = true)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query(SELECCION_DTO + " WHERE c.id < :cursor ORDER BY c.id DESC")
+    List<ClienteDTO> findDTOsByIdLessThan(@Param("cursor") Long cursor, Limit limite);
+
+    @Transactional(readOnly = true)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query(SELECCION_DTO + " WHERE c.id = :id")
+    Optional<ClienteDTO> findDTOById(@Param("id") Long id);
+
+    @Transactional(readOnly = true)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query(SELECCION_DTO + " WHERE c.id IN :ids")
+    List<ClienteDTO> findDTOsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // En MySQL el cursor del lado del servidor requiere useCursorFetch=true, que application.yml pasa al driver.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Cliente> streamAllByOrderByIdAsc();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.email AS email, c.dni AS dni FROM Cliente c")
+    Stream<ClaveUnicaCliente> streamClavesUnicas();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.id AS id, c.nombre AS nombre, c.apellido AS apellido FROM Cliente c")
+    Stream<NombreCliente> streamNombres();
+
+    @Query("SELECT c.version FROM Cliente c WHERE c.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT c.id FROM Cliente c WHERE c.id IN :ids")
+    List<Long> findIdsExistentes(@Param("ids") Collection<Long> ids);
+
+    // DELETE por conjunto: evita el SELECT previo que hace deleteById por cada entidad.
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Cliente c WHERE c.id IN :ids")
+    int eliminarPorIds(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Cliente c WHERE c.id = :id AND c.version = :version")
+    int eliminarPorIdYVersion(@Param("id") Long id, @Param("version") long version);
 }
@@ -0,0 +1,23 @@
+package com.paucar.customer_ms.repository;
+
+import com.paucar.customer_ms.dto.CambiosClienteDTO;
+import com.paucar.customer_ms.dto.ClienteDTO;
+import com.paucar.customer_ms.model.Cliente;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Optional;
+
+// Consultas que Spring Data no puede derivar; la implementación es ClienteRepositoryPersonalizadoImpl.
+public interface ClienteRepositoryPersonalizado {
+
+    // UPDATE de las columnas no nulas de los cambios sin leer antes la fila. Devuelve las filas modificadas.
+    int actualizarCampos(Long id, CambiosClienteDTO cambios, Long versionEsperada);
+
+    // Como actualizarCampos, y en la misma transacción lee el nombre y apellido resultantes mientras la fila sigue
+    // bloqueada por el UPDATE. Vacío si no se modificó ninguna fila.
+    Optional<NombreCliente> actualizarCamposYLeerNombre(Long id, CambiosClienteDTO cambios, Long versionEsperada);
+
+    // Como findDTOs, pero con el filtro de la especificación: ordenado por id descendente y acotado a 'limite' filas.
+    List<ClienteDTO> buscarDTOs(Specification<Cliente> especificacion, int limite);
+}
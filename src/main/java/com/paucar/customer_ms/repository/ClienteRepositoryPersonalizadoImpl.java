@@ -0,0 +1,104 @@
+package com.paucar.customer_ms.repository;
+
+import com.paucar.customer_ms.dto.CambiosClienteDTO;
+import com.paucar.customer_ms.dto.ClienteDTO;
+import com.paucar.customer_ms.model.Cliente;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.FlushMode;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class ClienteRepositoryPersonalizadoImpl implements ClienteRepositoryPersonalizado {
+
+    private final EntityManager entityManager;
+
+    // Un UPDATE masivo no pasa por el bloqueo optimista de Hibernate: la versión se incrementa aquí.
+    @Override
+    @Transactional
+    public int actualizarCampos(Long id, CambiosClienteDTO cambios, Long versionEsperada) {
+        CriteriaBuilder criteria = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Cliente> actualizacion = criteria.createCriteriaUpdate(Cliente.class);
+        Root<Cliente> cliente = actualizacion.from(Cliente.class);
+
+        if (cambios.getNombre() != null) {
+            actualizacion.set(cliente.<String>get("nombre"), cambios.getNombre());
+        }
+        if (cambios.getApellido() != null) {
+            actualizacion.set(cliente.<String>get("apellido"), cambios.getApellido());
+        }
+        if (cambios.getDni() != null) {
+            actualizacion.set(cliente.<String>get("dni"), cambios.getDni());
+        }
+        if (cambios.getEmail() != null) {
+            actualizacion.set(cliente.<String>get("email"), cambios.getEmail());
+        }
+        actualizacion.set(cliente.<Long>get("version"), criteria.sum(cliente.<Long>get("version"), 1L));
+
+        Predicate condicion = criteria.equal(cliente.get("id"), id);
+        if (versionEsperada != null) {
+            condicion = criteria.and(condicion, criteria.equal(cliente.get("version"), versionEsperada));
+        }
+        actualizacion.where(condicion);
+        return entityManager.createQuery(actualizacion).executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public Optional<NombreCliente> actualizarCamposYLeerNombre(Long id, CambiosClienteDTO cambios, Long versionEsperada) {
+        if (actualizarCampos(id, cambios, versionEsperada) == 0) {
+            return Optional.empty();
+        }
+        Object[] fila = entityManager.createQuery(
+                        "SELECT c.nombre, c.apellido FROM Cliente c WHERE c.id = :id", Object[].class)
+                .setParameter("id", id)
+                .getSingleResult();
+        return Optional.of(new Nombre(id, (String) fila[0], (String) fila[1]));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ClienteDTO> buscarDTOs(Specification<Cliente> especificacion, int limite) {
+        CriteriaBuilder criteria = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ClienteDTO> consulta = criteria.createQuery(ClienteDTO.class);
+        Root<Cliente> cliente = consulta.from(Cliente.class);
+
+        consulta.select(criteria.construct(ClienteDTO.class, cliente.get("id"), cliente.get("nombre"),
+                        cliente.get("apellido"), cliente.get("dni"), cliente.get("email"), cliente.get("version")))
+                .where(especificacion.toPredicate(cliente, consulta, criteria))
+                .orderBy(criteria.desc(cliente.get("id")));
+        return entityManager.createQuery(consulta)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_FLUSH_MODE, FlushMode.MANUAL)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    private record Nombre(Long id, String nombre, String apellido) implements NombreCliente {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getNombre() {
+            return nombre;
+        }
+
+        @Override
+        public String getApellido() {
+            return apellido;
+        }
+    }
+}
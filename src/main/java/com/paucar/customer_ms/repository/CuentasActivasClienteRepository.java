@@ -0,0 +1,18 @@
+package com.paucar.customer_ms.repository;
+
+import com.paucar.customer_ms.model.CuentasActivasCliente;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+public interface CuentasActivasClienteRepository extends JpaRepository<CuentasActivasCliente, Long> {
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CuentasActivasCliente c WHERE c.clienteId IN :clienteIds")
+    int eliminarPorClienteIds(@Param("clienteIds") Collection<Long> clienteIds);
+}
@@ -0,0 +1,7 @@
+package com.paucar.customer_ms.repository;
+
+public interface NombreCliente {
+    Long getId();
+    String getNombre();
+    String getApellido();
+}
@@ -0,0 +1,74 @@
+package com.paucar.customer_ms.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Agrupa las cargas concurrentes de una misma clave: el primer hilo ejecuta la carga y los que llegan
+ * mientras sigue en curso esperan su resultado, o su excepción, en lugar de repetirla. No guarda nada:
+ * en cuanto la carga termina, la siguiente llamada vuelve a ejecutarla.
+ */
+public class CargasEnCurso<K, V> {
+
+    public static final String METRICA = "cliente.consulta.agrupadas";
+
+    private final ConcurrentMap<K, CompletableFuture<V>> enCurso = new ConcurrentHashMap<>();
+    private final Counter agrupadas;
+
+    public CargasEnCurso(Counter agrupadas) {
+        this.agrupadas = agrupadas;
+    }
+
+    // Un contador por operación; lo comparten las cachés, que también agrupan cargas cuando están habilitadas.
+    public static Counter contador(MeterRegistry meterRegistry, String operacion) {
+        return Counter.builder(METRICA)
+                .description("Lecturas concurrentes que esperaron una consulta en curso en lugar de lanzar la suya")
+                .tag("operacion", operacion)
+                .register(meterRegistry);
+    }
+
+    public V cargar(K clave, Function<K, V> cargador) {
+        CompletableFuture<V> propia = new CompletableFuture<>();
+        CompletableFuture<V> existente = enCurso.putIfAbsent(clave, propia);
+        if (existente != null) {
+            agrupadas.increment();
+            return esperar(existente);
+        }
+        try {
+            V valor = cargador.apply(clave);
+            propia.complete(valor);
+            return valor;
+        } catch (RuntimeException | Error ex) {
+            propia.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            enCurso.remove(clave, propia);
+        }
+    }
+
+    // Tras una escritura: quien llegue después lanza su propia carga en vez de unirse a una que pudo leer el valor
+    // anterior. Los que ya esperaban reciben ese resultado; la carga soltada no borra a la que la reemplace.
+    public void olvidar(K clave) {
+        enCurso.remove(clave);
+    }
+
+    private V esperar(CompletableFuture<V> carga) {
+        try {
+            return carga.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (ex.getCause() instanceof Error causa) {
+                throw causa;
+            }
+            throw ex;
+        }
+    }
+}
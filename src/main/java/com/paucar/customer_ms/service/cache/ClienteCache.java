@@ -0,0 +1,75 @@
+package com.paucar.customer_ms.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.paucar.customer_ms.config.ClientePropiedades;
+import com.paucar.customer_ms.dto.ClienteDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Caché local de clientes por ID. Se guardan y se entregan copias para que nadie modifique el valor compartido.
+// Las lecturas concurrentes de un mismo ID comparten una sola consulta, con la caché habilitada o sin ella. La
+// consulta corre fuera de Caffeine, así una invalidación no espera a que termine, y su resultado solo se guarda si
+// no hubo ninguna invalidación mientras tanto.
+@Component
+public class ClienteCache {
+
+    public static final String NOMBRE = "clientes";
+
+    private final boolean habilitado;
+    private final Cache<Long, ClienteDTO> cache;
+    private final CargasEnCurso<Long, ClienteDTO> cargasEnCurso;
+    private final AtomicLong invalidaciones = new AtomicLong();
+
+    public ClienteCache(ClientePropiedades clientePropiedades, MeterRegistry meterRegistry) {
+        ClientePropiedades.Cache configuracion = clientePropiedades.getCache();
+        this.habilitado = configuracion.isHabilitado();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(configuracion.getTamanoMaximo())
+                .expireAfterWrite(configuracion.getTiempoVida())
+                .recordStats()
+                .build();
+        this.cargasEnCurso = new CargasEnCurso<>(CargasEnCurso.contador(meterRegistry, "por-id"));
+        if (habilitado) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, NOMBRE);
+        }
+    }
+
+    public ClienteDTO obtener(Long id, Function<Long, ClienteDTO> cargador) {
+        if (!habilitado) {
+            return copiar(cargasEnCurso.cargar(id, cargador));
+        }
+        ClienteDTO enCache = cache.getIfPresent(id);
+        if (enCache != null) {
+            return copiar(enCache);
+        }
+        return copiar(cargasEnCurso.cargar(id, clave -> cargarYGuardar(clave, cargador)));
+    }
+
+    // Cualquier invalidación posterior al inicio descarta el resultado, aunque sea de otro ID: solo cuesta un fallo
+    // más. El compute ordena la comprobación respecto del invalidate de la misma clave.
+    private ClienteDTO cargarYGuardar(Long id, Function<Long, ClienteDTO> cargador) {
+        long inicio = invalidaciones.get();
+        ClienteDTO clienteDTO = copiar(cargador.apply(id));
+        if (clienteDTO != null) {
+            cache.asMap().compute(id, (clave, actual) -> invalidaciones.get() == inicio ? clienteDTO : actual);
+        }
+        return clienteDTO;
+    }
+
+    public void invalidar(Long id) {
+        invalidaciones.incrementAndGet();
+        if (habilitado) {
+            cache.invalidate(id);
+        }
+        cargasEnCurso.olvidar(id);
+    }
+
+    private ClienteDTO copiar(ClienteDTO clienteDTO) {
+        return clienteDTO == null ? null : clienteDTO.toBuilder().build();
+    }
+}
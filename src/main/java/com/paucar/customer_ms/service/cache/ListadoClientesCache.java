@@ -0,0 +1,138 @@
+package com.paucar.customer_ms.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.paucar.customer_ms.config.ClientePropiedades;
+import com.paucar.customer_ms.dto.ClienteDTO;
+import com.paucar.customer_ms.util.ApiResponse;
+import com.paucar.customer_ms.util.EtiquetaCliente;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Respuestas de GET /cliente ya serializadas, en JSON y en JSON comprimido con gzip, por límite y cursor.
+ * Un acierto no consulta la base de datos ni vuelve a serializar: el controlador escribe los bytes tal cual.
+ * Las solicitudes concurrentes de una misma página comparten una sola consulta, también con la caché deshabilitada.
+ *
+ * <p>La consulta y la serialización corren fuera de Caffeine, así una invalidación no espera a una página lenta.
+ * La clave incluye un número de generación que ClienteGestionServiceImpl incrementa en cada escritura, y una
+ * página calculada con una generación anterior no se guarda. Las escrituras hechas por otra instancia solo se
+ * ven al expirar la entrada.
+ */
+@Component
+public class ListadoClientesCache {
+
+    public static final String NOMBRE = "listado-clientes";
+
+    private final boolean habilitado;
+    private final ObjectMapper objectMapper;
+    private final Cache<Clave, RespuestaSerializada> cache;
+    private final AtomicLong generacion = new AtomicLong();
+    private final Counter bytesAhorrados;
+    private final CargasEnCurso<Clave, RespuestaSerializada> cargasEnCurso;
+
+    public ListadoClientesCache(ClientePropiedades clientePropiedades, ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry) {
+        ClientePropiedades.CacheListado configuracion = clientePropiedades.getCacheListado();
+        this.habilitado = configuracion.isHabilitado();
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(configuracion.getTamanoMaximo())
+                .expireAfterWrite(configuracion.getTiempoVida())
+                .recordStats()
+                .build();
+        this.bytesAhorrados = Counter.builder("cliente.listado.cache.bytes.ahorrados")
+                .description("Bytes de JSON servidos desde la caché sin volver a consultar ni serializar")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.cargasEnCurso = new CargasEnCurso<>(CargasEnCurso.contador(meterRegistry, "listado"));
+        if (habilitado) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, NOMBRE);
+            Gauge.builder("cliente.listado.cache.tasa.aciertos", cache, valor -> valor.stats().hitRate())
+                    .description("Proporción de solicitudes de GET /cliente respondidas desde la caché")
+                    .register(meterRegistry);
+        }
+    }
+
+    public RespuestaSerializada obtener(Integer limite, Long cursor, Supplier<ApiResponse<List<ClienteDTO>>> generador) {
+        Clave clave = new Clave(generacion.get(), limite, cursor);
+        if (!habilitado) {
+            return cargasEnCurso.cargar(clave, ignorada -> serializar(generador.get()));
+        }
+        RespuestaSerializada enCache = cache.getIfPresent(clave);
+        if (enCache != null) {
+            bytesAhorrados.increment(enCache.json().length);
+            return enCache;
+        }
+        return cargasEnCurso.cargar(clave, ignorada -> cargarYGuardar(clave, generador));
+    }
+
+    // El compute ordena la comprobación de la generación respecto del invalidateAll de renovar().
+    private RespuestaSerializada cargarYGuardar(Clave clave, Supplier<ApiResponse<List<ClienteDTO>>> generador) {
+        RespuestaSerializada respuesta = serializar(generador.get());
+        cache.asMap().compute(clave, (ignorada, actual) -> generacion.get() == clave.generacion() ? respuesta : actual);
+        return respuesta;
+    }
+
+    // También con la caché deshabilitada: la generación forma parte de la clave de las cargas agrupadas, y sin
+    // renovarla una lectura posterior a la escritura podría unirse a una consulta lanzada antes.
+    public void invalidar() {
+        renovar();
+        // Dentro de una transacción una lectura concurrente aún ve los datos anteriores al commit y podría
+        // guardarlos con la generación nueva: se renueva otra vez al terminar.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int estado) {
+                    renovar();
+                }
+            });
+        }
+    }
+
+    private void renovar() {
+        generacion.incrementAndGet();
+        if (habilitado) {
+            cache.invalidateAll();
+        }
+    }
+
+    private RespuestaSerializada serializar(ApiResponse<List<ClienteDTO>> respuesta) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(respuesta);
+            ByteArrayOutputStream comprimido = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(comprimido)) {
+                gzip.write(json);
+            }
+            String etiqueta = EtiquetaCliente.dePagina(respuesta.getDatos(), respuesta.getSiguienteCursor());
+            return new RespuestaSerializada(json, comprimido.toByteArray(), etiqueta);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo serializar la lista de clientes.", ex);
+        }
+    }
+
+    private record Clave(long generacion, Integer limite, Long cursor) {
+    }
+
+    // Cada representación lleva su propia ETag: la variante gzip no es intercambiable byte a byte con el JSON.
+    public record RespuestaSerializada(byte[] json, byte[] gzip, String etiqueta) {
+
+        public String etiquetaGzip() {
+            return etiqueta.substring(0, etiqueta.length() - 1) + "-gzip\"";
+        }
+    }
+}
@@ -1,11 +1,18 @@
 package com.paucar.customer_ms.service.consulta;
 
 import com.paucar.customer_ms.dto.ClienteDTO;
+import com.paucar.customer_ms.dto.CoincidenciaClienteDTO;
+import com.paucar.customer_ms.dto.FiltroClientesDTO;
+import com.paucar.customer_ms.dto.PaginaClientesDTO;
+import com.paucar.customer_ms.dto.ResultadoLoteDTO;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface ClienteConsultaService {
-    List<ClienteDTO> obtenerTodosLosClientes();
+    PaginaClientesDTO obtenerClientesPaginados(Integer limite, Long cursor);
+    PaginaClientesDTO buscarClientes(FiltroClientesDTO filtro, Integer limite, Long cursor);
+    List<CoincidenciaClienteDTO> buscarClientesAproximado(String texto, Integer limite);
     Optional<ClienteDTO> buscarClientePorId(Long clienteId);
+    ResultadoLoteDTO buscarClientesPorIds(List<Long> ids);
 }
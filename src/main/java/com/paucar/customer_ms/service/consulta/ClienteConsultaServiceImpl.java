@@ -1,37 +1,175 @@
 package com.paucar.customer_ms.service.consulta;
 
+import com.paucar.customer_ms.config.ClientePropiedades;
 import com.paucar.customer_ms.dto.ClienteDTO;
+import com.paucar.customer_ms.dto.CoincidenciaClienteDTO;
+import com.paucar.customer_ms.dto.FiltroClientesDTO;
+import com.paucar.customer_ms.dto.PaginaClientesDTO;
+import com.paucar.customer_ms.dto.ResultadoItemDTO;
+import com.paucar.customer_ms.dto.ResultadoLoteDTO;
+import com.paucar.customer_ms.exception.BusquedaNoDisponibleException;
 import com.paucar.customer_ms.exception.ClienteNoEncontradoException;
-import com.paucar.customer_ms.mapper.ClienteMapper;
-import com.paucar.customer_ms.model.Cliente;
+import com.paucar.customer_ms.repository.ClienteEspecificaciones;
 import com.paucar.customer_ms.repository.ClienteRepository;
+import com.paucar.customer_ms.service.cache.ClienteCache;
+import com.paucar.customer_ms.util.IndiceTrigramas;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+// Las lecturas usan las consultas DTO del repositorio: los datos van de la fila al ClienteDTO sin pasar
+// por una entidad gestionada ni por el mapper.
 @Service
 @RequiredArgsConstructor
+@Timed(value = "cliente.consulta", histogram = true)
 public class ClienteConsultaServiceImpl implements ClienteConsultaService {
 
     private final ClienteRepository clienteRepository;
-    private final ClienteMapper clienteMapper;
+    private final ClientePropiedades clientePropiedades;
+    private final ClienteCache clienteCache;
+    private final IndiceBusquedaClientes indiceBusquedaClientes;
 
     @Override
-    public List<ClienteDTO> obtenerTodosLosClientes() {
-        return clienteRepository.findAll().stream()
-                .sorted(Comparator.comparing(Cliente::getId).reversed())
-                .map(clienteMapper::convertiADTO)
-                .collect(Collectors.toList());
+    public PaginaClientesDTO obtenerClientesPaginados(Integer limite, Long cursor) {
+        int tamanoPagina = resolverLimitePaginacion(limite);
+
+        // Se pide un registro extra para saber si existe una página siguiente sin hacer un COUNT.
+        Limit limiteConsulta = Limit.of(tamanoPagina + 1);
+        List<ClienteDTO> clientes = cursor == null
+                ? clienteRepository.findDTOs(limiteConsulta)
+                : clienteRepository.findDTOsByIdLessThan(cursor, limiteConsulta);
+        return construirPagina(clientes, tamanoPagina);
+    }
+
+    // El filtrado, el orden y el límite se resuelven en la consulta SQL; misma paginación por cursor que el listado.
+    @Override
+    public PaginaClientesDTO buscarClientes(FiltroClientesDTO filtro, Integer limite, Long cursor) {
+        if (!ClienteEspecificaciones.tieneCriterios(filtro)) {
+            throw new IllegalArgumentException("Debe indicar al menos un criterio de búsqueda: nombre, apellido, dni o email.");
+        }
+        int tamanoPagina = resolverLimitePaginacion(limite);
+
+        List<ClienteDTO> clientes = clienteRepository.buscarDTOs(
+                ClienteEspecificaciones.buscar(filtro, cursor), tamanoPagina + 1);
+        return construirPagina(clientes, tamanoPagina);
+    }
+
+    // El índice de trigramas decide qué clientes y en qué orden; los datos se leen de la tabla en una sola consulta.
+    @Override
+    public List<CoincidenciaClienteDTO> buscarClientesAproximado(String texto, Integer limite) {
+        if (texto == null || texto.isBlank()) {
+            throw new IllegalArgumentException("El parámetro 'texto' es obligatorio.");
+        }
+        ClientePropiedades.Busqueda busqueda = clientePropiedades.getBusqueda();
+        int cantidad = resolverLimite(limite, busqueda.getLimitePorDefecto(), busqueda.getLimiteMaximo());
+        if (!indiceBusquedaClientes.estaListo()) {
+            throw new BusquedaNoDisponibleException("La búsqueda aproximada no está disponible en este momento.");
+        }
+
+        List<IndiceTrigramas.Coincidencia> coincidencias = indiceBusquedaClientes.buscar(texto, cantidad);
+        if (coincidencias.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ClienteDTO> clientes = clienteRepository.findDTOsByIdIn(
+                        coincidencias.stream().map(IndiceTrigramas.Coincidencia::id).toList())
+                .stream()
+                .collect(Collectors.toMap(ClienteDTO::getId, Function.identity()));
+
+        // Un cliente eliminado por otra instancia puede seguir en el índice hasta la próxima reconstrucción.
+        return coincidencias.stream()
+                .filter(coincidencia -> clientes.containsKey(coincidencia.id()))
+                .map(coincidencia -> CoincidenciaClienteDTO.builder()
+                        .cliente(clientes.get(coincidencia.id()))
+                        .similitud(coincidencia.similitud())
+                        .build())
+                .toList();
     }
 
     @Override
     public Optional<ClienteDTO> buscarClientePorId(Long clienteId) {
-        Cliente cliente = clienteRepository.findById(clienteId)
-                .orElseThrow(() -> new ClienteNoEncontradoException("Cliente no encontrado con el ID: " + clienteId));
-        return Optional.of(clienteMapper.convertiADTO(cliente));
+        return Optional.of(clienteCache.obtener(clienteId, id -> clienteRepository.findDTOById(id)
+                .orElseThrow(() -> new ClienteNoEncontradoException("Cliente no encontrado con el ID: " + id))));
+    }
+
+    // Una consulta IN por bloque de IDs distintos. El resultado sigue el orden de la solicitud y los IDs
+    // inexistentes se informan por ítem en lugar de hacer fallar todo el lote.
+    @Override
+    public ResultadoLoteDTO buscarClientesPorIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("El lote de IDs no puede estar vacío.");
+        }
+        ClientePropiedades.Lote lote = clientePropiedades.getLote();
+        if (ids.size() > lote.getTamanoMaximo()) {
+            throw new IllegalArgumentException("El lote no puede superar los " + lote.getTamanoMaximo() + " clientes.");
+        }
+
+        List<Long> idsUnicos = ids.stream().filter(Objects::nonNull).distinct().toList();
+        Map<Long, ClienteDTO> encontrados = new HashMap<>();
+        for (int desde = 0; desde < idsUnicos.size(); desde += lote.getIdsPorConsulta()) {
+            List<Long> bloque = idsUnicos.subList(desde, Math.min(desde + lote.getIdsPorConsulta(), idsUnicos.size()));
+            clienteRepository.findDTOsByIdIn(bloque).forEach(cliente -> encontrados.put(cliente.getId(), cliente));
+        }
+
+        List<ResultadoItemDTO> resultados = new ArrayList<>(ids.size());
+        int exitosos = 0;
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            ClienteDTO cliente = id == null ? null : encontrados.get(id);
+            if (cliente != null) {
+                exitosos++;
+            }
+            resultados.add(ResultadoItemDTO.builder()
+                    .indice(i)
+                    .id(id)
+                    .exitoso(cliente != null)
+                    .mensaje(cliente != null ? "Cliente encontrado con éxito"
+                            : id == null ? "El ID del cliente es obligatorio."
+                            : "Cliente no encontrado con el ID: " + id)
+                    .cliente(cliente)
+                    .build());
+        }
+
+        return ResultadoLoteDTO.builder()
+                .total(ids.size())
+                .exitosos(exitosos)
+                .fallidos(ids.size() - exitosos)
+                .resultados(resultados)
+                .build();
+    }
+
+    private PaginaClientesDTO construirPagina(List<ClienteDTO> clientes, int tamanoPagina) {
+        boolean hayMas = clientes.size() > tamanoPagina;
+        List<ClienteDTO> pagina = hayMas ? clientes.subList(0, tamanoPagina) : clientes;
+
+        Long siguienteCursor = hayMas ? pagina.get(pagina.size() - 1).getId() : null;
+        return PaginaClientesDTO.builder()
+                .clientes(pagina)
+                .siguienteCursor(siguienteCursor)
+                .build();
+    }
+
+    private int resolverLimitePaginacion(Integer limite) {
+        ClientePropiedades.Paginacion paginacion = clientePropiedades.getPaginacion();
+        return resolverLimite(limite, paginacion.getLimitePorDefecto(), paginacion.getLimiteMaximo());
+    }
+
+    private int resolverLimite(Integer limite, int porDefecto, int maximo) {
+        if (limite == null) {
+            return porDefecto;
+        }
+        if (limite <= 0) {
+            throw new IllegalArgumentException("El parámetro 'limit' debe ser mayor que cero.");
+        }
+        return Math.min(limite, maximo);
     }
 }
@@ -0,0 +1,137 @@
+package com.paucar.customer_ms.service.consulta;
+
+import com.paucar.customer_ms.config.ClientePropiedades;
+import com.paucar.customer_ms.repository.ClienteRepository;
+import com.paucar.customer_ms.repository.NombreCliente;
+import com.paucar.customer_ms.util.IndiceTrigramas;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Índice de trigramas en memoria sobre nombre y apellido para la búsqueda tolerante a errores de escritura.
+ * Se construye al arrancar leyendo la tabla con un cursor y ClienteGestionServiceImpl lo mantiene al día
+ * en cada alta, modificación y eliminación. Los cambios hechos por otra instancia del servicio se
+ * incorporan en la siguiente reconstrucción periódica, que además limpia las entradas reemplazadas.
+ */
+@Slf4j
+@Component
+public class IndiceBusquedaClientes {
+
+    private final ClienteRepository clienteRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ClientePropiedades.Busqueda configuracion;
+
+    private volatile IndiceTrigramas actual;
+    private volatile IndiceTrigramas enConstruccion;
+
+    public IndiceBusquedaClientes(ClienteRepository clienteRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  ClientePropiedades clientePropiedades,
+                                  MeterRegistry meterRegistry) {
+        this.clienteRepository = clienteRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.configuracion = clientePropiedades.getBusqueda();
+
+        Gauge.builder("cliente.busqueda.indice.entradas", this, indice -> medir(indice.actual, IndiceTrigramas::getOrdinales))
+                .register(meterRegistry);
+        Gauge.builder("cliente.busqueda.indice.bytes", this, indice -> medir(indice.actual, IndiceTrigramas::getBytes))
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean estaListo() {
+        return actual != null;
+    }
+
+    // Coincidencias ordenadas de mayor a menor similitud; vacío si el índice aún no está construido.
+    public List<IndiceTrigramas.Coincidencia> buscar(String texto, int limite) {
+        IndiceTrigramas indice = actual;
+        return indice == null ? List.of() : indice.buscar(texto, configuracion.getSimilitudMinima(), limite);
+    }
+
+    public void registrar(Long id, String nombre, String apellido) {
+        if (id == null) {
+            return;
+        }
+        String texto = texto(nombre, apellido);
+        IndiceTrigramas indice = actual;
+        if (indice != null) {
+            indice.registrar(id, texto);
+        }
+        IndiceTrigramas nuevo = enConstruccion;
+        if (nuevo != null) {
+            nuevo.registrar(id, texto);
+        }
+    }
+
+    public void quitar(Long id) {
+        if (id == null) {
+            return;
+        }
+        IndiceTrigramas indice = actual;
+        if (indice != null) {
+            indice.quitar(id);
+        }
+        IndiceTrigramas nuevo = enConstruccion;
+        if (nuevo != null) {
+            nuevo.quitar(id);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void construirAlIniciar() {
+        reconstruir();
+    }
+
+    // Los cambios que llegan durante la lectura se aplican también al índice nuevo y prevalecen sobre lo leído.
+    @Scheduled(fixedDelayString = "${cliente.busqueda.intervalo-reconstruccion:PT6H}",
+            initialDelayString = "${cliente.busqueda.intervalo-reconstruccion:PT6H}")
+    public void reconstruir() {
+        if (!configuracion.isHabilitado()) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        IndiceTrigramas nuevo = new IndiceTrigramas();
+        enConstruccion = nuevo;
+        try {
+            AtomicLong total = new AtomicLong();
+            transactionTemplate.executeWithoutResult(estado -> {
+                try (Stream<NombreCliente> nombres = clienteRepository.streamNombres()) {
+                    nombres.forEach(cliente -> {
+                        nuevo.cargar(cliente.getId(), texto(cliente.getNombre(), cliente.getApellido()));
+                        total.incrementAndGet();
+                    });
+                }
+            });
+            nuevo.compactar();
+            actual = nuevo;
+            log.info("Índice de búsqueda de clientes construido con {} clientes en {} ms ({} KB)",
+                    total, (System.nanoTime() - inicio) / 1_000_000, nuevo.getBytes() / 1024);
+        } catch (RuntimeException ex) {
+            log.warn("No se pudo construir el índice de búsqueda de clientes", ex);
+        } finally {
+            enConstruccion = null;
+        }
+    }
+
+    private static String texto(String nombre, String apellido) {
+        return (nombre == null ? "" : nombre) + " " + (apellido == null ? "" : apellido);
+    }
+
+    private static double medir(IndiceTrigramas indice, ToLongFunction<IndiceTrigramas> valor) {
+        return indice == null ? Double.NaN : valor.applyAsLong(indice);
+    }
+}
@@ -0,0 +1,16 @@
+package com.paucar.customer_ms.service.cuentas;
+
+import com.paucar.customer_ms.dto.ConteoCuentasActivasDTO;
+import com.paucar.customer_ms.dto.ResultadoLoteDTO;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface VistaCuentasActivasService {
+    ResultadoLoteDTO registrarConteos(List<ConteoCuentasActivasDTO> conteos);
+    Optional<Boolean> tieneCuentasActivas(Long clienteId);
+    Map<Long, Boolean> tieneCuentasActivas(Collection<Long> clienteIds);
+    void quitar(Collection<Long> clienteIds);
+}
@@ -0,0 +1,173 @@
+package com.paucar.customer_ms.service.cuentas;
+
+import com.paucar.customer_ms.config.ClientePropiedades;
+import com.paucar.customer_ms.dto.ConteoCuentasActivasDTO;
+import com.paucar.customer_ms.dto.ResultadoItemDTO;
+import com.paucar.customer_ms.dto.ResultadoLoteDTO;
+import com.paucar.customer_ms.model.CuentasActivasCliente;
+import com.paucar.customer_ms.repository.CuentasActivasClienteRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Conteo local de cuentas activas por cliente para no depender de ACCOUNT-MS en cada eliminación.
+ * ACCOUNT-MS notifica el total vigente de cada cliente; una notificación solo reemplaza a otra más antigua,
+ * así que pueden llegar repetidas o desordenadas. Un conteo más viejo que la vigencia máxima no se usa y la
+ * eliminación vuelve a consultar a ACCOUNT-MS: ese es el margen en que una cuenta recién abierta puede no verse.
+ */
+@Service
+public class VistaCuentasActivasServiceImpl implements VistaCuentasActivasService {
+
+    private final CuentasActivasClienteRepository cuentasActivasClienteRepository;
+    private final ClientePropiedades clientePropiedades;
+    private final Counter consultasVigentes;
+    private final Counter consultasVencidas;
+    private final Counter consultasAusentes;
+
+    public VistaCuentasActivasServiceImpl(CuentasActivasClienteRepository cuentasActivasClienteRepository,
+                                          ClientePropiedades clientePropiedades, MeterRegistry meterRegistry) {
+        this.cuentasActivasClienteRepository = cuentasActivasClienteRepository;
+        this.clientePropiedades = clientePropiedades;
+        this.consultasVigentes = Counter.builder("cliente.cuentas.vista.consultas").tag("resultado", "vigente").register(meterRegistry);
+        this.consultasVencidas = Counter.builder("cliente.cuentas.vista.consultas").tag("resultado", "vencido").register(meterRegistry);
+        this.consultasAusentes = Counter.builder("cliente.cuentas.vista.consultas").tag("resultado", "ausente").register(meterRegistry);
+    }
+
+    @Override
+    @Transactional
+    public ResultadoLoteDTO registrarConteos(List<ConteoCuentasActivasDTO> conteos) {
+        if (conteos == null || conteos.isEmpty()) {
+            throw new IllegalArgumentException("El lote de conteos no puede estar vacío.");
+        }
+        int tamanoMaximo = clientePropiedades.getLote().getTamanoMaximo();
+        if (conteos.size() > tamanoMaximo) {
+            throw new IllegalArgumentException("El lote no puede superar los " + tamanoMaximo + " conteos.");
+        }
+
+        Set<Long> clienteIds = new HashSet<>();
+        for (ConteoCuentasActivasDTO conteo : conteos) {
+            if (conteo != null && conteo.getClienteId() != null) {
+                clienteIds.add(conteo.getClienteId());
+            }
+        }
+        Map<Long, CuentasActivasCliente> registros = new HashMap<>();
+        cuentasActivasClienteRepository.findAllById(clienteIds)
+                .forEach(registro -> registros.put(registro.getClienteId(), registro));
+
+        // Una marca futura por desfase de relojes haría parecer vigente el conteo más tiempo del configurado.
+        Instant ahora = Instant.now();
+        List<CuentasActivasCliente> nuevos = new ArrayList<>();
+        List<ResultadoItemDTO> resultados = new ArrayList<>(conteos.size());
+        int exitosos = 0;
+        for (int i = 0; i < conteos.size(); i++) {
+            ConteoCuentasActivasDTO conteo = conteos.get(i);
+            String error = validar(conteo);
+            String mensaje = error;
+            if (error == null) {
+                Instant actualizadoEn = conteo.getActualizadoEn().isAfter(ahora) ? ahora : conteo.getActualizadoEn();
+                CuentasActivasCliente registro = registros.get(conteo.getClienteId());
+                if (registro == null) {
+                    registro = new CuentasActivasCliente(conteo.getClienteId(), conteo.getCuentasActivas(), actualizadoEn);
+                    registros.put(conteo.getClienteId(), registro);
+                    nuevos.add(registro);
+                    mensaje = "Conteo registrado";
+                } else if (registro.getActualizadoEn().isBefore(actualizadoEn)) {
+                    registro.actualizar(conteo.getCuentasActivas(), actualizadoEn);
+                    mensaje = "Conteo registrado";
+                } else {
+                    mensaje = "Conteo ignorado: ya hay uno igual o más reciente";
+                }
+                exitosos++;
+            }
+            resultados.add(ResultadoItemDTO.builder()
+                    .indice(i)
+                    .id(conteo == null ? null : conteo.getClienteId())
+                    .exitoso(error == null)
+                    .mensaje(mensaje)
+                    .build());
+        }
+        // Los registros existentes se actualizan al confirmar la transacción.
+        cuentasActivasClienteRepository.saveAll(nuevos);
+
+        return ResultadoLoteDTO.builder()
+                .total(conteos.size())
+                .exitosos(exitosos)
+                .fallidos(conteos.size() - exitosos)
+                .resultados(resultados)
+                .build();
+    }
+
+    // Vacío si no hay conteo o si ya no está vigente: quien llama debe consultar a ACCOUNT-MS.
+    @Override
+    public Optional<Boolean> tieneCuentasActivas(Long clienteId) {
+        if (!clientePropiedades.getVistaCuentas().isHabilitado()) {
+            return Optional.empty();
+        }
+        Optional<CuentasActivasCliente> registro = cuentasActivasClienteRepository.findById(clienteId);
+        if (registro.isEmpty()) {
+            consultasAusentes.increment();
+            return Optional.empty();
+        }
+        return vigente(registro.get(), Instant.now());
+    }
+
+    // Una sola lectura para todo el lote. Solo trae los clientes con conteo vigente; los demás se consultan a ACCOUNT-MS.
+    @Override
+    public Map<Long, Boolean> tieneCuentasActivas(Collection<Long> clienteIds) {
+        if (!clientePropiedades.getVistaCuentas().isHabilitado() || clienteIds.isEmpty()) {
+            return Map.of();
+        }
+        Instant ahora = Instant.now();
+        Map<Long, Boolean> vigentes = new HashMap<>();
+        int encontrados = 0;
+        for (CuentasActivasCliente registro : cuentasActivasClienteRepository.findAllById(clienteIds)) {
+            encontrados++;
+            vigente(registro, ahora).ifPresent(tieneActivas -> vigentes.put(registro.getClienteId(), tieneActivas));
+        }
+        consultasAusentes.increment(clienteIds.size() - encontrados);
+        return vigentes;
+    }
+
+    private Optional<Boolean> vigente(CuentasActivasCliente registro, Instant ahora) {
+        Duration antiguedad = Duration.between(registro.getActualizadoEn(), ahora);
+        if (antiguedad.compareTo(clientePropiedades.getVistaCuentas().getVigenciaMaxima()) > 0) {
+            consultasVencidas.increment();
+            return Optional.empty();
+        }
+        consultasVigentes.increment();
+        return Optional.of(registro.getCuentasActivas() > 0);
+    }
+
+    @Override
+    public void quitar(Collection<Long> clienteIds) {
+        if (!clienteIds.isEmpty()) {
+            cuentasActivasClienteRepository.eliminarPorClienteIds(clienteIds);
+        }
+    }
+
+    private String validar(ConteoCuentasActivasDTO conteo) {
+        if (conteo == null || conteo.getClienteId() == null) {
+            return "El ID del cliente es obligatorio.";
+        }
+        if (conteo.getCuentasActivas() == null || conteo.getCuentasActivas() < 0) {
+            return "La cantidad de cuentas activas debe ser un número mayor o igual a cero.";
+        }
+        if (conteo.getActualizadoEn() == null) {
+            return "La fecha de actualización del conteo es obligatoria.";
+        }
+        return null;
+    }
+}
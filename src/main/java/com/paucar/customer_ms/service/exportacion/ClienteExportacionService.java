@@ -0,0 +1,10 @@
+package com.paucar.customer_ms.service.exportacion;
+
+import com.paucar.customer_ms.util.FormatoExportacion;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ClienteExportacionService {
+    long exportarClientes(FormatoExportacion formato, OutputStream salida) throws IOException;
+}
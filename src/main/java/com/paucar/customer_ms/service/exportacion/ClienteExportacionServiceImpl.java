@@ -0,0 +1,101 @@
+package com.paucar.customer_ms.service.exportacion;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paucar.customer_ms.config.ClientePropiedades;
+import com.paucar.customer_ms.dto.ClienteDTO;
+import com.paucar.customer_ms.mapper.ClienteMapper;
+import com.paucar.customer_ms.model.Cliente;
+import com.paucar.customer_ms.repository.ClienteRepository;
+import com.paucar.customer_ms.util.FormatoExportacion;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class ClienteExportacionServiceImpl implements ClienteExportacionService {
+
+    private static final String CABECERA_CSV = "id,nombre,apellido,dni,email";
+
+    private final ClienteRepository clienteRepository;
+    private final ClienteMapper clienteMapper;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final ClientePropiedades clientePropiedades;
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportarClientes(FormatoExportacion formato, OutputStream salida) throws IOException {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        JsonGenerator generador = objectMapper.getFactory().createGenerator(escritor)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        generador.setRootValueSeparator(null);
+
+        if (formato == FormatoExportacion.CSV) {
+            escritor.write(CABECERA_CSV);
+            escritor.write('\n');
+        }
+
+        int filasPorBloque = clientePropiedades.getExportacion().getFilasPorBloque();
+        long filas = 0;
+        try (Stream<Cliente> clientes = clienteRepository.streamAllByOrderByIdAsc()) {
+            Iterator<Cliente> iterador = clientes.iterator();
+            while (iterador.hasNext()) {
+                Cliente cliente = iterador.next();
+                ClienteDTO clienteDTO = clienteMapper.convertiADTO(cliente);
+                // Se libera la entidad del contexto de persistencia para que el heap no crezca con la tabla.
+                entityManager.detach(cliente);
+
+                if (formato == FormatoExportacion.CSV) {
+                    escribirFilaCsv(escritor, clienteDTO);
+                } else {
+                    objectMapper.writeValue(generador, clienteDTO);
+                    generador.writeRaw('\n');
+                }
+
+                if (++filas % filasPorBloque == 0) {
+                    generador.flush();
+                    escritor.flush();
+                }
+            }
+        }
+        generador.close();
+        escritor.flush();
+        return filas;
+    }
+
+    private void escribirFilaCsv(Writer escritor, ClienteDTO clienteDTO) throws IOException {
+        escritor.write(Long.toString(clienteDTO.getId()));
+        escritor.write(',');
+        escritor.write(escaparCsv(clienteDTO.getNombre()));
+        escritor.write(',');
+        escritor.write(escaparCsv(clienteDTO.getApellido()));
+        escritor.write(',');
+        escritor.write(escaparCsv(clienteDTO.getDni()));
+        escritor.write(',');
+        escritor.write(escaparCsv(clienteDTO.getEmail()));
+        escritor.write('\n');
+    }
+
+    private String escaparCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,9 +1,17 @@
 package com.paucar.customer_ms.service.gestion;
 
+import com.paucar.customer_ms.dto.CambiosClienteDTO;
 import com.paucar.customer_ms.dto.ClienteDTO;
+import com.paucar.customer_ms.dto.ResultadoLoteDTO;
+
+import java.util.List;
 
 public interface ClienteGestionService {
     ClienteDTO guardarCliente(ClienteDTO clienteDTO);
-    ClienteDTO actualizarCliente(Long id, ClienteDTO clienteDTO);
-    void eliminarClientePorId(Long id);
+    ResultadoLoteDTO guardarClientesEnLote(List<ClienteDTO> clientesDTO);
+    // versionEsperada: la de If-Match, o null para no condicionar la operación.
+    ClienteDTO actualizarCliente(Long id, ClienteDTO clienteDTO, Long versionEsperada);
+    void actualizarClienteParcialmente(Long id, CambiosClienteDTO cambios, Long versionEsperada);
+    void eliminarClientePorId(Long id, Long versionEsperada);
+    ResultadoLoteDTO eliminarClientesEnLote(List<Long> ids);
 }
@@ -1,76 +1,346 @@
 package com.paucar.customer_ms.service.gestion;
 
-import com.paucar.customer_ms.client.CuentaFeign;
+import com.paucar.customer_ms.client.ConsultaCuentasActivas;
+import com.paucar.customer_ms.config.ClientePropiedades;
+import com.paucar.customer_ms.dto.CambiosClienteDTO;
 import com.paucar.customer_ms.dto.ClienteDTO;
+import com.paucar.customer_ms.dto.ResultadoItemDTO;
+import com.paucar.customer_ms.dto.ResultadoLoteDTO;
 import com.paucar.customer_ms.exception.ClienteConCuentasActivasException;
 import com.paucar.customer_ms.exception.ClienteNoEncontradoException;
+import com.paucar.customer_ms.exception.VersionClienteNoCoincideException;
 import com.paucar.customer_ms.mapper.ClienteMapper;
-import com.paucar.customer_ms.client.dto.Cuenta;
 import com.paucar.customer_ms.model.Cliente;
 import com.paucar.customer_ms.repository.ClienteRepository;
+import com.paucar.customer_ms.repository.NombreCliente;
+import com.paucar.customer_ms.service.cache.ClienteCache;
+import com.paucar.customer_ms.service.cache.ListadoClientesCache;
+import com.paucar.customer_ms.service.consulta.IndiceBusquedaClientes;
+import com.paucar.customer_ms.service.cuentas.VistaCuentasActivasService;
 import com.paucar.customer_ms.service.validacion.ClienteValidacionService;
-import com.paucar.customer_ms.util.ApiResponse;
-import com.paucar.customer_ms.util.EstadoCuenta;
+import com.paucar.customer_ms.service.validacion.IndiceClientesRegistrados;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Future;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "cliente.gestion", histogram = true)
 public class ClienteGestionServiceImpl implements ClienteGestionService {
 
     private final ClienteRepository clienteRepository;
     private final ClienteMapper clienteMapper;
-    private final CuentaFeign cuentaFeign;
+    private final ConsultaCuentasActivas consultaCuentasActivas;
+    private final VistaCuentasActivasService vistaCuentasActivasService;
     private final ClienteValidacionService clienteValidacionService;
+    private final ClientePropiedades clientePropiedades;
+    private final ClienteCache clienteCache;
+    private final ListadoClientesCache listadoClientesCache;
+    private final IndiceClientesRegistrados indiceClientesRegistrados;
+    private final IndiceBusquedaClientes indiceBusquedaClientes;
+    private final ConsultasParalelas consultasParalelas;
 
     @Override
     public ClienteDTO guardarCliente(ClienteDTO clienteDTO) {
         Cliente cliente = clienteMapper.convertirAEntidad(clienteDTO);
         clienteValidacionService.validarCliente(cliente, null);
         Cliente clienteGuardado = clienteRepository.save(cliente);
+        listadoClientesCache.invalidar();
+        indiceClientesRegistrados.registrar(clienteGuardado.getEmail(), clienteGuardado.getDni());
+        indiceBusquedaClientes.registrar(clienteGuardado.getId(), clienteGuardado.getNombre(), clienteGuardado.getApellido());
         return clienteMapper.convertiADTO(clienteGuardado);
     }
 
     @Override
-    public ClienteDTO actualizarCliente(Long id, ClienteDTO clienteDTO) {
-        Cliente clienteExistente = clienteRepository.findById(id)
-                .orElseThrow(() -> new ClienteNoEncontradoException("Cliente no encontrado con el ID: " + id));
+    @Transactional
+    public ResultadoLoteDTO guardarClientesEnLote(List<ClienteDTO> clientesDTO) {
+        if (clientesDTO == null || clientesDTO.isEmpty()) {
+            throw new IllegalArgumentException("El lote de clientes no puede estar vacío.");
+        }
+        int tamanoMaximo = clientePropiedades.getLote().getTamanoMaximo();
+        if (clientesDTO.size() > tamanoMaximo) {
+            throw new IllegalArgumentException("El lote no puede superar los " + tamanoMaximo + " clientes.");
+        }
+
+        List<Cliente> clientes = clientesDTO.stream().map(clienteMapper::convertirAEntidad).toList();
+        clientes.forEach(cliente -> cliente.setId(null));
+        List<String> errores = clienteValidacionService.validarClientesEnLote(clientes);
+
+        List<Cliente> validos = new ArrayList<>();
+        for (int i = 0; i < clientes.size(); i++) {
+            if (errores.get(i) == null) {
+                validos.add(clientes.get(i));
+            }
+        }
+        // Con ids por bloques los INSERT se envían agrupados según hibernate.jdbc.batch_size.
+        clienteRepository.saveAll(validos);
+        if (!validos.isEmpty()) {
+            listadoClientesCache.invalidar();
+        }
+        alConfirmar(() -> validos.forEach(cliente -> {
+            indiceClientesRegistrados.registrar(cliente.getEmail(), cliente.getDni());
+            indiceBusquedaClientes.registrar(cliente.getId(), cliente.getNombre(), cliente.getApellido());
+        }));
 
+        List<ResultadoItemDTO> resultados = new ArrayList<>(clientes.size());
+        for (int i = 0; i < clientes.size(); i++) {
+            String error = errores.get(i);
+            if (error == null) {
+                Cliente cliente = clientes.get(i);
+                resultados.add(ResultadoItemDTO.builder()
+                        .indice(i)
+                        .id(cliente.getId())
+                        .exitoso(true)
+                        .mensaje("Cliente creado exitosamente")
+                        .cliente(clienteMapper.convertiADTO(cliente))
+                        .build());
+            } else {
+                resultados.add(ResultadoItemDTO.builder()
+                        .indice(i)
+                        .exitoso(false)
+                        .mensaje(error)
+                        .build());
+            }
+        }
+
+        return ResultadoLoteDTO.builder()
+                .total(clientes.size())
+                .exitosos(validos.size())
+                .fallidos(clientes.size() - validos.size())
+                .resultados(resultados)
+                .build();
+    }
+
+    @Override
+    public ClienteDTO actualizarCliente(Long id, ClienteDTO clienteDTO, Long versionEsperada) {
+        // La unicidad de email y DNI no depende del cliente guardado: se valida mientras se lee. Si no existe o
+        // cambió de versión, ese error sigue teniendo prioridad sobre el de la validación.
         Cliente clienteActualizado = clienteMapper.convertirAEntidad(clienteDTO);
-        clienteValidacionService.validarCliente(clienteActualizado, id);
+        Future<?> validacion = consultasParalelas.iniciar(() -> clienteValidacionService.validarCliente(clienteActualizado, id));
+        Cliente clienteExistente;
+        try {
+            clienteExistente = clienteRepository.findById(id)
+                    .orElseThrow(() -> new ClienteNoEncontradoException("Cliente no encontrado con el ID: " + id));
+            verificarVersion(id, versionEsperada, clienteExistente.getVersion());
+        } catch (RuntimeException ex) {
+            consultasParalelas.cancelar(validacion);
+            throw ex;
+        }
+        consultasParalelas.esperar(validacion);
 
+        String dniAnterior = clienteExistente.getDni();
         clienteExistente.setNombre(clienteActualizado.getNombre());
         clienteExistente.setApellido(clienteActualizado.getApellido());
         clienteExistente.setDni(clienteActualizado.getDni());
         clienteExistente.setEmail(clienteActualizado.getEmail());
 
-        Cliente clienteGuardado = clienteRepository.save(clienteExistente);
+        // save() compara la versión leída con la de la fila: si otra operación la cambió entretanto, falla.
+        Cliente clienteGuardado;
+        try {
+            clienteGuardado = clienteRepository.save(clienteExistente);
+        } catch (ObjectOptimisticLockingFailureException ex) {
+            clienteCache.invalidar(id);
+            if (versionEsperada != null) {
+                throw new VersionClienteNoCoincideException("El cliente con ID: " + id
+                        + " fue modificado por otra operación. Consúltelo de nuevo e intente nuevamente.");
+            }
+            throw ex;
+        }
+        clienteCache.invalidar(id);
+        listadoClientesCache.invalidar();
+        if (!clienteGuardado.getDni().equals(dniAnterior)) {
+            indiceClientesRegistrados.quitarDni(dniAnterior);
+        }
+        indiceClientesRegistrados.registrar(clienteGuardado.getEmail(), clienteGuardado.getDni());
+        indiceBusquedaClientes.registrar(id, clienteGuardado.getNombre(), clienteGuardado.getApellido());
         return clienteMapper.convertiADTO(clienteGuardado);
     }
 
+    // Sin lectura previa: se validan solo los campos enviados y un UPDATE de esas columnas indica por
+    // el número de filas si el cliente existe. Solo si falla se consulta para distinguir 404 de 412.
+    @Override
+    public void actualizarClienteParcialmente(Long id, CambiosClienteDTO cambios, Long versionEsperada) {
+        if (cambios == null || !cambios.tieneCambios()) {
+            throw new IllegalArgumentException("Debe indicar al menos un campo para actualizar.");
+        }
+        clienteValidacionService.validarCambios(id, cambios);
+
+        // Con solo uno de nombre y apellido, la búsqueda necesita el otro: se lee en la transacción del UPDATE.
+        boolean nombreParcial = (cambios.getNombre() == null) != (cambios.getApellido() == null);
+        Optional<NombreCliente> nombreActual = Optional.empty();
+        boolean actualizado;
+        if (nombreParcial) {
+            nombreActual = clienteRepository.actualizarCamposYLeerNombre(id, cambios, versionEsperada);
+            actualizado = nombreActual.isPresent();
+        } else {
+            actualizado = clienteRepository.actualizarCampos(id, cambios, versionEsperada) > 0;
+        }
+        if (!actualizado) {
+            if (versionEsperada == null || clienteRepository.findVersionById(id).isEmpty()) {
+                throw new ClienteNoEncontradoException("Cliente no encontrado con el ID: " + id);
+            }
+            throw new VersionClienteNoCoincideException("El cliente con ID: " + id
+                    + " no está en la versión indicada en If-Match. Consúltelo de nuevo e intente nuevamente.");
+        }
+        clienteCache.invalidar(id);
+        listadoClientesCache.invalidar();
+        // El DNI anterior se desconoce y queda en el índice hasta la reconstrucción: solo cuesta una consulta de más.
+        indiceClientesRegistrados.registrar(cambios.getEmail(), cambios.getDni());
+        if (nombreActual.isPresent()) {
+            indiceBusquedaClientes.registrar(id, nombreActual.get().getNombre(), nombreActual.get().getApellido());
+        } else if (cambios.getNombre() != null) {
+            indiceBusquedaClientes.registrar(id, cambios.getNombre(), cambios.getApellido());
+        }
+    }
+
     @Override
-    public void eliminarClientePorId(Long id) {
-        if (!clienteRepository.existsById(id)) {
+    public void eliminarClientePorId(Long id, Long versionEsperada) {
+        // Las cuentas activas solo se comprueban para un cliente que existe y está en la versión indicada: un 404
+        // o un 412 no llegan a ACCOUNT-MS. Solo se le consulta si no hay un conteo local vigente.
+        if (versionEsperada != null) {
+            long versionActual = clienteRepository.findVersionById(id)
+                    .orElseThrow(() -> new ClienteNoEncontradoException("Cliente no encontrado con el ID: " + id));
+            verificarVersion(id, versionEsperada, versionActual);
+        } else if (!clienteRepository.existsById(id)) {
             throw new ClienteNoEncontradoException("Cliente no encontrado con el ID: " + id);
         }
 
-        ResponseEntity<ApiResponse<List<Cuenta>>> response = cuentaFeign.obtenerCuentasPorClienteId(id);
-        ApiResponse<List<Cuenta>> accountData = response.getBody();
+        boolean cuentasActivas = vistaCuentasActivasService.tieneCuentasActivas(id)
+                .orElseGet(() -> consultaCuentasActivas.tieneCuentasActivas(id));
+        if (cuentasActivas) {
+            throw new ClienteConCuentasActivasException("No se puede eliminar el cliente con ID: " + id + " porque tiene cuentas activas.");
+        }
 
-        if (accountData == null || accountData.getDatos() == null) {
-            throw new IllegalStateException("No se pudo obtener información de las cuentas del cliente.");
+        if (versionEsperada == null) {
+            clienteRepository.deleteById(id);
+        } else if (clienteRepository.eliminarPorIdYVersion(id, versionEsperada) == 0) {
+            // Modificado o eliminado mientras se consultaban sus cuentas.
+            clienteCache.invalidar(id);
+            throw new VersionClienteNoCoincideException("El cliente con ID: " + id
+                    + " fue modificado por otra operación. Consúltelo de nuevo e intente nuevamente.");
         }
+        clienteCache.invalidar(id);
+        listadoClientesCache.invalidar();
+        indiceBusquedaClientes.quitar(id);
+        vistaCuentasActivasService.quitar(List.of(id));
+    }
 
-        boolean tieneCuentasActivas = accountData.getDatos().stream()
-                .anyMatch(cuenta -> cuenta.getEstado() == EstadoCuenta.ACTIVO);
+    // Sin transacción envolvente: la conexión no queda retenida durante la llamada a ACCOUNT-MS.
+    @Override
+    public ResultadoLoteDTO eliminarClientesEnLote(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("El lote de IDs no puede estar vacío.");
+        }
+        int tamanoMaximo = clientePropiedades.getLote().getTamanoMaximo();
+        if (ids.size() > tamanoMaximo) {
+            throw new IllegalArgumentException("El lote no puede superar los " + tamanoMaximo + " clientes.");
+        }
 
-        if (tieneCuentasActivas) {
-            throw new ClienteConCuentasActivasException("No se puede eliminar el cliente con ID: " + id + " porque tiene cuentas activas.");
+        Set<Long> idsUnicos = new LinkedHashSet<>(ids);
+        idsUnicos.remove(null);
+        Set<Long> existentes = idsUnicos.isEmpty()
+                ? Set.of()
+                : new HashSet<>(clienteRepository.findIdsExistentes(idsUnicos));
+
+        // Como en la eliminación individual: el conteo local vigente decide y solo el resto se consulta a ACCOUNT-MS.
+        Set<Long> conCuentasActivas = new HashSet<>();
+        Map<Long, Boolean> conteosVigentes = vistaCuentasActivasService.tieneCuentasActivas(existentes);
+        List<Long> sinConteo = new ArrayList<>();
+        for (Long id : existentes) {
+            Boolean tieneActivas = conteosVigentes.get(id);
+            if (tieneActivas == null) {
+                sinConteo.add(id);
+            } else if (tieneActivas) {
+                conCuentasActivas.add(id);
+            }
+        }
+        if (!sinConteo.isEmpty()) {
+            conCuentasActivas.addAll(consultaCuentasActivas.clientesConCuentasActivas(sinConteo));
         }
 
-        clienteRepository.deleteById(id);
+        List<Long> eliminables = new ArrayList<>();
+        for (Long id : existentes) {
+            if (!conCuentasActivas.contains(id)) {
+                eliminables.add(id);
+            }
+        }
+        if (!eliminables.isEmpty()) {
+            clienteRepository.eliminarPorIds(eliminables);
+            eliminables.forEach(clienteCache::invalidar);
+            listadoClientesCache.invalidar();
+            eliminables.forEach(indiceBusquedaClientes::quitar);
+            vistaCuentasActivasService.quitar(eliminables);
+        }
+
+        Set<Long> procesados = new HashSet<>();
+        List<ResultadoItemDTO> resultados = new ArrayList<>(ids.size());
+        int exitosos = 0;
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            String error;
+            if (id == null) {
+                error = "El ID del cliente es obligatorio.";
+            } else if (!procesados.add(id)) {
+                error = "El ID está repetido en el lote: " + id;
+            } else if (!existentes.contains(id)) {
+                error = "Cliente no encontrado con el ID: " + id;
+            } else if (conCuentasActivas.contains(id)) {
+                error = "No se puede eliminar el cliente con ID: " + id + " porque tiene cuentas activas.";
+            } else {
+                error = null;
+            }
+
+            if (error == null) {
+                exitosos++;
+            }
+            resultados.add(ResultadoItemDTO.builder()
+                    .indice(i)
+                    .id(id)
+                    .exitoso(error == null)
+                    .mensaje(error == null ? "Cliente eliminado exitosamente" : error)
+                    .build());
+        }
+
+        return ResultadoLoteDTO.builder()
+                .total(ids.size())
+                .exitosos(exitosos)
+                .fallidos(ids.size() - exitosos)
+                .resultados(resultados)
+                .build();
+    }
+
+    // Los índices en memoria solo deben reflejar lo confirmado: si la transacción se revierte, no quedan altas
+    // que la base de datos no tiene. Sin transacción activa se aplica en el momento.
+    private static void alConfirmar(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+
+    private void verificarVersion(Long id, Long versionEsperada, long versionActual) {
+        if (versionEsperada != null && versionEsperada != versionActual) {
+            throw new VersionClienteNoCoincideException("El cliente con ID: " + id + " está en la versión "
+                    + versionActual + " y no en la indicada en If-Match. Consúltelo de nuevo e intente nuevamente.");
+        }
     }
 }
@@ -0,0 +1,100 @@
+package com.paucar.customer_ms.service.gestion;
+
+import com.paucar.customer_ms.config.ClientePropiedades;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Ejecuta en segundo plano una consulta que no depende de las demás de la misma escritura, para que la
+ * operación espere a la más lenta y no a la suma de todas. Los errores se relanzan tal cual al esperar, así
+ * ExcepcionesGlobales los trata igual que si la consulta hubiera sido síncrona.
+ */
+@Component
+public class ConsultasParalelas implements DisposableBean {
+
+    private final AsyncTaskExecutor ejecutor;
+
+    public ConsultasParalelas(ClientePropiedades clientePropiedades, Environment environment) {
+        this.ejecutor = crearEjecutor(clientePropiedades.getConsultasParalelas(), environment);
+    }
+
+    // Deshabilitado: la consulta se ejecuta al iniciarla, en el hilo de la petición. Con hilos virtuales, uno por
+    // consulta y a lo sumo hilosMaximos a la vez; el resto espera turno. Si no, un pool acotado que, lleno, la
+    // ejecuta en el hilo de la petición en vez de rechazarla. Así son como mucho hilosMaximos las conexiones
+    // JDBC que estas consultas ocupan además de la de cada petición.
+    private static AsyncTaskExecutor crearEjecutor(ClientePropiedades.ConsultasParalelas configuracion,
+                                                   Environment environment) {
+        if (!configuracion.isHabilitado()) {
+            return new TaskExecutorAdapter(Runnable::run);
+        }
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor ejecutor = new SimpleAsyncTaskExecutor("gestion-");
+            ejecutor.setVirtualThreads(true);
+            ejecutor.setConcurrencyLimit(configuracion.getHilosMaximos());
+            return ejecutor;
+        }
+        ThreadPoolTaskExecutor ejecutor = new ThreadPoolTaskExecutor();
+        ejecutor.setThreadNamePrefix("gestion-");
+        ejecutor.setCorePoolSize(configuracion.getHilosMaximos());
+        ejecutor.setMaxPoolSize(configuracion.getHilosMaximos());
+        ejecutor.setQueueCapacity(0);
+        ejecutor.setAllowCoreThreadTimeOut(true);
+        ejecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        ejecutor.setDaemon(true);
+        ejecutor.initialize();
+        return ejecutor;
+    }
+
+    public <T> Future<T> iniciar(Callable<T> consulta) {
+        return ejecutor.submit(consulta);
+    }
+
+    public Future<?> iniciar(Runnable consulta) {
+        return ejecutor.submit(consulta);
+    }
+
+    public <T> T esperar(Future<T> consulta) {
+        try {
+            return consulta.get();
+        } catch (ExecutionException ex) {
+            Throwable causa = ex.getCause();
+            if (causa instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (causa instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(causa);
+        } catch (InterruptedException ex) {
+            consulta.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("La operación se interrumpió mientras esperaba una consulta.", ex);
+        }
+    }
+
+    // Para cuando la operación ya falló por otro motivo: descarta su resultado o error. No la interrumpe, para no
+    // cortar una lectura JDBC a medias; si ya empezó, termina y devuelve su conexión al pool.
+    public void cancelar(Future<?> consulta) {
+        consulta.cancel(false);
+    }
+
+    @Override
+    public void destroy() {
+        if (ejecutor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        } else if (ejecutor instanceof SimpleAsyncTaskExecutor simple) {
+            simple.close();
+        }
+    }
+}
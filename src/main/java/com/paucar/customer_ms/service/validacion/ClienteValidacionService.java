@@ -1,7 +1,12 @@
 package com.paucar.customer_ms.service.validacion;
 
+import com.paucar.customer_ms.dto.CambiosClienteDTO;
 import com.paucar.customer_ms.model.Cliente;
 
+import java.util.List;
+
 public interface ClienteValidacionService {
     void validarCliente(Cliente cliente, Long id);
+    void validarCambios(Long id, CambiosClienteDTO cambios);
+    List<String> validarClientesEnLote(List<Cliente> clientes);
 }
@@ -1,30 +1,160 @@
 package com.paucar.customer_ms.service.validacion;
 
+import com.paucar.customer_ms.dto.CambiosClienteDTO;
 import com.paucar.customer_ms.exception.DniYaRegistradoException;
 import com.paucar.customer_ms.exception.EmailYaRegistradoException;
 import com.paucar.customer_ms.model.Cliente;
 import com.paucar.customer_ms.repository.ClienteRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "cliente.validacion", histogram = true)
 public class ClienteValidacionServiceImpl implements ClienteValidacionService {
 
     private final ClienteRepository clienteRepository;
+    private final Validator validator;
+    private final IndiceClientesRegistrados indiceClientesRegistrados;
 
+    // Una sola consulta por email o DNI. Las restricciones únicas de la tabla cubren las escrituras concurrentes.
     @Override
     public void validarCliente(Cliente cliente, Long id) {
-        Optional<Cliente> clienteOptionalEmail = clienteRepository.findByEmail(cliente.getEmail());
-        if (clienteOptionalEmail.isPresent() && !clienteOptionalEmail.get().getId().equals(id)) {
+        if (indiceClientesRegistrados.descartaDuplicados(cliente.getEmail(), cliente.getDni())) {
+            return;
+        }
+
+        List<Cliente> coincidencias = clienteRepository.findByEmailOrDni(cliente.getEmail(), cliente.getDni());
+        String email = normalizarEmail(cliente.getEmail());
+        indiceClientesRegistrados.registrarVerificacion(cliente.getEmail(), cliente.getDni(),
+                coincidencias.stream().anyMatch(existente -> Objects.equals(normalizarEmail(existente.getEmail()), email)),
+                coincidencias.stream().anyMatch(existente -> Objects.equals(existente.getDni(), cliente.getDni())));
+
+        List<Cliente> otrosClientes = coincidencias.stream()
+                .filter(existente -> !existente.getId().equals(id))
+                .toList();
+
+        if (otrosClientes.stream().anyMatch(existente -> Objects.equals(normalizarEmail(existente.getEmail()), email))) {
             throw new EmailYaRegistradoException("El correo electrónico ya está en uso: " + cliente.getEmail());
         }
 
-        Optional<Cliente> clienteOptionalDni = clienteRepository.findByDni(cliente.getDni());
-        if (clienteOptionalDni.isPresent() && !clienteOptionalDni.get().getId().equals(id)) {
+        if (otrosClientes.stream().anyMatch(existente -> Objects.equals(existente.getDni(), cliente.getDni()))) {
             throw new DniYaRegistradoException("El DNI ya está en uso: " + cliente.getDni());
         }
     }
+
+    // Solo los campos enviados: el formato con las restricciones de Cliente y la unicidad de email y DNI.
+    @Override
+    public void validarCambios(Long id, CambiosClienteDTO cambios) {
+        Set<ConstraintViolation<Cliente>> violaciones = new HashSet<>();
+        validarCampo("nombre", cambios.getNombre(), violaciones);
+        validarCampo("apellido", cambios.getApellido(), violaciones);
+        validarCampo("dni", cambios.getDni(), violaciones);
+        validarCampo("email", cambios.getEmail(), violaciones);
+        if (!violaciones.isEmpty()) {
+            throw new ConstraintViolationException(violaciones);
+        }
+
+        boolean consultarEmail = cambios.getEmail() != null && indiceClientesRegistrados.podriaContenerEmail(cambios.getEmail());
+        boolean consultarDni = cambios.getDni() != null && indiceClientesRegistrados.podriaContenerDni(cambios.getDni());
+        List<Cliente> coincidencias;
+        if (consultarEmail && consultarDni) {
+            coincidencias = clienteRepository.findByEmailOrDni(cambios.getEmail(), cambios.getDni());
+        } else if (consultarEmail) {
+            coincidencias = clienteRepository.findByEmail(cambios.getEmail()).stream().toList();
+        } else if (consultarDni) {
+            coincidencias = clienteRepository.findByDni(cambios.getDni()).stream().toList();
+        } else {
+            return;
+        }
+
+        String email = normalizarEmail(cambios.getEmail());
+        List<Cliente> otrosClientes = coincidencias.stream()
+                .filter(existente -> !existente.getId().equals(id))
+                .toList();
+        if (consultarEmail && otrosClientes.stream().anyMatch(existente -> Objects.equals(normalizarEmail(existente.getEmail()), email))) {
+            throw new EmailYaRegistradoException("El correo electrónico ya está en uso: " + cambios.getEmail());
+        }
+        if (consultarDni && otrosClientes.stream().anyMatch(existente -> Objects.equals(existente.getDni(), cambios.getDni()))) {
+            throw new DniYaRegistradoException("El DNI ya está en uso: " + cambios.getDni());
+        }
+    }
+
+    @Override
+    public List<String> validarClientesEnLote(List<Cliente> clientes) {
+        List<String> errores = new ArrayList<>(Collections.nCopies(clientes.size(), null));
+
+        Set<String> emails = new HashSet<>();
+        Set<String> dnis = new HashSet<>();
+        for (int i = 0; i < clientes.size(); i++) {
+            Set<ConstraintViolation<Cliente>> violaciones = validator.validate(clientes.get(i));
+            if (!violaciones.isEmpty()) {
+                errores.set(i, violaciones.stream()
+                        .map(violacion -> violacion.getPropertyPath() + ": " + violacion.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                continue;
+            }
+            // Solo se consultan los valores que el índice no puede descartar.
+            if (indiceClientesRegistrados.podriaContenerEmail(clientes.get(i).getEmail())) {
+                emails.add(clientes.get(i).getEmail());
+            }
+            if (indiceClientesRegistrados.podriaContenerDni(clientes.get(i).getDni())) {
+                dnis.add(clientes.get(i).getDni());
+            }
+        }
+
+        // Una sola consulta para todo el lote en lugar de dos por cliente.
+        Set<String> emailsRegistrados = new HashSet<>();
+        Set<String> dnisRegistrados = new HashSet<>();
+        if (!emails.isEmpty() || !dnis.isEmpty()) {
+            clienteRepository.findByEmailInOrDniIn(emails, dnis).forEach(existente -> {
+                emailsRegistrados.add(normalizarEmail(existente.getEmail()));
+                dnisRegistrados.add(existente.getDni());
+            });
+        }
+
+        Set<String> emailsDelLote = new HashSet<>();
+        Set<String> dnisDelLote = new HashSet<>();
+        for (int i = 0; i < clientes.size(); i++) {
+            if (errores.get(i) != null) {
+                continue;
+            }
+            Cliente cliente = clientes.get(i);
+            String email = normalizarEmail(cliente.getEmail());
+            if (emailsRegistrados.contains(email)) {
+                errores.set(i, "El correo electrónico ya está en uso: " + cliente.getEmail());
+            } else if (dnisRegistrados.contains(cliente.getDni())) {
+                errores.set(i, "El DNI ya está en uso: " + cliente.getDni());
+            } else if (!emailsDelLote.add(email)) {
+                errores.set(i, "El correo electrónico está repetido en el lote: " + cliente.getEmail());
+            } else if (!dnisDelLote.add(cliente.getDni())) {
+                errores.set(i, "El DNI está repetido en el lote: " + cliente.getDni());
+            }
+        }
+        return errores;
+    }
+
+    private void validarCampo(String campo, String valor, Set<ConstraintViolation<Cliente>> violaciones) {
+        if (valor != null) {
+            violaciones.addAll(validator.validateValue(Cliente.class, campo, valor));
+        }
+    }
+
+    private String normalizarEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
 }
@@ -0,0 +1,242 @@
+package com.paucar.customer_ms.service.validacion;
+
+import com.paucar.customer_ms.config.ClientePropiedades;
+import com.paucar.customer_ms.repository.ClaveUnicaCliente;
+import com.paucar.customer_ms.repository.ClienteRepository;
+import com.paucar.customer_ms.util.ConjuntoBits;
+import com.paucar.customer_ms.util.FiltroBloom;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Índice en memoria de los DNI y emails registrados para descartar duplicados sin ir a la base de datos.
+ * Los DNI (8 dígitos) se guardan exactos en un conjunto de bits; los emails en un filtro de Bloom.
+ * Una respuesta "no registrado" permite omitir la consulta; cualquier otra cae a la consulta exacta.
+ * Las restricciones únicas de la tabla siguen siendo la garantía final, por ejemplo frente a altas
+ * hechas por otra instancia del servicio.
+ */
+@Slf4j
+@Component
+public class IndiceClientesRegistrados {
+
+    private static final long TOTAL_DNIS = 100_000_000L;
+
+    private final ClienteRepository clienteRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ClientePropiedades.Indice configuracion;
+
+    private final Counter consultasDescartadas;
+    private final Counter consultasPosibles;
+    private final AtomicLong emailsPosibles = new AtomicLong();
+    private final AtomicLong emailsFalsosPositivos = new AtomicLong();
+    private final AtomicLong dnisPosibles = new AtomicLong();
+    private final AtomicLong dnisFalsosPositivos = new AtomicLong();
+
+    private volatile Registros actuales;
+    private volatile Registros enConstruccion;
+
+    public IndiceClientesRegistrados(ClienteRepository clienteRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     ClientePropiedades clientePropiedades,
+                                     MeterRegistry meterRegistry) {
+        this.clienteRepository = clienteRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.configuracion = clientePropiedades.getIndice();
+
+        this.consultasDescartadas = Counter.builder("cliente.indice.consultas").tag("resultado", "descartado").register(meterRegistry);
+        this.consultasPosibles = Counter.builder("cliente.indice.consultas").tag("resultado", "posible").register(meterRegistry);
+        Gauge.builder("cliente.indice.tasa.falsos.positivos", this, indice -> tasa(indice.emailsFalsosPositivos, indice.emailsPosibles))
+                .tag("tipo", "email").register(meterRegistry);
+        Gauge.builder("cliente.indice.tasa.falsos.positivos", this, indice -> tasa(indice.dnisFalsosPositivos, indice.dnisPosibles))
+                .tag("tipo", "dni").register(meterRegistry);
+        Gauge.builder("cliente.indice.tasa.falsos.positivos.estimada", this, IndiceClientesRegistrados::tasaEstimadaEmails)
+                .tag("tipo", "email").register(meterRegistry);
+        FunctionCounter.builder("cliente.indice.falsos.positivos", emailsFalsosPositivos, AtomicLong::get)
+                .tag("tipo", "email").register(meterRegistry);
+        FunctionCounter.builder("cliente.indice.falsos.positivos", dnisFalsosPositivos, AtomicLong::get)
+                .tag("tipo", "dni").register(meterRegistry);
+    }
+
+    public boolean estaListo() {
+        return actuales != null;
+    }
+
+    // true solo cuando es seguro que ni el email ni el DNI están registrados.
+    public boolean descartaDuplicados(String email, String dni) {
+        Registros registros = actuales;
+        if (registros == null || email == null || dni == null) {
+            return false;
+        }
+        boolean descartado = !registros.podriaContenerEmail(normalizarEmail(email)) && !registros.podriaContenerDni(dni);
+        (descartado ? consultasDescartadas : consultasPosibles).increment();
+        return descartado;
+    }
+
+    public boolean podriaContenerEmail(String email) {
+        Registros registros = actuales;
+        return registros == null || email == null || registros.podriaContenerEmail(normalizarEmail(email));
+    }
+
+    public boolean podriaContenerDni(String dni) {
+        Registros registros = actuales;
+        return registros == null || dni == null || registros.podriaContenerDni(dni);
+    }
+
+    // Contrasta lo que respondió el índice con el resultado de la consulta exacta para medir falsos positivos.
+    public void registrarVerificacion(String email, String dni, boolean emailEncontrado, boolean dniEncontrado) {
+        Registros registros = actuales;
+        if (registros == null) {
+            return;
+        }
+        if (email != null && registros.podriaContenerEmail(normalizarEmail(email))) {
+            emailsPosibles.incrementAndGet();
+            if (!emailEncontrado) {
+                emailsFalsosPositivos.incrementAndGet();
+            }
+        }
+        if (dni != null && registros.podriaContenerDni(dni)) {
+            dnisPosibles.incrementAndGet();
+            if (!dniEncontrado) {
+                dnisFalsosPositivos.incrementAndGet();
+            }
+        }
+    }
+
+    public void registrar(String email, String dni) {
+        Registros registros = actuales;
+        if (registros != null) {
+            registros.registrar(email, dni);
+        }
+        Registros nuevos = enConstruccion;
+        if (nuevos != null) {
+            nuevos.registrar(email, dni);
+        }
+    }
+
+    // Solo los DNI se pueden quitar; los emails quedan en el filtro hasta la siguiente reconstrucción.
+    public void quitarDni(String dni) {
+        Registros registros = actuales;
+        if (registros != null) {
+            registros.quitarDni(dni);
+        }
+        Registros nuevos = enConstruccion;
+        if (nuevos != null) {
+            nuevos.quitarDni(dni);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void construirAlIniciar() {
+        reconstruir();
+    }
+
+    // Reconstruir periódicamente limpia los emails de clientes eliminados, que el filtro no puede borrar.
+    @Scheduled(fixedDelayString = "${cliente.indice.intervalo-reconstruccion:PT6H}",
+            initialDelayString = "${cliente.indice.intervalo-reconstruccion:PT6H}")
+    public void reconstruir() {
+        if (!configuracion.isHabilitado()) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        Registros nuevos = new Registros(configuracion.getCapacidadEmails(), configuracion.getTasaFalsosPositivos());
+        enConstruccion = nuevos;
+        try {
+            AtomicLong total = new AtomicLong();
+            transactionTemplate.executeWithoutResult(estado -> {
+                try (Stream<ClaveUnicaCliente> claves = clienteRepository.streamClavesUnicas()) {
+                    claves.forEach(clave -> {
+                        nuevos.registrar(clave.getEmail(), clave.getDni());
+                        total.incrementAndGet();
+                    });
+                }
+            });
+            actuales = nuevos;
+            log.info("Índice de clientes registrados construido con {} clientes en {} ms",
+                    total, (System.nanoTime() - inicio) / 1_000_000);
+        } catch (RuntimeException ex) {
+            log.warn("No se pudo construir el índice de clientes registrados; se usará la consulta a base de datos", ex);
+        } finally {
+            enConstruccion = null;
+        }
+    }
+
+    private double tasaEstimadaEmails() {
+        Registros registros = actuales;
+        return registros == null ? Double.NaN : registros.emails.tasaFalsosPositivosEstimada();
+    }
+
+    private static double tasa(AtomicLong falsosPositivos, AtomicLong posibles) {
+        long total = posibles.get();
+        return total == 0 ? 0.0 : (double) falsosPositivos.get() / total;
+    }
+
+    private static String normalizarEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Registros {
+
+        private final FiltroBloom emails;
+        private final ConjuntoBits dnis = new ConjuntoBits(TOTAL_DNIS);
+
+        private Registros(long capacidadEmails, double tasaFalsosPositivos) {
+            this.emails = new FiltroBloom(capacidadEmails, tasaFalsosPositivos);
+        }
+
+        private void registrar(String email, String dni) {
+            if (email != null) {
+                emails.agregar(normalizarEmail(email));
+            }
+            int numeroDni = numeroDni(dni);
+            if (numeroDni >= 0) {
+                dnis.activar(numeroDni);
+            }
+        }
+
+        private void quitarDni(String dni) {
+            int numeroDni = numeroDni(dni);
+            if (numeroDni >= 0) {
+                dnis.desactivar(numeroDni);
+            }
+        }
+
+        private boolean podriaContenerEmail(String emailNormalizado) {
+            return emails.podriaContener(emailNormalizado);
+        }
+
+        // Un DNI que no tiene 8 dígitos no se indexa, así que se responde "posible" para no omitir la consulta.
+        private boolean podriaContenerDni(String dni) {
+            int numeroDni = numeroDni(dni);
+            return numeroDni < 0 || dnis.estaActivo(numeroDni);
+        }
+
+        private static int numeroDni(String dni) {
+            if (dni == null || dni.length() != 8) {
+                return -1;
+            }
+            int numero = 0;
+            for (int i = 0; i < 8; i++) {
+                char c = dni.charAt(i);
+                if (c < '0' || c > '9') {
+                    return -1;
+                }
+                numero = numero * 10 + (c - '0');
+            }
+            return numero;
+        }
+    }
+}
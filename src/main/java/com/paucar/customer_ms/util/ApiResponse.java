@@ -1,5 +1,6 @@
 package com.paucar.customer_ms.util;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -15,4 +16,7 @@ public class ApiResponse<T> {
     private String mensaje;
     private T datos;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long siguienteCursor;
+
 }
@@ -0,0 +1,55 @@
+package com.paucar.customer_ms.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Conjunto de bits de tamaño fijo que admite escrituras concurrentes sin bloqueos.
+public class ConjuntoBits {
+
+    private final AtomicLongArray palabras;
+    private final long tamano;
+
+    public ConjuntoBits(long tamano) {
+        this.tamano = tamano;
+        this.palabras = new AtomicLongArray((int) ((tamano + 63) >>> 6));
+    }
+
+    public void activar(long indice) {
+        int posicion = (int) (indice >>> 6);
+        long mascara = 1L << indice;
+        long actual;
+        do {
+            actual = palabras.get(posicion);
+            if ((actual & mascara) != 0) {
+                return;
+            }
+        } while (!palabras.compareAndSet(posicion, actual, actual | mascara));
+    }
+
+    public void desactivar(long indice) {
+        int posicion = (int) (indice >>> 6);
+        long mascara = 1L << indice;
+        long actual;
+        do {
+            actual = palabras.get(posicion);
+            if ((actual & mascara) == 0) {
+                return;
+            }
+        } while (!palabras.compareAndSet(posicion, actual, actual & ~mascara));
+    }
+
+    public boolean estaActivo(long indice) {
+        return (palabras.get((int) (indice >>> 6)) & (1L << indice)) != 0;
+    }
+
+    public long contarActivos() {
+        long activos = 0;
+        for (int i = 0; i < palabras.length(); i++) {
+            activos += Long.bitCount(palabras.get(i));
+        }
+        return activos;
+    }
+
+    public long getTamano() {
+        return tamano;
+    }
+}
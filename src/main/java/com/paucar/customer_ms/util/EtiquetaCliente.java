@@ -0,0 +1,64 @@
+package com.paucar.customer_ms.util;
+
+import com.paucar.customer_ms.dto.ClienteDTO;
+
+import java.util.List;
+
+/**
+ * ETag fuertes a partir de la versión de los clientes. Un cliente usa su versión ("7"); una página usa
+ * un resumen de los pares id/versión y del cursor siguiente, así cambia si se modifica, se agrega o se
+ * elimina cualquiera de sus clientes.
+ */
+public final class EtiquetaCliente {
+
+    // Valor que nunca coincide con una versión: If-Match con una etiqueta débil o que no es nuestra.
+    public static final long VERSION_INVALIDA = -1;
+
+    private EtiquetaCliente() {
+    }
+
+    public static String deCliente(ClienteDTO cliente) {
+        return deVersion(cliente.getVersion());
+    }
+
+    public static String deVersion(long version) {
+        return "\"" + version + "\"";
+    }
+
+    public static String dePagina(List<ClienteDTO> clientes, Long siguienteCursor) {
+        long resumen = mezclar(clientes.size());
+        for (ClienteDTO cliente : clientes) {
+            resumen = mezclar(resumen ^ cliente.getId());
+            resumen = mezclar(resumen ^ cliente.getVersion());
+        }
+        resumen = mezclar(resumen ^ (siguienteCursor == null ? 0 : siguienteCursor));
+        return "\"p" + Long.toHexString(resumen) + "\"";
+    }
+
+    /**
+     * Versión esperada según la cabecera If-Match: null si no hay condición (ausente o "*") y
+     * {@link #VERSION_INVALIDA} si la etiqueta es débil o no corresponde a una versión. Se admite una sola etiqueta.
+     */
+    public static Long versionEsperada(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String etiqueta = ifMatch.trim();
+        if (etiqueta.length() < 3 || etiqueta.charAt(0) != '"' || etiqueta.charAt(etiqueta.length() - 1) != '"') {
+            return VERSION_INVALIDA;
+        }
+        try {
+            long version = Long.parseLong(etiqueta.substring(1, etiqueta.length() - 1));
+            return version < 0 ? VERSION_INVALIDA : version;
+        } catch (NumberFormatException ex) {
+            return VERSION_INVALIDA;
+        }
+    }
+
+    // Finalizador de SplitMix64: cada bit de entrada afecta a todos los de salida.
+    private static long mezclar(long valor) {
+        valor = (valor ^ (valor >>> 30)) * 0xbf58476d1ce4e5b9L;
+        valor = (valor ^ (valor >>> 27)) * 0x94d049bb133111ebL;
+        return valor ^ (valor >>> 31);
+    }
+}
@@ -0,0 +1,63 @@
+package com.paucar.customer_ms.util;
+
+import java.nio.charset.StandardCharsets;
+
+// Filtro de Bloom sobre ConjuntoBits: "no contiene" es definitivo, "contiene" puede ser un falso positivo.
+public class FiltroBloom {
+
+    private final ConjuntoBits bits;
+    private final int funcionesHash;
+
+    public FiltroBloom(long capacidadEsperada, double tasaFalsosPositivos) {
+        long capacidad = Math.max(1, capacidadEsperada);
+        long tamano = (long) Math.ceil(-capacidad * Math.log(tasaFalsosPositivos) / (Math.log(2) * Math.log(2)));
+        this.bits = new ConjuntoBits(Math.max(64, tamano));
+        this.funcionesHash = Math.max(1, (int) Math.round((double) bits.getTamano() / capacidad * Math.log(2)));
+    }
+
+    public void agregar(String valor) {
+        long hash = hash64(valor);
+        long h1 = hash & 0xffffffffL;
+        long h2 = hash >>> 32;
+        for (int i = 1; i <= funcionesHash; i++) {
+            bits.activar(posicion(h1 + i * h2));
+        }
+    }
+
+    public boolean podriaContener(String valor) {
+        long hash = hash64(valor);
+        long h1 = hash & 0xffffffffL;
+        long h2 = hash >>> 32;
+        for (int i = 1; i <= funcionesHash; i++) {
+            if (!bits.estaActivo(posicion(h1 + i * h2))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Probabilidad de falso positivo según la proporción actual de bits activos.
+    public double tasaFalsosPositivosEstimada() {
+        double ocupacion = (double) bits.contarActivos() / bits.getTamano();
+        return Math.pow(ocupacion, funcionesHash);
+    }
+
+    private long posicion(long hashCombinado) {
+        return Math.floorMod(hashCombinado, bits.getTamano());
+    }
+
+    // FNV-1a de 64 bits con el mezclado final de MurmurHash3.
+    private static long hash64(String valor) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
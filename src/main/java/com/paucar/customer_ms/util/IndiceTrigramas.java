@@ -0,0 +1,344 @@
+package com.paucar.customer_ms.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido de trigramas para encontrar textos aunque tengan errores de escritura
+ * ("Paukar" encuentra "Paucar"). Cada texto recibe un ordinal consecutivo y cada trigrama guarda
+ * la lista creciente de ordinales que lo contienen en una {@link ListaEnterosCrecientes}.
+ *
+ * <p>La similitud es la fracción de trigramas de la consulta presentes en el texto; a igual
+ * similitud gana el texto con menos trigramas sobrantes. Al reemplazar o quitar un id su ordinal
+ * anterior no se borra de las listas: se marca como descartado y desaparece al reconstruir.
+ *
+ * <p>La búsqueda solo decodifica completas las listas más cortas de la consulta; las de trigramas
+ * frecuentes se consultan saltando hasta cada candidato, así el costo depende de los candidatos y no
+ * del tamaño total de las listas.
+ */
+public class IndiceTrigramas {
+
+    private static final int SIMBOLOS = 37;
+    private static final int TOTAL_TRIGRAMAS = SIMBOLOS * SIMBOLOS * SIMBOLOS;
+    private static final int SIN_ORDINAL = -1;
+
+    private static final Comparator<Candidato> ORDEN = Comparator.comparingDouble(Candidato::cobertura)
+            .thenComparingDouble(Candidato::jaccard)
+            .thenComparingInt(Candidato::ordinal);
+
+    private final ListaEnterosCrecientes[] listas = new ListaEnterosCrecientes[TOTAL_TRIGRAMAS];
+    private long[] idsPorOrdinal = new long[1024];
+    private short[] trigramasPorOrdinal = new short[1024];
+    private int ordinales;
+
+    // Ordinal vigente de los ids registrados o quitados después de la carga; SIN_ORDINAL si se quitó.
+    private final Map<Long, Integer> cambios = new HashMap<>();
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+
+    public record Coincidencia(long id, double similitud) {
+    }
+
+    private record Candidato(int ordinal, double cobertura, double jaccard) {
+    }
+
+    // Carga inicial: supone que el id aún no está en el índice.
+    public void cargar(long id, String texto) {
+        int[] trigramas = trigramas(texto);
+        candado.writeLock().lock();
+        try {
+            if (trigramas.length > 0) {
+                agregarOrdinal(id, trigramas);
+            }
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    // Alta o modificación: el texto nuevo reemplaza al anterior del mismo id.
+    public void registrar(long id, String texto) {
+        int[] trigramas = trigramas(texto);
+        candado.writeLock().lock();
+        try {
+            cambios.put(id, trigramas.length > 0 ? agregarOrdinal(id, trigramas) : SIN_ORDINAL);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    public void quitar(long id) {
+        candado.writeLock().lock();
+        try {
+            cambios.put(id, SIN_ORDINAL);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    public void compactar() {
+        candado.writeLock().lock();
+        try {
+            for (ListaEnterosCrecientes lista : listas) {
+                if (lista != null) {
+                    lista.compactar();
+                }
+            }
+            idsPorOrdinal = Arrays.copyOf(idsPorOrdinal, Math.max(1, ordinales));
+            trigramasPorOrdinal = Arrays.copyOf(trigramasPorOrdinal, Math.max(1, ordinales));
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    public List<Coincidencia> buscar(String texto, double similitudMinima, int limite) {
+        int[] consulta = trigramas(texto);
+        if (consulta.length == 0 || limite <= 0) {
+            return List.of();
+        }
+        int minimoComunes = Math.max(1, (int) Math.ceil(similitudMinima * consulta.length));
+
+        candado.readLock().lock();
+        try {
+            List<ListaEnterosCrecientes> presentes = new ArrayList<>(consulta.length);
+            for (int trigrama : consulta) {
+                if (listas[trigrama] != null) {
+                    presentes.add(listas[trigrama]);
+                }
+            }
+            int total = presentes.size();
+            if (total < minimoComunes) {
+                return List.of();
+            }
+
+            // Un texto con minimoComunes trigramas en común aparece en alguna de las (total - minimoComunes + 1)
+            // listas más cortas: solo esas se mezclan completas; en las largas se salta hasta cada candidato.
+            presentes.sort(Comparator.comparingInt(ListaEnterosCrecientes::getCantidad));
+            int cortas = total - minimoComunes + 1;
+            ListaEnterosCrecientes.Lector[] lectores = new ListaEnterosCrecientes.Lector[total];
+            int[] cabezas = new int[total];
+            for (int i = 0; i < total; i++) {
+                lectores[i] = presentes.get(i).lector();
+                cabezas[i] = i < cortas ? lectores[i].siguiente() : -1;
+            }
+
+            // Mezcla de las listas cortas: un ordinal sale tantas veces como listas cortas lo contienen.
+            int[] monticulo = new int[cortas];
+            int tamano = 0;
+            for (int i = 0; i < cortas; i++) {
+                if (cabezas[i] >= 0) {
+                    monticulo[tamano++] = i;
+                }
+            }
+            for (int i = tamano / 2 - 1; i >= 0; i--) {
+                hundir(monticulo, tamano, cabezas, i);
+            }
+
+            int minimo = minimoComunes;
+            PriorityQueue<Candidato> mejores = new PriorityQueue<>(limite + 1, ORDEN);
+            while (tamano > 0) {
+                int ordinal = cabezas[monticulo[0]];
+                int comunes = 0;
+                while (tamano > 0 && cabezas[monticulo[0]] == ordinal) {
+                    int lector = monticulo[0];
+                    int siguiente;
+                    if (lector >= cortas) {
+                        // La lista dejó de ser corta: sale de la mezcla y se consulta saltando desde aquí.
+                        siguiente = -1;
+                    } else {
+                        comunes++;
+                        siguiente = lectores[lector].siguiente();
+                    }
+                    if (siguiente < 0) {
+                        monticulo[0] = monticulo[--tamano];
+                    } else {
+                        cabezas[lector] = siguiente;
+                    }
+                    hundir(monticulo, tamano, cabezas, 0);
+                }
+                for (int i = cortas; i < total && comunes + total - i >= minimo; i++) {
+                    if (cabezas[i] < ordinal) {
+                        int siguiente = lectores[i].avanzarHasta(ordinal);
+                        cabezas[i] = siguiente < 0 ? Integer.MAX_VALUE : siguiente;
+                    }
+                    if (cabezas[i] == ordinal) {
+                        comunes++;
+                    }
+                }
+                if (comunes >= minimo && estaVigente(ordinal)) {
+                    int trigramasTexto = trigramasPorOrdinal[ordinal];
+                    mejores.offer(new Candidato(ordinal, (double) comunes / consulta.length,
+                            (double) comunes / (consulta.length + trigramasTexto - comunes)));
+                    if (mejores.size() > limite) {
+                        mejores.poll();
+                    }
+                    // Con los mejores completos, un candidato nuevo necesita al menos la cobertura del peor
+                    // de ellos: sube el mínimo y se reducen las listas que hay que mezclar completas.
+                    if (mejores.size() == limite) {
+                        int necesarios = (int) Math.ceil(mejores.peek().cobertura() * consulta.length - 1e-9);
+                        if (necesarios > minimo) {
+                            minimo = necesarios;
+                            cortas = total - minimo + 1;
+                        }
+                    }
+                }
+            }
+
+            List<Coincidencia> resultado = new ArrayList<>(mejores.size());
+            while (!mejores.isEmpty()) {
+                Candidato candidato = mejores.poll();
+                resultado.add(new Coincidencia(idsPorOrdinal[candidato.ordinal()], candidato.cobertura()));
+            }
+            Collections.reverse(resultado);
+            return resultado;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    public int getOrdinales() {
+        candado.readLock().lock();
+        try {
+            return ordinales;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    // Memoria aproximada ocupada por las listas y los arreglos por ordinal.
+    public long getBytes() {
+        candado.readLock().lock();
+        try {
+            long bytes = (long) idsPorOrdinal.length * Long.BYTES + (long) trigramasPorOrdinal.length * Short.BYTES;
+            for (ListaEnterosCrecientes lista : listas) {
+                if (lista != null) {
+                    bytes += lista.getBytes();
+                }
+            }
+            return bytes;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Trigramas distintos y ordenados del texto. Se ignoran mayúsculas y tildes, cualquier carácter
+     * que no sea letra o dígito separa palabras, y cada palabra se rellena con dos espacios delante
+     * y uno detrás para que el inicio y el final pesen más.
+     */
+    static int[] trigramas(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return new int[0];
+        }
+        String descompuesto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        int[] resultado = new int[descompuesto.length() * 2 + 2];
+        int cantidad = 0;
+        int previo2 = 0;
+        int previo1 = 0;
+        boolean enPalabra = false;
+        for (int i = 0; i <= descompuesto.length(); i++) {
+            char caracter = i < descompuesto.length() ? descompuesto.charAt(i) : ' ';
+            if (Character.getType(caracter) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            int codigo = codigo(caracter);
+            if (codigo == 0) {
+                if (enPalabra) {
+                    resultado[cantidad++] = clave(previo2, previo1, 0);
+                    enPalabra = false;
+                }
+                continue;
+            }
+            if (!enPalabra) {
+                previo2 = 0;
+                previo1 = 0;
+                enPalabra = true;
+            }
+            resultado[cantidad++] = clave(previo2, previo1, codigo);
+            previo2 = previo1;
+            previo1 = codigo;
+        }
+        Arrays.sort(resultado, 0, cantidad);
+        int distintos = 0;
+        for (int i = 0; i < cantidad; i++) {
+            if (distintos == 0 || resultado[distintos - 1] != resultado[i]) {
+                resultado[distintos++] = resultado[i];
+            }
+        }
+        return Arrays.copyOf(resultado, distintos);
+    }
+
+    private int agregarOrdinal(long id, int[] trigramas) {
+        if (ordinales == idsPorOrdinal.length) {
+            // Tras compactar la capacidad puede ser 1: se asegura un crecimiento mínimo.
+            int capacidad = Math.max(16, idsPorOrdinal.length + (idsPorOrdinal.length >> 1));
+            idsPorOrdinal = Arrays.copyOf(idsPorOrdinal, capacidad);
+            trigramasPorOrdinal = Arrays.copyOf(trigramasPorOrdinal, capacidad);
+        }
+        int ordinal = ordinales++;
+        idsPorOrdinal[ordinal] = id;
+        trigramasPorOrdinal[ordinal] = (short) Math.min(trigramas.length, Short.MAX_VALUE);
+        for (int trigrama : trigramas) {
+            ListaEnterosCrecientes lista = listas[trigrama];
+            if (lista == null) {
+                lista = new ListaEnterosCrecientes();
+                listas[trigrama] = lista;
+            }
+            lista.agregar(ordinal);
+        }
+        return ordinal;
+    }
+
+    private boolean estaVigente(int ordinal) {
+        if (cambios.isEmpty()) {
+            return true;
+        }
+        Integer vigente = cambios.get(idsPorOrdinal[ordinal]);
+        return vigente == null || vigente == ordinal;
+    }
+
+    private static void hundir(int[] monticulo, int tamano, int[] cabezas, int posicion) {
+        while (true) {
+            int menor = posicion;
+            int izquierdo = 2 * posicion + 1;
+            int derecho = izquierdo + 1;
+            if (izquierdo < tamano && cabezas[monticulo[izquierdo]] < cabezas[monticulo[menor]]) {
+                menor = izquierdo;
+            }
+            if (derecho < tamano && cabezas[monticulo[derecho]] < cabezas[monticulo[menor]]) {
+                menor = derecho;
+            }
+            if (menor == posicion) {
+                return;
+            }
+            int temporal = monticulo[posicion];
+            monticulo[posicion] = monticulo[menor];
+            monticulo[menor] = temporal;
+            posicion = menor;
+        }
+    }
+
+    private static int clave(int primero, int segundo, int tercero) {
+        return (primero * SIMBOLOS + segundo) * SIMBOLOS + tercero;
+    }
+
+    // 0 separa palabras; 1-26 letras; 27-36 dígitos.
+    private static int codigo(char caracter) {
+        if (caracter >= 'a' && caracter <= 'z') {
+            return caracter - 'a' + 1;
+        }
+        if (caracter >= 'A' && caracter <= 'Z') {
+            return caracter - 'A' + 1;
+        }
+        if (caracter >= '0' && caracter <= '9') {
+            return caracter - '0' + 27;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,121 @@
+package com.paucar.customer_ms.util;
+
+import java.util.Arrays;
+
+// Lista de enteros estrictamente crecientes guardada como diferencias en varint: 1 byte por valor si están cerca.
+// Cada SALTO valores se anota el valor y su posición para que el lector pueda saltar bloques sin decodificarlos.
+// No es segura para hilos; quien la use debe sincronizar escrituras y lecturas.
+public class ListaEnterosCrecientes {
+
+    private static final int SALTO = 64;
+
+    private byte[] datos = new byte[4];
+    private int longitud;
+    private int cantidad;
+    private int ultimo;
+
+    private int[] saltosValor = new int[0];
+    private int[] saltosPosicion = new int[0];
+    private int saltos;
+
+    public void agregar(int valor) {
+        if (cantidad > 0 && valor <= ultimo) {
+            throw new IllegalArgumentException("Los valores deben ser crecientes: " + valor + " después de " + ultimo);
+        }
+        int diferencia = cantidad == 0 ? valor : valor - ultimo;
+        if (longitud + 5 > datos.length) {
+            datos = Arrays.copyOf(datos, Math.max(longitud + 5, datos.length + (datos.length >> 1)));
+        }
+        while ((diferencia & ~0x7F) != 0) {
+            datos[longitud++] = (byte) ((diferencia & 0x7F) | 0x80);
+            diferencia >>>= 7;
+        }
+        datos[longitud++] = (byte) diferencia;
+        ultimo = valor;
+        cantidad++;
+        if (cantidad % SALTO == 0) {
+            anotarSalto();
+        }
+    }
+
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    public int getBytes() {
+        return datos.length + (saltosValor.length + saltosPosicion.length) * Integer.BYTES;
+    }
+
+    public void compactar() {
+        datos = Arrays.copyOf(datos, longitud);
+        saltosValor = Arrays.copyOf(saltosValor, saltos);
+        saltosPosicion = Arrays.copyOf(saltosPosicion, saltos);
+    }
+
+    public Lector lector() {
+        return new Lector();
+    }
+
+    private void anotarSalto() {
+        if (saltos == saltosValor.length) {
+            int capacidad = Math.max(4, saltos + (saltos >> 1));
+            saltosValor = Arrays.copyOf(saltosValor, capacidad);
+            saltosPosicion = Arrays.copyOf(saltosPosicion, capacidad);
+        }
+        saltosValor[saltos] = ultimo;
+        saltosPosicion[saltos] = longitud;
+        saltos++;
+    }
+
+    // Recorre los valores en orden; siguiente() y avanzarHasta() devuelven -1 al terminar.
+    public class Lector {
+
+        private int posicion;
+        private int leidos;
+        private int valor;
+
+        public int siguiente() {
+            if (leidos == cantidad) {
+                return -1;
+            }
+            int diferencia = 0;
+            int desplazamiento = 0;
+            byte actual;
+            do {
+                actual = datos[posicion++];
+                diferencia |= (actual & 0x7F) << desplazamiento;
+                desplazamiento += 7;
+            } while ((actual & 0x80) != 0);
+            valor = leidos == 0 ? diferencia : valor + diferencia;
+            leidos++;
+            return valor;
+        }
+
+        // Primer valor pendiente mayor o igual que el objetivo; los anteriores se descartan.
+        public int avanzarHasta(int objetivo) {
+            // Último salto por delante de la posición actual cuyo valor sigue siendo menor que el objetivo.
+            int desde = leidos / SALTO;
+            int hasta = saltos - 1;
+            int elegido = -1;
+            while (desde <= hasta) {
+                int medio = (desde + hasta) >>> 1;
+                if (saltosValor[medio] < objetivo) {
+                    elegido = medio;
+                    desde = medio + 1;
+                } else {
+                    hasta = medio - 1;
+                }
+            }
+            if (elegido >= 0 && (elegido + 1) * SALTO > leidos) {
+                leidos = (elegido + 1) * SALTO;
+                valor = saltosValor[elegido];
+                posicion = saltosPosicion[elegido];
+            }
+            int siguiente;
+            do {
+                siguiente = siguiente();
+            } while (siguiente >= 0 && siguiente < objetivo);
+            return siguiente;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.paucar.customer_ms.benchmark;
+
+import com.paucar.customer_ms.CustomerMsApplication;
+import com.paucar.customer_ms.dto.CambiosClienteDTO;
+import com.paucar.customer_ms.dto.ClienteDTO;
+import com.paucar.customer_ms.dto.ResultadoItemDTO;
+import com.paucar.customer_ms.service.gestion.ClienteGestionService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cambio de email de un cliente con PUT (lectura, validación completa y save) frente a PATCH (un UPDATE
+// de la columna). Al final de cada iteración imprime las sentencias SQL por operación según Hibernate.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ActualizacionClientesBenchmark {
+
+    private static final int CLIENTES_REGISTRADOS = 1_000;
+    private static final long PRIMER_DNI = 20_000_000L;
+
+    private final AtomicLong secuencia = new AtomicLong();
+    private final AtomicLong operaciones = new AtomicLong();
+
+    private ConfigurableApplicationContext contexto;
+    private ClienteGestionService clienteGestionService;
+    private Statistics estadisticas;
+    private List<ClienteDTO> clientes;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(CustomerMsApplication.class)
+                .profiles("benchmark")
+                .properties("spring.main.web-application-type=none",
+                        "spring.jpa.properties.hibernate.generate_statistics=true",
+                        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN")
+                .run();
+        clienteGestionService = contexto.getBean(ClienteGestionService.class);
+        estadisticas = contexto.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+        List<ClienteDTO> lote = new ArrayList<>(CLIENTES_REGISTRADOS);
+        for (long numero = PRIMER_DNI; numero < PRIMER_DNI + CLIENTES_REGISTRADOS; numero++) {
+            lote.add(ClienteDTO.builder()
+                    .nombre("Cliente")
+                    .apellido("Registrado")
+                    .dni(Long.toString(numero))
+                    .email("cliente" + numero + "@benchmark.com")
+                    .build());
+        }
+        clientes = clienteGestionService.guardarClientesEnLote(lote).getResultados().stream()
+                .map(ResultadoItemDTO::getCliente)
+                .toList();
+    }
+
+    @Setup(Level.Iteration)
+    public void reiniciarContadores() {
+        estadisticas.clear();
+        operaciones.set(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void informarSentencias() {
+        long total = operaciones.get();
+        if (total > 0) {
+            System.out.printf("%n  sentencias SQL por operación: %.2f, entidades leídas por operación: %.2f%n",
+                    (double) estadisticas.getPrepareStatementCount() / total,
+                    (double) estadisticas.getEntityLoadCount() / total);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public ClienteDTO actualizarConPut() {
+        long numero = secuencia.getAndIncrement();
+        ClienteDTO cliente = clientes.get((int) (numero % CLIENTES_REGISTRADOS));
+        operaciones.incrementAndGet();
+        return clienteGestionService.actualizarCliente(cliente.getId(), cliente.toBuilder()
+                .email("put" + numero + "@benchmark.com")
+                .build(), null);
+    }
+
+    @Benchmark
+    public long actualizarConPatch() {
+        long numero = secuencia.getAndIncrement();
+        ClienteDTO cliente = clientes.get((int) (numero % CLIENTES_REGISTRADOS));
+        operaciones.incrementAndGet();
+        clienteGestionService.actualizarClienteParcialmente(cliente.getId(), CambiosClienteDTO.builder()
+                .email("patch" + numero + "@benchmark.com")
+                .build(), null);
+        return numero;
+    }
+}
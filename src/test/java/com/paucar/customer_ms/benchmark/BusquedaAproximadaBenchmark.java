@@ -0,0 +1,69 @@
+package com.paucar.customer_ms.benchmark;
+
+import com.paucar.customer_ms.util.IndiceTrigramas;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Latencia de la búsqueda aproximada sobre millones de nombres sintéticos, sin base de datos.
+// El tamaño de memoria del índice se imprime al construirlo. Para 3 millones: -p clientes=3000000.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BusquedaAproximadaBenchmark {
+
+    private static final String[] NOMBRES = {
+            "Juan", "María", "José", "Rosa", "Luis", "Carmen", "Carlos", "Ana", "Jorge", "Lucía",
+            "Pedro", "Elena", "Miguel", "Sofía", "Víctor", "Julia", "Raúl", "Diana", "César", "Teresa"};
+    private static final String[] SILABAS = {
+            "pa", "u", "car", "qui", "spe", "ma", "ma", "ni", "hu", "a", "man", "ga", "rcí", "flo",
+            "res", "ta", "pia", "co", "ndo", "ri", "va", "lle", "yu", "pan", "chu", "ro", "ca", "ha"};
+
+    @Param({"1000000"})
+    public int clientes;
+
+    private IndiceTrigramas indice;
+    private List<String> consultas;
+    private int siguiente;
+
+    @Setup(Level.Trial)
+    public void construir() {
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        indice = new IndiceTrigramas();
+        for (int id = 1; id <= clientes; id++) {
+            indice.cargar(id, NOMBRES[aleatorio.nextInt(NOMBRES.length)] + " "
+                    + apellido(aleatorio) + " " + apellido(aleatorio));
+        }
+        indice.cargar(clientes + 1L, "Kevin Paucar Quispe");
+        indice.compactar();
+        System.out.printf("%nÍndice con %d clientes: %d MB%n", clientes, indice.getBytes() / (1024 * 1024));
+
+        consultas = List.of("Kevin Paukar", "kevin paucar quispe", "Paucar Kispe", "Kebin Paucar");
+    }
+
+    @Benchmark
+    public List<IndiceTrigramas.Coincidencia> buscarConErrores() {
+        String consulta = consultas.get(siguiente++ & 3);
+        return indice.buscar(consulta, 0.4, 10);
+    }
+
+    @Benchmark
+    public List<IndiceTrigramas.Coincidencia> buscarApellidoComun() {
+        return indice.buscar("Mamani", 0.4, 10);
+    }
+
+    private static String apellido(SplittableRandom aleatorio) {
+        StringBuilder apellido = new StringBuilder();
+        int silabas = 2 + aleatorio.nextInt(3);
+        for (int i = 0; i < silabas; i++) {
+            apellido.append(SILABAS[aleatorio.nextInt(SILABAS.length)]);
+        }
+        apellido.setCharAt(0, Character.toUpperCase(apellido.charAt(0)));
+        return apellido.toString();
+    }
+}
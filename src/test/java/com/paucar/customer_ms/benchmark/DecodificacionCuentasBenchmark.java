@@ -0,0 +1,71 @@
+package com.paucar.customer_ms.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paucar.customer_ms.client.dto.Cuenta;
+import com.paucar.customer_ms.client.dto.ResumenCuentasActivas;
+import com.paucar.customer_ms.util.ApiResponse;
+import com.paucar.customer_ms.util.EstadoCuenta;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Respuesta de /cuentas/cliente/{id} con muchas cuentas: decodificar la lista completa y recorrerla frente a
+// leerla con ResumenCuentasActivas. "posicionActiva" es el índice de la primera cuenta activa (-1: ninguna).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecodificacionCuentasBenchmark {
+
+    private static final int CUENTAS = 300;
+    private static final TypeReference<ApiResponse<List<Cuenta>>> TIPO_CUENTAS = new TypeReference<>() {
+    };
+
+    @Param({"0", "-1"})
+    private int posicionActiva;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private byte[] cuerpo;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        StringBuilder json = new StringBuilder("{\"estado\":200,\"mensaje\":\"Cuentas encontradas\",\"datos\":[");
+        for (int i = 0; i < CUENTAS; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            String estado = i == posicionActiva ? "ACTIVO" : "INACTIVO";
+            json.append("{\"id\":").append(i + 1)
+                    .append(",\"numeroCuenta\":\"00012345").append(i)
+                    .append("\",\"saldo\":1500.75,\"clienteId\":1,\"tipoCuenta\":\"AHORROS\",\"estado\":\"")
+                    .append(estado).append("\"}");
+        }
+        cuerpo = json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public boolean listaCompleta() throws IOException {
+        ApiResponse<List<Cuenta>> respuesta = objectMapper.readValue(flujo(), TIPO_CUENTAS);
+        return respuesta.getDatos().stream().anyMatch(cuenta -> cuenta.getEstado() == EstadoCuenta.ACTIVO);
+    }
+
+    @Benchmark
+    public boolean resumen() throws IOException {
+        return objectMapper.readValue(flujo(), ResumenCuentasActivas.class).getTieneActivas();
+    }
+
+    // Feign entrega el cuerpo como flujo; así el lector que se detiene antes no paga por lo que no lee.
+    private InputStream flujo() {
+        return new ByteArrayInputStream(cuerpo);
+    }
+}
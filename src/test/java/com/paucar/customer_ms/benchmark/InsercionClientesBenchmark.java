@@ -0,0 +1,72 @@
+package com.paucar.customer_ms.benchmark;
+
+import com.paucar.customer_ms.CustomerMsApplication;
+import com.paucar.customer_ms.dto.ClienteDTO;
+import com.paucar.customer_ms.service.gestion.ClienteGestionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Compara inserciones por segundo entre POST /cliente (una fila por llamada) y POST /cliente/lote.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsercionClientesBenchmark {
+
+    private static final int CLIENTES_POR_OPERACION = 100;
+
+    private final AtomicLong secuencia = new AtomicLong(10_000_000L);
+
+    private ConfigurableApplicationContext contexto;
+    private ClienteGestionService clienteGestionService;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(CustomerMsApplication.class)
+                .profiles("benchmark")
+                .properties("spring.main.web-application-type=none")
+                .run();
+        clienteGestionService = contexto.getBean(ClienteGestionService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        contexto.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CLIENTES_POR_OPERACION)
+    public void insertarUnoPorUno() {
+        for (ClienteDTO clienteDTO : nuevosClientes()) {
+            clienteGestionService.guardarCliente(clienteDTO);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CLIENTES_POR_OPERACION)
+    public Object insertarEnLote() {
+        return clienteGestionService.guardarClientesEnLote(nuevosClientes());
+    }
+
+    private List<ClienteDTO> nuevosClientes() {
+        List<ClienteDTO> clientes = new ArrayList<>(CLIENTES_POR_OPERACION);
+        for (int i = 0; i < CLIENTES_POR_OPERACION; i++) {
+            long numero = secuencia.getAndIncrement();
+            clientes.add(ClienteDTO.builder()
+                    .nombre("Cliente")
+                    .apellido("Benchmark")
+                    .dni(Long.toString(numero))
+                    .email("cliente" + numero + "@benchmark.com")
+                    .build());
+        }
+        return clientes;
+    }
+}
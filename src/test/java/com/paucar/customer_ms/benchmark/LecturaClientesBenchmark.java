@@ -0,0 +1,102 @@
+package com.paucar.customer_ms.benchmark;
+
+import com.paucar.customer_ms.CustomerMsApplication;
+import com.paucar.customer_ms.dto.ClienteDTO;
+import com.paucar.customer_ms.mapper.ClienteMapper;
+import com.paucar.customer_ms.model.Cliente;
+import com.paucar.customer_ms.repository.ClienteRepository;
+import com.paucar.customer_ms.service.gestion.ClienteGestionService;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Lectura de una página y de un cliente por id cargando entidades y convirtiéndolas con el mapper (camino
+// anterior) frente a las consultas que construyen el ClienteDTO directamente. Con -prof gc se obtienen
+// además los bytes asignados por operación. La lectura por id no depende del tamaño de página.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LecturaClientesBenchmark {
+
+    private static final int CLIENTES_REGISTRADOS = 1_000;
+    private static final long PRIMER_DNI = 30_000_000L;
+
+    @Param({"50", "500"})
+    private int tamanoPagina;
+
+    private final AtomicLong secuencia = new AtomicLong();
+
+    private ConfigurableApplicationContext contexto;
+    private ClienteRepository clienteRepository;
+    private ClienteMapper clienteMapper;
+    private EntityManager entityManager;
+    private List<Long> ids;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(CustomerMsApplication.class)
+                .profiles("benchmark")
+                .properties("spring.main.web-application-type=none")
+                .run();
+        clienteRepository = contexto.getBean(ClienteRepository.class);
+        clienteMapper = contexto.getBean(ClienteMapper.class);
+        entityManager = contexto.getBean(EntityManager.class);
+
+        List<ClienteDTO> lote = new ArrayList<>(CLIENTES_REGISTRADOS);
+        for (long numero = PRIMER_DNI; numero < PRIMER_DNI + CLIENTES_REGISTRADOS; numero++) {
+            lote.add(ClienteDTO.builder()
+                    .nombre("Cliente")
+                    .apellido("Registrado")
+                    .dni(Long.toString(numero))
+                    .email("cliente" + numero + "@benchmark.com")
+                    .build());
+        }
+        ids = contexto.getBean(ClienteGestionService.class).guardarClientesEnLote(lote).getResultados().stream()
+                .map(resultado -> resultado.getCliente().getId())
+                .toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<ClienteDTO> paginaConEntidades() {
+        return entityManager.createQuery("FROM Cliente c ORDER BY c.id DESC", Cliente.class)
+                .setMaxResults(tamanoPagina + 1)
+                .getResultList()
+                .stream()
+                .map(clienteMapper::convertiADTO)
+                .toList();
+    }
+
+    @Benchmark
+    public List<ClienteDTO> paginaConProyeccion() {
+        return clienteRepository.findDTOs(Limit.of(tamanoPagina + 1));
+    }
+
+    @Benchmark
+    public ClienteDTO porIdConEntidad() {
+        return clienteMapper.convertiADTO(clienteRepository.findById(siguienteId()).orElseThrow());
+    }
+
+    @Benchmark
+    public ClienteDTO porIdConProyeccion() {
+        return clienteRepository.findDTOById(siguienteId()).orElseThrow();
+    }
+
+    private Long siguienteId() {
+        return ids.get((int) (secuencia.getAndIncrement() % ids.size()));
+    }
+}
@@ -0,0 +1,46 @@
+package com.paucar.customer_ms.benchmark;
+
+import com.paucar.customer_ms.dto.ClienteDTO;
+import com.paucar.customer_ms.mapper.ClienteMapper;
+import com.paucar.customer_ms.mapper.ClienteMapperImpl;
+import com.paucar.customer_ms.model.Cliente;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Costo de las conversiones de MapStruct entre la entidad y el DTO, sin contexto de Spring.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapeoClientesBenchmark {
+
+    private final ClienteMapper clienteMapper = new ClienteMapperImpl();
+
+    private Cliente cliente;
+    private ClienteDTO clienteDTO;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        cliente = Cliente.builder()
+                .id(1_234L)
+                .nombre("Cliente")
+                .apellido("Benchmark")
+                .dni("12345678")
+                .email("cliente@benchmark.com")
+                .build();
+        clienteDTO = clienteMapper.convertiADTO(cliente);
+    }
+
+    @Benchmark
+    public ClienteDTO convertirADTO() {
+        return clienteMapper.convertiADTO(cliente);
+    }
+
+    @Benchmark
+    public Cliente convertirAEntidad() {
+        return clienteMapper.convertirAEntidad(clienteDTO);
+    }
+}
@@ -0,0 +1,84 @@
+package com.paucar.customer_ms.benchmark;
+
+import com.paucar.customer_ms.controller.ClienteController;
+import com.paucar.customer_ms.dto.ClienteDTO;
+import com.paucar.customer_ms.exception.ClienteNoEncontradoException;
+import com.paucar.customer_ms.exception.ExcepcionesGlobales;
+import com.paucar.customer_ms.model.Cliente;
+import com.paucar.customer_ms.util.ApiResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.MethodParameter;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Construcción de las respuestas de error de ExcepcionesGlobales, incluido el contador de excepciones.
+// Las excepciones se crean una sola vez: se mide el manejador, no el llenado de la traza.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RespuestasErrorBenchmark {
+
+    private final ExcepcionesGlobales excepcionesGlobales = new ExcepcionesGlobales(new SimpleMeterRegistry());
+
+    private ClienteNoEncontradoException clienteNoEncontrado;
+    private DataIntegrityViolationException integridadDatos;
+    private MethodArgumentNotValidException argumentoInvalido;
+    private ConstraintViolationException violacionRestriccion;
+
+    @Setup(Level.Trial)
+    public void iniciar() throws NoSuchMethodException {
+        clienteNoEncontrado = new ClienteNoEncontradoException("Cliente no encontrado con el ID: 1");
+
+        integridadDatos = new DataIntegrityViolationException("could not execute statement",
+                new org.hibernate.exception.ConstraintViolationException("Duplicate entry",
+                        new SQLException("Duplicate entry 'cliente@benchmark.com' for key 'cliente.uk_cliente_email'"),
+                        Cliente.RESTRICCION_EMAIL_UNICO));
+
+        BeanPropertyBindingResult errores = new BeanPropertyBindingResult(new ClienteDTO(), "clienteDTO");
+        errores.addError(new FieldError("clienteDTO", "nombre", "El nombre es obligatorio"));
+        errores.addError(new FieldError("clienteDTO", "dni", "El DNI debe tener exactamente 8 caracteres"));
+        errores.addError(new FieldError("clienteDTO", "email", "El formato del correo electrónico no es válido"));
+        MethodParameter parametro = new MethodParameter(
+                ClienteController.class.getMethod("crearCliente", ClienteDTO.class), 0);
+        argumentoInvalido = new MethodArgumentNotValidException(parametro, errores);
+
+        try (ValidatorFactory fabrica = Validation.buildDefaultValidatorFactory()) {
+            Cliente clienteInvalido = Cliente.builder().nombre("").apellido("B").dni("123").email("correo").build();
+            violacionRestriccion = new ConstraintViolationException(fabrica.getValidator().validate(clienteInvalido));
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiResponse<Void>> clienteNoEncontrado() {
+        return excepcionesGlobales.manejarExcepcionClienteNoEncontrado(clienteNoEncontrado);
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiResponse<Void>> integridadDatos() {
+        return excepcionesGlobales.manejarExcepcionIntegridadDatos(integridadDatos);
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiResponse<Map<String, String>>> argumentoInvalido() {
+        return excepcionesGlobales.manejarExcepcionesValidacion(argumentoInvalido);
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiResponse<Map<String, String>>> violacionRestriccion() {
+        return excepcionesGlobales.manejarExcepcionViolacionRestriccion(violacionRestriccion);
+    }
+}
@@ -0,0 +1,72 @@
+package com.paucar.customer_ms.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paucar.customer_ms.dto.ClienteDTO;
+import com.paucar.customer_ms.mapper.ClienteMapper;
+import com.paucar.customer_ms.mapper.ClienteMapperImpl;
+import com.paucar.customer_ms.model.Cliente;
+import com.paucar.customer_ms.util.ApiResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Construcción y serialización de la respuesta de listado tal como la escribe el controlador.
+// El ObjectMapper se configura igual que el que usa Spring MVC por defecto.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacionRespuestaBenchmark {
+
+    @Param({"1000", "100000"})
+    private int cantidadClientes;
+
+    private final ClienteMapper clienteMapper = new ClienteMapperImpl();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private List<Cliente> clientes;
+    private ApiResponse<List<ClienteDTO>> respuesta;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        clientes = new ArrayList<>(cantidadClientes);
+        for (int i = 0; i < cantidadClientes; i++) {
+            clientes.add(Cliente.builder()
+                    .id((long) i + 1)
+                    .nombre("Cliente" + i)
+                    .apellido("Benchmark")
+                    .dni(String.format("%08d", i))
+                    .email("cliente" + i + "@benchmark.com")
+                    .build());
+        }
+        respuesta = construirRespuesta();
+    }
+
+    @Benchmark
+    public ApiResponse<List<ClienteDTO>> construirRespuesta() {
+        List<ClienteDTO> datos = clientes.stream().map(clienteMapper::convertiADTO).toList();
+        return ApiResponse.<List<ClienteDTO>>builder()
+                .estado(HttpStatus.OK.value())
+                .mensaje("Lista de clientes recuperada exitosamente")
+                .datos(datos)
+                .siguienteCursor(clientes.get(clientes.size() - 1).getId())
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serializarRespuesta() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(respuesta);
+    }
+
+    @Benchmark
+    public byte[] construirYSerializarRespuesta() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(construirRespuesta());
+    }
+}
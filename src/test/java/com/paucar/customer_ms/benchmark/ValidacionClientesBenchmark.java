@@ -0,0 +1,108 @@
+package com.paucar.customer_ms.benchmark;
+
+import com.paucar.customer_ms.CustomerMsApplication;
+import com.paucar.customer_ms.dto.ClienteDTO;
+import com.paucar.customer_ms.exception.EmailYaRegistradoException;
+import com.paucar.customer_ms.model.Cliente;
+import com.paucar.customer_ms.service.gestion.ClienteGestionService;
+import com.paucar.customer_ms.service.validacion.ClienteValidacionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// ClienteValidacionServiceImpl sobre la base de datos embebida del perfil "benchmark",
+// con y sin el índice en memoria de emails y DNI registrados.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidacionClientesBenchmark {
+
+    private static final int CLIENTES_REGISTRADOS = 10_000;
+    private static final int CLIENTES_POR_LOTE = 100;
+    private static final long PRIMER_DNI = 10_000_000L;
+
+    @Param({"true", "false"})
+    private boolean indiceHabilitado;
+
+    private final AtomicLong secuencia = new AtomicLong(PRIMER_DNI + CLIENTES_REGISTRADOS);
+
+    private ConfigurableApplicationContext contexto;
+    private ClienteValidacionService clienteValidacionService;
+    private Cliente clienteRegistrado;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(CustomerMsApplication.class)
+                .profiles("benchmark")
+                .properties("spring.main.web-application-type=none")
+                .run("--cliente.indice.habilitado=" + indiceHabilitado);
+        clienteValidacionService = contexto.getBean(ClienteValidacionService.class);
+
+        ClienteGestionService clienteGestionService = contexto.getBean(ClienteGestionService.class);
+        for (long inicio = PRIMER_DNI; inicio < PRIMER_DNI + CLIENTES_REGISTRADOS; inicio += 1_000) {
+            List<ClienteDTO> lote = new ArrayList<>(1_000);
+            for (long numero = inicio; numero < inicio + 1_000; numero++) {
+                lote.add(ClienteDTO.builder()
+                        .nombre("Cliente")
+                        .apellido("Registrado")
+                        .dni(Long.toString(numero))
+                        .email("cliente" + numero + "@benchmark.com")
+                        .build());
+            }
+            clienteGestionService.guardarClientesEnLote(lote);
+        }
+        clienteRegistrado = nuevoCliente(PRIMER_DNI + CLIENTES_REGISTRADOS / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Cliente validarClienteNuevo() {
+        Cliente cliente = nuevoCliente(secuencia.getAndIncrement());
+        clienteValidacionService.validarCliente(cliente, null);
+        return cliente;
+    }
+
+    @Benchmark
+    public Object validarClienteRegistrado() {
+        try {
+            clienteValidacionService.validarCliente(clienteRegistrado, null);
+            return clienteRegistrado;
+        } catch (EmailYaRegistradoException ex) {
+            return ex;
+        }
+    }
+
+    // Mitad de clientes nuevos y mitad ya registrados.
+    @Benchmark
+    @OperationsPerInvocation(CLIENTES_POR_LOTE)
+    public List<String> validarLote() {
+        List<Cliente> lote = new ArrayList<>(CLIENTES_POR_LOTE);
+        for (int i = 0; i < CLIENTES_POR_LOTE; i++) {
+            lote.add(i % 2 == 0
+                    ? nuevoCliente(secuencia.getAndIncrement())
+                    : nuevoCliente(PRIMER_DNI + (secuencia.get() + i) % CLIENTES_REGISTRADOS));
+        }
+        return clienteValidacionService.validarClientesEnLote(lote);
+    }
+
+    private Cliente nuevoCliente(long numero) {
+        return Cliente.builder()
+                .nombre("Cliente")
+                .apellido("Benchmark")
+                .dni(Long.toString(numero))
+                .email("cliente" + numero + "@benchmark.com")
+                .build();
+    }
+}
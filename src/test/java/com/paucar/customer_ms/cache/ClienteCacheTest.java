@@ -0,0 +1,240 @@
+package com.paucar.customer_ms.cache;
+
+import com.paucar.customer_ms.config.ClientePropiedades;
+import com.paucar.customer_ms.dto.ClienteDTO;
+import com.paucar.customer_ms.service.cache.CargasEnCurso;
+import com.paucar.customer_ms.service.cache.ClienteCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClienteCacheTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ClienteCacheTest.class);
+
+    private ClientePropiedades clientePropiedades;
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicInteger consultas;
+    private Function<Long, ClienteDTO> cargador;
+
+    @BeforeEach
+    void setUp() {
+        clientePropiedades = new ClientePropiedades();
+        meterRegistry = new SimpleMeterRegistry();
+        consultas = new AtomicInteger();
+        cargador = id -> {
+            consultas.incrementAndGet();
+            return ClienteDTO.builder().id(id).nombre("Juan").build();
+        };
+    }
+
+    @Test
+    void obtener_CuandoYaEstaEnCache_NoDeberiaVolverACargar() {
+        log.info("Iniciando prueba: obtener_CuandoYaEstaEnCache_NoDeberiaVolverACargar");
+
+        ClienteCache clienteCache = new ClienteCache(clientePropiedades, meterRegistry);
+
+        clienteCache.obtener(1L, cargador);
+        ClienteDTO resultado = clienteCache.obtener(1L, cargador);
+
+        log.info("Consultas realizadas: {}", consultas.get());
+        assertEquals(1, consultas.get());
+        assertEquals("Juan", resultado.getNombre());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", ClienteCache.NOMBRE).tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void obtener_DeberiaEntregarCopiasQueNoAlteranElValorCacheado() {
+        log.info("Iniciando prueba: obtener_DeberiaEntregarCopiasQueNoAlteranElValorCacheado");
+
+        ClienteCache clienteCache = new ClienteCache(clientePropiedades, meterRegistry);
+
+        clienteCache.obtener(1L, cargador).setNombre("Modificado");
+
+        assertEquals("Juan", clienteCache.obtener(1L, cargador).getNombre());
+    }
+
+    @Test
+    void invalidar_DeberiaForzarUnaNuevaCarga() {
+        log.info("Iniciando prueba: invalidar_DeberiaForzarUnaNuevaCarga");
+
+        ClienteCache clienteCache = new ClienteCache(clientePropiedades, meterRegistry);
+
+        clienteCache.obtener(1L, cargador);
+        clienteCache.invalidar(1L);
+        clienteCache.obtener(1L, cargador);
+
+        assertEquals(2, consultas.get());
+    }
+
+    @Test
+    void obtener_CuandoEstaDeshabilitada_DeberiaCargarSiempre() {
+        log.info("Iniciando prueba: obtener_CuandoEstaDeshabilitada_DeberiaCargarSiempre");
+
+        clientePropiedades.getCache().setHabilitado(false);
+        ClienteCache clienteCache = new ClienteCache(clientePropiedades, meterRegistry);
+
+        clienteCache.obtener(1L, cargador);
+        clienteCache.obtener(1L, cargador);
+
+        assertEquals(2, consultas.get());
+        assertNull(meterRegistry.find("cache.gets").meter());
+    }
+
+    @Test
+    void obtener_ConLecturasConcurrentesDelMismoId_DeberiaConsultarUnaSolaVez() throws Exception {
+        log.info("Iniciando prueba: obtener_ConLecturasConcurrentesDelMismoId_DeberiaConsultarUnaSolaVez");
+
+        assertEquals(1, leerConcurrentemente(new ClienteCache(clientePropiedades, meterRegistry), 8));
+        assertEquals(7.0, meterRegistry.get(CargasEnCurso.METRICA).tag("operacion", "por-id").counter().count());
+    }
+
+    @Test
+    void obtener_ConLecturasConcurrentesYCacheDeshabilitada_DeberiaConsultarUnaSolaVez() throws Exception {
+        log.info("Iniciando prueba: obtener_ConLecturasConcurrentesYCacheDeshabilitada_DeberiaConsultarUnaSolaVez");
+
+        clientePropiedades.getCache().setHabilitado(false);
+        ClienteCache clienteCache = new ClienteCache(clientePropiedades, meterRegistry);
+
+        assertEquals(1, leerConcurrentemente(clienteCache, 8));
+        assertEquals(7.0, meterRegistry.get(CargasEnCurso.METRICA).tag("operacion", "por-id").counter().count());
+
+        // Sin caché, una lectura posterior vuelve a consultar.
+        clienteCache.obtener(1L, cargador);
+        assertEquals(2, consultas.get());
+    }
+
+    @Test
+    void invalidar_DuranteUnaCarga_NoDeberiaEsperarlaNiGuardarSuResultado() throws Exception {
+        log.info("Iniciando prueba: invalidar_DuranteUnaCarga_NoDeberiaEsperarlaNiGuardarSuResultado");
+
+        ClienteCache clienteCache = new ClienteCache(clientePropiedades, meterRegistry);
+        CountDownLatch enConsulta = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService ejecutor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ClienteDTO> anterior = ejecutor.submit(() -> clienteCache.obtener(1L, id -> {
+                enConsulta.countDown();
+                try {
+                    liberar.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return ClienteDTO.builder().id(id).nombre("Anterior").build();
+            }));
+            assertTrue(enConsulta.await(10, TimeUnit.SECONDS));
+
+            assertTimeoutPreemptively(Duration.ofSeconds(2), () -> clienteCache.invalidar(1L));
+
+            liberar.countDown();
+            assertEquals("Anterior", anterior.get(10, TimeUnit.SECONDS).getNombre());
+            assertEquals("Juan", clienteCache.obtener(1L, cargador).getNombre());
+            assertEquals("Juan", clienteCache.obtener(1L, cargador).getNombre());
+            assertEquals(1, consultas.get());
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    void invalidar_ConCacheDeshabilitada_NoDeberiaUnirLecturasPosterioresALaConsultaEnCurso() throws Exception {
+        log.info("Iniciando prueba: invalidar_ConCacheDeshabilitada_NoDeberiaUnirLecturasPosterioresALaConsultaEnCurso");
+
+        clientePropiedades.getCache().setHabilitado(false);
+        ClienteCache clienteCache = new ClienteCache(clientePropiedades, meterRegistry);
+        CountDownLatch enConsulta = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService ejecutor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ClienteDTO> anterior = ejecutor.submit(() -> clienteCache.obtener(1L, id -> {
+                enConsulta.countDown();
+                try {
+                    liberar.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return ClienteDTO.builder().id(id).nombre("Anterior").build();
+            }));
+            assertTrue(enConsulta.await(10, TimeUnit.SECONDS));
+
+            clienteCache.invalidar(1L);
+
+            assertEquals("Juan", clienteCache.obtener(1L, cargador).getNombre());
+            assertEquals(1, consultas.get());
+            liberar.countDown();
+            assertEquals("Anterior", anterior.get(10, TimeUnit.SECONDS).getNombre());
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    // El primer hilo queda dentro de la consulta hasta que todos los demás están esperando.
+    private int leerConcurrentemente(ClienteCache clienteCache, int hilos) throws Exception {
+        CountDownLatch enConsulta = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Function<Long, ClienteDTO> cargadorLento = id -> {
+            enConsulta.countDown();
+            try {
+                liberar.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return cargador.apply(id);
+        };
+
+        List<Thread> lectores = new CopyOnWriteArrayList<>();
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos, tarea -> {
+            Thread lector = new Thread(tarea);
+            lectores.add(lector);
+            return lector;
+        });
+        try {
+            List<Future<ClienteDTO>> resultados = new ArrayList<>();
+            resultados.add(ejecutor.submit(() -> clienteCache.obtener(1L, cargadorLento)));
+            assertTrue(enConsulta.await(10, TimeUnit.SECONDS));
+            for (int i = 1; i < hilos; i++) {
+                resultados.add(ejecutor.submit(() -> clienteCache.obtener(1L, cargadorLento)));
+            }
+            esperarBloqueados(lectores, hilos);
+            liberar.countDown();
+            for (Future<ClienteDTO> resultado : resultados) {
+                assertEquals("Juan", resultado.get(10, TimeUnit.SECONDS).getNombre());
+            }
+            return consultas.get();
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    private void esperarBloqueados(List<Thread> lectores, int hilos) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < limite) {
+            long bloqueados = lectores.stream()
+                    .filter(lector -> lector.getState() == Thread.State.WAITING
+                            || lector.getState() == Thread.State.TIMED_WAITING
+                            || lector.getState() == Thread.State.BLOCKED)
+                    .count();
+            if (bloqueados == hilos) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("Los hilos no llegaron a esperar la consulta en curso.");
+    }
+}
@@ -0,0 +1,209 @@
+package com.paucar.customer_ms.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paucar.customer_ms.config.ClientePropiedades;
+import com.paucar.customer_ms.dto.ClienteDTO;
+import com.paucar.customer_ms.service.cache.ListadoClientesCache;
+import com.paucar.customer_ms.util.ApiResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListadoClientesCacheTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ListadoClientesCacheTest.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ClientePropiedades clientePropiedades;
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicInteger consultas;
+    private Supplier<ApiResponse<List<ClienteDTO>>> generador;
+
+    @BeforeEach
+    void setUp() {
+        clientePropiedades = new ClientePropiedades();
+        meterRegistry = new SimpleMeterRegistry();
+        consultas = new AtomicInteger();
+        generador = () -> {
+            consultas.incrementAndGet();
+            return ApiResponse.<List<ClienteDTO>>builder()
+                    .estado(200)
+                    .mensaje("Lista de clientes recuperada exitosamente")
+                    .datos(List.of(ClienteDTO.builder().id(2L).nombre("Juan").version(1L).build()))
+                    .siguienteCursor(2L)
+                    .build();
+        };
+    }
+
+    @Test
+    void obtener_CuandoYaEstaEnCache_DeberiaReutilizarLosBytesYContarlos() {
+        log.info("Iniciando prueba: obtener_CuandoYaEstaEnCache_DeberiaReutilizarLosBytesYContarlos");
+
+        ListadoClientesCache cache = new ListadoClientesCache(clientePropiedades, objectMapper, meterRegistry);
+
+        ListadoClientesCache.RespuestaSerializada primera = cache.obtener(1, null, generador);
+        ListadoClientesCache.RespuestaSerializada segunda = cache.obtener(1, null, generador);
+
+        log.info("Consultas realizadas: {}, bytes: {}", consultas.get(), primera.json().length);
+        assertEquals(1, consultas.get());
+        assertSame(primera, segunda);
+        assertEquals(primera.json().length,
+                meterRegistry.get("cliente.listado.cache.bytes.ahorrados").counter().count());
+        assertEquals(0.5, meterRegistry.get("cliente.listado.cache.tasa.aciertos").gauge().value());
+    }
+
+    @Test
+    void obtener_DeberiaGuardarElMismoJsonEnAmbasVariantes() throws IOException {
+        log.info("Iniciando prueba: obtener_DeberiaGuardarElMismoJsonEnAmbasVariantes");
+
+        ListadoClientesCache cache = new ListadoClientesCache(clientePropiedades, objectMapper, meterRegistry);
+
+        ListadoClientesCache.RespuestaSerializada respuesta = cache.obtener(1, null, generador);
+        byte[] descomprimido;
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(respuesta.gzip()))) {
+            descomprimido = gzip.readAllBytes();
+        }
+        JsonNode json = objectMapper.readTree(respuesta.json());
+
+        assertArrayEquals(respuesta.json(), descomprimido);
+        assertEquals("Juan", json.get("datos").get(0).get("nombre").asText());
+        assertEquals(2L, json.get("siguienteCursor").asLong());
+        assertNotEquals(respuesta.etiqueta(), respuesta.etiquetaGzip());
+        assertTrue(respuesta.etiquetaGzip().startsWith("\"p") && respuesta.etiquetaGzip().endsWith("-gzip\""));
+    }
+
+    @Test
+    void invalidar_DeberiaForzarUnaNuevaSerializacion() {
+        log.info("Iniciando prueba: invalidar_DeberiaForzarUnaNuevaSerializacion");
+
+        ListadoClientesCache cache = new ListadoClientesCache(clientePropiedades, objectMapper, meterRegistry);
+
+        cache.obtener(1, null, generador);
+        cache.invalidar();
+        cache.obtener(1, null, generador);
+        cache.obtener(1, 10L, generador);
+
+        assertEquals(3, consultas.get());
+    }
+
+    @Test
+    void invalidar_DentroDeUnaTransaccion_DeberiaDescartarLoCacheadoAntesDelCommit() {
+        log.info("Iniciando prueba: invalidar_DentroDeUnaTransaccion_DeberiaDescartarLoCacheadoAntesDelCommit");
+
+        ListadoClientesCache cache = new ListadoClientesCache(clientePropiedades, objectMapper, meterRegistry);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidar();
+            // Una lectura concurrente antes del commit guarda la página anterior con la generación nueva.
+            cache.obtener(1, null, generador);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sincronizacion -> sincronizacion.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        cache.obtener(1, null, generador);
+
+        assertEquals(2, consultas.get());
+    }
+
+    @Test
+    void obtener_CuandoEstaDeshabilitada_DeberiaSerializarSiempre() {
+        log.info("Iniciando prueba: obtener_CuandoEstaDeshabilitada_DeberiaSerializarSiempre");
+
+        clientePropiedades.getCacheListado().setHabilitado(false);
+        ListadoClientesCache cache = new ListadoClientesCache(clientePropiedades, objectMapper, meterRegistry);
+
+        cache.obtener(1, null, generador);
+        cache.obtener(1, null, generador);
+
+        assertEquals(2, consultas.get());
+        assertNull(meterRegistry.find("cache.gets").meter());
+    }
+
+    @Test
+    void invalidar_DuranteUnaCarga_NoDeberiaEsperarlaNiGuardarSuResultado() throws Exception {
+        log.info("Iniciando prueba: invalidar_DuranteUnaCarga_NoDeberiaEsperarlaNiGuardarSuResultado");
+
+        ListadoClientesCache cache = new ListadoClientesCache(clientePropiedades, objectMapper, meterRegistry);
+        CountDownLatch enConsulta = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService ejecutor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ListadoClientesCache.RespuestaSerializada> anterior = ejecutor.submit(() -> cache.obtener(1, null, () -> {
+                enConsulta.countDown();
+                try {
+                    liberar.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return generador.get();
+            }));
+            assertTrue(enConsulta.await(10, TimeUnit.SECONDS));
+
+            assertTimeoutPreemptively(Duration.ofSeconds(2), cache::invalidar);
+
+            liberar.countDown();
+            anterior.get(10, TimeUnit.SECONDS);
+            cache.obtener(1, null, generador);
+            cache.obtener(1, null, generador);
+            assertEquals(2, consultas.get());
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    void invalidar_ConCacheDeshabilitada_NoDeberiaUnirLecturasPosterioresALaConsultaEnCurso() throws Exception {
+        log.info("Iniciando prueba: invalidar_ConCacheDeshabilitada_NoDeberiaUnirLecturasPosterioresALaConsultaEnCurso");
+
+        clientePropiedades.getCacheListado().setHabilitado(false);
+        ListadoClientesCache cache = new ListadoClientesCache(clientePropiedades, objectMapper, meterRegistry);
+        CountDownLatch enConsulta = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService ejecutor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ListadoClientesCache.RespuestaSerializada> anterior = ejecutor.submit(() -> cache.obtener(1, null, () -> {
+                enConsulta.countDown();
+                try {
+                    liberar.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return generador.get();
+            }));
+            assertTrue(enConsulta.await(10, TimeUnit.SECONDS));
+
+            cache.invalidar();
+
+            cache.obtener(1, null, generador);
+            assertEquals(1, consultas.get());
+            liberar.countDown();
+            anterior.get(10, TimeUnit.SECONDS);
+            assertEquals(2, consultas.get());
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.paucar.customer_ms.carga;
+
+import com.paucar.customer_ms.CustomerMsApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Compara throughput y latencias del servicio con hilos de plataforma y con hilos virtuales.
+ *
+ * <p>Arranca la aplicación en proceso con el perfil "perf" (H2 y ACCOUNT-MS simulado con latencia fija
+ * y todas las cuentas activas), y la somete a N clientes concurrentes que alternan
+ * GET /cliente/{id} y POST /cliente/lote/eliminacion. La eliminación consulta la base de datos y
+ * llama a ACCOUNT-MS, que responde con cuentas activas, así que no borra nada y puede repetirse.
+ * El pool de Hikari es el mismo en ambos modos.
+ *
+ * <p>Argumentos: clientes concurrentes, duración en segundos y latencia de ACCOUNT-MS en ms.
+ * El modo virtual solo se ejecuta en Java 21 o superior.
+ */
+public class ComparacionHilosVirtuales {
+
+    private static final int CLIENTES_SEMBRADOS = 200;
+    private static final Duration CALENTAMIENTO = Duration.ofSeconds(10);
+
+    public static void main(String[] args) throws Exception {
+        int clientes = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        Duration duracion = Duration.ofSeconds(args.length > 1 ? Long.parseLong(args[1]) : 30);
+        int latenciaCuentasMs = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+        // devtools relanzaría main sin los argumentos en otro classloader.
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        // El servidor del JDK cierra las conexiones inactivas por encima de 200 y el pool de Feign las reutilizaría.
+        System.setProperty("sun.net.httpserver.maxIdleConnections", String.valueOf(clientes));
+
+        List<Resultado> resultados = new ArrayList<>();
+        resultados.add(ejecutar(false, clientes, duracion, latenciaCuentasMs));
+        if (Runtime.version().feature() >= 21) {
+            resultados.add(ejecutar(true, clientes, duracion, latenciaCuentasMs));
+        } else {
+            System.out.println("Java " + Runtime.version().feature()
+                    + ": se omite el modo virtual (requiere Java 21, mvn -Pvirtual-threads).");
+        }
+
+        System.out.printf("%nClientes concurrentes: %d, duración: %ds, latencia ACCOUNT-MS: %d ms%n",
+                clientes, duracion.toSeconds(), latenciaCuentasMs);
+        System.out.printf("%-10s %12s %10s %10s %10s %10s %8s%n",
+                "modo", "peticiones/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "errores");
+        resultados.forEach(resultado -> System.out.printf("%-10s %12.1f %10.1f %10.1f %10.1f %10.1f %8d%n",
+                resultado.modo(), resultado.throughput(), resultado.percentil(0.50), resultado.percentil(0.99),
+                resultado.percentil(0.999), resultado.percentil(1.0), resultado.errores()));
+        resultados.stream()
+                .filter(resultado -> !resultado.motivosError().isEmpty())
+                .forEach(resultado -> System.out.printf("errores %s: %s%n", resultado.modo(), resultado.motivosError()));
+    }
+
+    private static Resultado ejecutar(boolean virtual, int clientes, Duration duracion, int latenciaCuentasMs)
+            throws Exception {
+        String modo = virtual ? "virtual" : "plataforma";
+        // Como argumentos de línea de comandos para que prevalezcan sobre application.yml.
+        String[] argumentos = Map.ofEntries(
+                        Map.entry("server.port", "0"),
+                        Map.entry("spring.threads.virtual.enabled", String.valueOf(virtual)),
+                        Map.entry("spring.datasource.hikari.maximum-pool-size", "20"),
+                        Map.entry("spring.datasource.hikari.connection-timeout", "3000"),
+                        // Con todas las cuentas activas la eliminación nunca borra y puede repetirse.
+                        Map.entry("perf.servicio-cuentas.latencia", latenciaCuentasMs + "ms"),
+                        Map.entry("perf.servicio-cuentas.proporcion-activas", "1"),
+                        // El circuito, el bulkhead y el pool HTTP no deben ser lo que se mide aquí.
+                        Map.entry("spring.cloud.openfeign.circuitbreaker.enabled", "false"),
+                        Map.entry("spring.cloud.openfeign.client.config.ACCOUNT-MS.connect-timeout", "30000"),
+                        Map.entry("spring.cloud.openfeign.client.config.ACCOUNT-MS.read-timeout", "30000"),
+                        Map.entry("spring.cloud.openfeign.httpclient.max-connections", String.valueOf(clientes)),
+                        Map.entry("spring.cloud.openfeign.httpclient.max-connections-per-route", String.valueOf(clientes)))
+                .entrySet().stream()
+                .map(propiedad -> "--" + propiedad.getKey() + "=" + propiedad.getValue())
+                .toArray(String[]::new);
+
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(CustomerMsApplication.class)
+                .profiles("perf")
+                .run(argumentos)) {
+            String base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            List<Long> ids = sembrarClientes(http, base);
+
+            System.out.printf("[%s] calentamiento de %ds...%n", modo, CALENTAMIENTO.toSeconds());
+            medir(modo, http, base, ids, clientes, CALENTAMIENTO);
+            System.out.printf("[%s] midiendo %ds con %d clientes...%n", modo, duracion.toSeconds(), clientes);
+            return medir(modo, http, base, ids, clientes, duracion);
+        }
+    }
+
+    private static Resultado medir(String modo, HttpClient http, String base, List<Long> ids,
+                                   int clientes, Duration duracion) throws InterruptedException {
+        AtomicBoolean detener = new AtomicBoolean();
+        CountDownLatch terminados = new CountDownLatch(clientes);
+        List<Latencias> latencias = new ArrayList<>(clientes);
+        Map<String, LongAdder> errores = new ConcurrentHashMap<>();
+
+        ExecutorService ejecutor = Executors.newFixedThreadPool(clientes);
+        long inicio = System.nanoTime();
+        for (int c = 0; c < clientes; c++) {
+            Latencias propias = new Latencias();
+            latencias.add(propias);
+            ejecutor.execute(() -> {
+                int cantidad = 0;
+                try {
+                    while (!detener.get()) {
+                        long id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+                        HttpRequest solicitud = cantidad % 2 == 0
+                                ? HttpRequest.newBuilder(URI.create(base + "/cliente/" + id)).GET().build()
+                                : HttpRequest.newBuilder(URI.create(base + "/cliente/lote/eliminacion"))
+                                        .header("Content-Type", "application/json")
+                                        .POST(HttpRequest.BodyPublishers.ofString("[" + id + "]"))
+                                        .build();
+                        long t0 = System.nanoTime();
+                        try {
+                            HttpResponse<Void> respuesta = http.send(solicitud, HttpResponse.BodyHandlers.discarding());
+                            if (respuesta.statusCode() != 200) {
+                                errores.computeIfAbsent("HTTP " + respuesta.statusCode(), k -> new LongAdder()).increment();
+                            }
+                        } catch (IOException e) {
+                            errores.computeIfAbsent(e.getClass().getSimpleName(), k -> new LongAdder()).increment();
+                        }
+                        propias.registrar(System.nanoTime() - t0);
+                        cantidad++;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    terminados.countDown();
+                }
+            });
+        }
+
+        Thread.sleep(duracion.toMillis());
+        detener.set(true);
+        terminados.await(1, TimeUnit.MINUTES);
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        ejecutor.shutdownNow();
+
+        long[] todas = Latencias.ordenar(latencias);
+        Map<String, Long> motivos = new TreeMap<>();
+        errores.forEach((motivo, cantidad) -> motivos.put(motivo, cantidad.sum()));
+        long totalErrores = motivos.values().stream().mapToLong(Long::longValue).sum();
+        return new Resultado(modo, (todas.length - totalErrores) / segundos, todas, totalErrores, motivos);
+    }
+
+    private static List<Long> sembrarClientes(HttpClient http, String base) throws IOException, InterruptedException {
+        String lote = IntStream.range(0, CLIENTES_SEMBRADOS)
+                .mapToObj(i -> String.format("{\"nombre\":\"Cliente\",\"apellido\":\"Carga\",\"dni\":\"%08d\","
+                        + "\"email\":\"carga%d@correo.com\"}", 40_000_000 + i, i))
+                .collect(Collectors.joining(",", "[", "]"));
+        HttpResponse<String> respuesta = http.send(HttpRequest.newBuilder(URI.create(base + "/cliente/lote"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(lote))
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        List<Long> ids = new ArrayList<>();
+        Matcher coincidencia = Pattern.compile("\"id\":(\\d+)").matcher(respuesta.body());
+        while (coincidencia.find()) {
+            ids.add(Long.parseLong(coincidencia.group(1)));
+        }
+        List<Long> unicos = ids.stream().distinct().toList();
+        if (unicos.isEmpty()) {
+            throw new IllegalStateException("No se pudieron sembrar clientes: " + respuesta.body());
+        }
+        return unicos;
+    }
+
+    private record Resultado(String modo, double throughput, long[] latencias, long errores,
+                             Map<String, Long> motivosError) {
+
+        double percentil(double p) {
+            return Latencias.percentil(latencias, p);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.paucar.customer_ms.carga;
+
+import com.paucar.customer_ms.CustomerMsApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Prueba de carga de extremo a extremo sin dependencias externas.
+ *
+ * <p>Arranca la aplicación en proceso con el perfil "perf" (H2, sin Eureka y ACCOUNT-MS simulado) y la
+ * somete a N clientes concurrentes que mezclan alta, consulta, listado, actualización y eliminación
+ * según los pesos de {@link Operacion}. Las consultas y listados usan clientes sembrados al inicio;
+ * la actualización y la eliminación usan los clientes que cada hilo creó. Una eliminación rechazada
+ * porque el cliente tiene cuentas activas es una respuesta esperada y se cuenta aparte.
+ *
+ * <p>Argumentos: clientes concurrentes, duración en segundos, latencia de ACCOUNT-MS en ms y fracción
+ * de clientes con cuentas activas. Otros perfiles (por ejemplo "virtual") se añaden con
+ * -Dspring.profiles.active.
+ */
+public class GeneradorCargaCrud {
+
+    private static final int CLIENTES_SEMBRADOS = 500;
+    private static final int LIMITE_LISTADO = 50;
+    private static final Duration CALENTAMIENTO = Duration.ofSeconds(10);
+    private static final Pattern ID_EN_JSON = Pattern.compile("\"id\":(\\d+)");
+
+    enum Operacion {
+        CREAR(20), OBTENER(40), LISTAR(15), ACTUALIZAR(15), ELIMINAR(10);
+
+        private final int peso;
+
+        Operacion(int peso) {
+            this.peso = peso;
+        }
+
+        static Operacion elegir(int valor) {
+            for (Operacion operacion : values()) {
+                if (valor < operacion.peso) {
+                    return operacion;
+                }
+                valor -= operacion.peso;
+            }
+            return OBTENER;
+        }
+    }
+
+    private final AtomicLong secuenciaDni = new AtomicLong(50_000_000L);
+
+    public static void main(String[] args) throws Exception {
+        int clientes = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        Duration duracion = Duration.ofSeconds(args.length > 1 ? Long.parseLong(args[1]) : 60);
+        int latenciaCuentasMs = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        double proporcionActivas = args.length > 3 ? Double.parseDouble(args[3]) : 0.3;
+        // devtools relanzaría main sin los argumentos en otro classloader.
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        // El servidor del JDK cierra las conexiones inactivas por encima de 200 y el pool de Feign las reutilizaría.
+        System.setProperty("sun.net.httpserver.maxIdleConnections", String.valueOf(Math.max(200, clientes)));
+
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(CustomerMsApplication.class)
+                .profiles("perf")
+                .run("--server.port=0",
+                        "--perf.servicio-cuentas.latencia=" + latenciaCuentasMs + "ms",
+                        "--perf.servicio-cuentas.proporcion-activas=" + proporcionActivas,
+                        "--spring.cloud.openfeign.httpclient.max-connections-per-route=" + Math.max(50, clientes))) {
+            String base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+            GeneradorCargaCrud generador = new GeneradorCargaCrud();
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            List<Long> sembrados = generador.sembrarClientes(http, base);
+
+            System.out.printf("Calentamiento de %ds...%n", CALENTAMIENTO.toSeconds());
+            generador.medir(http, base, sembrados, clientes, CALENTAMIENTO);
+            System.out.printf("Midiendo %ds con %d clientes...%n", duracion.toSeconds(), clientes);
+            Resultado resultado = generador.medir(http, base, sembrados, clientes, duracion);
+
+            System.out.printf("%nClientes concurrentes: %d, duración: %ds, latencia ACCOUNT-MS: %d ms, cuentas activas: %.0f%%,"
+                            + " perfiles: %s%n", clientes, duracion.toSeconds(), latenciaCuentasMs, proporcionActivas * 100,
+                    String.join(",", contexto.getEnvironment().getActiveProfiles()));
+            resultado.imprimir();
+        }
+    }
+
+    private Resultado medir(HttpClient http, String base, List<Long> sembrados, int clientes, Duration duracion)
+            throws InterruptedException {
+        AtomicBoolean detener = new AtomicBoolean();
+        CountDownLatch terminados = new CountDownLatch(clientes);
+        List<Map<Operacion, Latencias>> latenciasPorHilo = new ArrayList<>(clientes);
+        Map<String, LongAdder> errores = new ConcurrentHashMap<>();
+        LongAdder eliminacionesRechazadas = new LongAdder();
+
+        ExecutorService ejecutor = Executors.newFixedThreadPool(clientes);
+        long inicio = System.nanoTime();
+        for (int c = 0; c < clientes; c++) {
+            Map<Operacion, Latencias> latencias = new EnumMap<>(Operacion.class);
+            for (Operacion operacion : Operacion.values()) {
+                latencias.put(operacion, new Latencias());
+            }
+            latenciasPorHilo.add(latencias);
+            ejecutor.execute(() -> {
+                List<Long> propios = new ArrayList<>();
+                ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                try {
+                    while (!detener.get()) {
+                        Operacion operacion = Operacion.elegir(aleatorio.nextInt(100));
+                        if (propios.isEmpty() && (operacion == Operacion.ACTUALIZAR || operacion == Operacion.ELIMINAR)) {
+                            operacion = Operacion.CREAR;
+                        }
+                        Long id = switch (operacion) {
+                            case OBTENER -> sembrados.get(aleatorio.nextInt(sembrados.size()));
+                            case ACTUALIZAR -> propios.get(aleatorio.nextInt(propios.size()));
+                            case ELIMINAR -> propios.remove(aleatorio.nextInt(propios.size()));
+                            default -> null;
+                        };
+                        HttpRequest solicitud = construirSolicitud(operacion, base, id, sembrados, aleatorio);
+
+                        long t0 = System.nanoTime();
+                        try {
+                            HttpResponse<String> respuesta = http.send(solicitud, HttpResponse.BodyHandlers.ofString());
+                            latencias.get(operacion).registrar(System.nanoTime() - t0);
+                            int estado = respuesta.statusCode();
+                            if (operacion == Operacion.CREAR && estado == 201) {
+                                Matcher coincidencia = ID_EN_JSON.matcher(respuesta.body());
+                                if (coincidencia.find()) {
+                                    propios.add(Long.parseLong(coincidencia.group(1)));
+                                }
+                            } else if (operacion == Operacion.ELIMINAR && estado == 400) {
+                                eliminacionesRechazadas.increment();
+                            } else if (estado >= 300) {
+                                errores.computeIfAbsent(operacion + " HTTP " + estado, k -> new LongAdder()).increment();
+                            }
+                        } catch (IOException e) {
+                            latencias.get(operacion).registrar(System.nanoTime() - t0);
+                            errores.computeIfAbsent(operacion + " " + e.getClass().getSimpleName(), k -> new LongAdder())
+                                    .increment();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    terminados.countDown();
+                }
+            });
+        }
+
+        Thread.sleep(duracion.toMillis());
+        detener.set(true);
+        terminados.await(1, TimeUnit.MINUTES);
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        ejecutor.shutdownNow();
+
+        Map<Operacion, long[]> porOperacion = new EnumMap<>(Operacion.class);
+        for (Operacion operacion : Operacion.values()) {
+            porOperacion.put(operacion, Latencias.ordenar(latenciasPorHilo.stream().map(l -> l.get(operacion)).toList()));
+        }
+        Map<String, Long> motivos = new TreeMap<>();
+        errores.forEach((motivo, cantidad) -> motivos.put(motivo, cantidad.sum()));
+        return new Resultado(segundos, porOperacion,
+                Latencias.ordenar(latenciasPorHilo.stream().flatMap(l -> l.values().stream()).toList()),
+                eliminacionesRechazadas.sum(), motivos);
+    }
+
+    private HttpRequest construirSolicitud(Operacion operacion, String base, Long id, List<Long> sembrados,
+                                           ThreadLocalRandom aleatorio) {
+        return switch (operacion) {
+            case CREAR -> HttpRequest.newBuilder(URI.create(base + "/cliente"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(nuevoCliente("Carga")))
+                    .build();
+            case OBTENER -> HttpRequest.newBuilder(URI.create(base + "/cliente/" + id)).GET().build();
+            case LISTAR -> {
+                long despuesDe = sembrados.get(aleatorio.nextInt(sembrados.size()));
+                yield HttpRequest.newBuilder(URI.create(base + "/cliente?limit=" + LIMITE_LISTADO + "&after=" + despuesDe))
+                        .GET().build();
+            }
+            case ACTUALIZAR -> HttpRequest.newBuilder(URI.create(base + "/cliente/" + id))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(nuevoCliente("Actualizado")))
+                    .build();
+            case ELIMINAR -> HttpRequest.newBuilder(URI.create(base + "/cliente/" + id)).DELETE().build();
+        };
+    }
+
+    // Cada alta y cada actualización usan un DNI y un email nuevos para no chocar con las restricciones únicas.
+    private String nuevoCliente(String apellido) {
+        long dni = secuenciaDni.getAndIncrement();
+        return String.format("{\"nombre\":\"Cliente\",\"apellido\":\"%s\",\"dni\":\"%08d\",\"email\":\"carga%d@correo.com\"}",
+                apellido, dni, dni);
+    }
+
+    private List<Long> sembrarClientes(HttpClient http, String base) throws IOException, InterruptedException {
+        String lote = IntStream.range(0, CLIENTES_SEMBRADOS)
+                .mapToObj(i -> nuevoCliente("Sembrado"))
+                .collect(Collectors.joining(",", "[", "]"));
+        HttpResponse<String> respuesta = http.send(HttpRequest.newBuilder(URI.create(base + "/cliente/lote"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(lote))
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        List<Long> ids = new ArrayList<>();
+        Matcher coincidencia = ID_EN_JSON.matcher(respuesta.body());
+        while (coincidencia.find()) {
+            ids.add(Long.parseLong(coincidencia.group(1)));
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No se pudieron sembrar clientes: " + respuesta.body());
+        }
+        return ids;
+    }
+
+    private record Resultado(double segundos, Map<Operacion, long[]> porOperacion, long[] todas,
+                             long eliminacionesRechazadas, Map<String, Long> motivosError) {
+
+        void imprimir() {
+            System.out.printf("%-12s %10s %12s %9s %9s %9s %9s %9s%n",
+                    "operación", "peticiones", "peticiones/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+            porOperacion.forEach((operacion, latencias) -> imprimirFila(operacion.name(), latencias));
+            imprimirFila("TOTAL", todas);
+            System.out.printf("Eliminaciones rechazadas por cuentas activas: %d%n", eliminacionesRechazadas);
+            long errores = motivosError.values().stream().mapToLong(Long::longValue).sum();
+            System.out.printf("Errores: %d %s%n", errores, motivosError.isEmpty() ? "" : motivosError);
+        }
+
+        private void imprimirFila(String nombre, long[] latencias) {
+            System.out.printf("%-12s %10d %12.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n", nombre, latencias.length,
+                    latencias.length / segundos, Latencias.percentil(latencias, 0.50), Latencias.percentil(latencias, 0.90),
+                    Latencias.percentil(latencias, 0.99), Latencias.percentil(latencias, 0.999),
+                    Latencias.percentil(latencias, 1.0));
+        }
+    }
+}
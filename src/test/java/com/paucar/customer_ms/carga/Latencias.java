@@ -0,0 +1,41 @@
+package com.paucar.customer_ms.carga;
+
+import java.util.Arrays;
+
+// Latencias en nanosegundos registradas por un hilo, sin sincronización: cada hilo tiene la suya y se unen al final.
+final class Latencias {
+
+    private long[] valores = new long[1024];
+    private int cantidad;
+
+    void registrar(long nanos) {
+        if (cantidad == valores.length) {
+            valores = Arrays.copyOf(valores, cantidad * 2);
+        }
+        valores[cantidad++] = nanos;
+    }
+
+    long[] valores() {
+        return Arrays.copyOf(valores, cantidad);
+    }
+
+    static long[] ordenar(Iterable<Latencias> registros) {
+        long[] todas = new long[0];
+        for (Latencias registro : registros) {
+            int inicio = todas.length;
+            todas = Arrays.copyOf(todas, inicio + registro.cantidad);
+            System.arraycopy(registro.valores, 0, todas, inicio, registro.cantidad);
+        }
+        Arrays.sort(todas);
+        return todas;
+    }
+
+    // Percentil p (0..1) en milisegundos sobre latencias ordenadas.
+    static double percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1);
+        return ordenadas[Math.max(0, indice)] / 1e6;
+    }
+}
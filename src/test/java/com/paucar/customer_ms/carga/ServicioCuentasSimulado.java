@@ -0,0 +1,137 @@
+package com.paucar.customer_ms.carga;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ACCOUNT-MS simulado para el perfil "perf": un servidor HTTP en proceso que atiende las rutas
+ * de CuentaFeign con una latencia fija, y una fracción opcional de respuestas mucho más lentas. Cada cliente tiene una cuenta cuyo estado (ACTIVO o INACTIVO)
+ * se deriva de su id, así que la respuesta para un mismo cliente no cambia entre llamadas.
+ */
+@Slf4j
+@Component
+@Profile("perf")
+public class ServicioCuentasSimulado {
+
+    private static final Pattern ID_EN_JSON = Pattern.compile("\\d+");
+    private static final String SUFIJO_ACTIVAS = "/activas/existe";
+
+    private final int puerto;
+    private final Duration latencia;
+    private final double proporcionActivas;
+    private final double proporcionLentas;
+    private final Duration latenciaLenta;
+
+    private HttpServer servidor;
+    private ExecutorService ejecutor;
+
+    public ServicioCuentasSimulado(@Value("${perf.servicio-cuentas.puerto}") int puerto,
+                                   @Value("${perf.servicio-cuentas.latencia}") Duration latencia,
+                                   @Value("${perf.servicio-cuentas.proporcion-activas}") double proporcionActivas,
+                                   @Value("${perf.servicio-cuentas.proporcion-lentas:0}") double proporcionLentas,
+                                   @Value("${perf.servicio-cuentas.latencia-lenta:500ms}") Duration latenciaLenta) {
+        this.puerto = puerto;
+        this.latencia = latencia;
+        this.proporcionActivas = proporcionActivas;
+        this.proporcionLentas = proporcionLentas;
+        this.latenciaLenta = latenciaLenta;
+    }
+
+    @PostConstruct
+    public void iniciar() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("localhost", puerto), 4096);
+        ejecutor = Executors.newCachedThreadPool();
+        servidor.setExecutor(ejecutor);
+        servidor.createContext("/cuentas/cliente/", intercambio -> {
+            String ruta = intercambio.getRequestURI().getPath();
+            if (ruta.endsWith(SUFIJO_ACTIVAS)) {
+                ruta = ruta.substring(0, ruta.length() - SUFIJO_ACTIVAS.length());
+                responderExistencia(intercambio, ruta.substring(ruta.lastIndexOf('/') + 1));
+                return;
+            }
+            responder(intercambio, List.of(ruta.substring(ruta.lastIndexOf('/') + 1)));
+        });
+        servidor.createContext("/cuentas/clientes", intercambio -> {
+            String cuerpo;
+            try (InputStream entrada = intercambio.getRequestBody()) {
+                cuerpo = new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            List<String> ids = new ArrayList<>();
+            Matcher coincidencia = ID_EN_JSON.matcher(cuerpo);
+            while (coincidencia.find()) {
+                ids.add(coincidencia.group());
+            }
+            responder(intercambio, ids);
+        });
+        servidor.start();
+        log.info("ACCOUNT-MS simulado en el puerto {} con latencia de {} ms y {}% de cuentas activas",
+                puerto, latencia.toMillis(), Math.round(proporcionActivas * 100));
+    }
+
+    @PreDestroy
+    public void detener() {
+        servidor.stop(0);
+        ejecutor.shutdownNow();
+    }
+
+    // Misma regla que usa el generador de carga para saber qué eliminaciones se rechazarán.
+    static boolean tieneCuentaActiva(long clienteId, double proporcionActivas) {
+        return Math.floorMod(Long.hashCode(clienteId * 0x9E3779B97F4A7C15L), 1000) < proporcionActivas * 1000;
+    }
+
+    private void responderExistencia(HttpExchange intercambio, String id) throws IOException {
+        esperarLatencia();
+        boolean activas = tieneCuentaActiva(Long.parseLong(id), proporcionActivas);
+        escribir(intercambio, "{\"estado\":200,\"mensaje\":\"Consulta de cuentas activas\",\"datos\":" + activas + "}");
+    }
+
+    private void responder(HttpExchange intercambio, List<String> ids) throws IOException {
+        esperarLatencia();
+        List<String> cuentas = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            String estado = tieneCuentaActiva(Long.parseLong(id), proporcionActivas) ? "ACTIVO" : "INACTIVO";
+            cuentas.add("{\"id\":" + id + ",\"numeroCuenta\":\"" + id + "\",\"saldo\":100.0,\"clienteId\":" + id
+                    + ",\"tipoCuenta\":\"AHORROS\",\"estado\":\"" + estado + "\"}");
+        }
+        escribir(intercambio, "{\"estado\":200,\"mensaje\":\"Cuentas encontradas\",\"datos\":["
+                + String.join(",", cuentas) + "]}");
+    }
+
+    private void esperarLatencia() {
+        boolean lenta = ThreadLocalRandom.current().nextDouble() < proporcionLentas;
+        try {
+            Thread.sleep(lenta ? latenciaLenta.toMillis() : latencia.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void escribir(HttpExchange intercambio, String json) throws IOException {
+        byte[] respuesta = json.getBytes(StandardCharsets.UTF_8);
+        intercambio.getResponseHeaders().add("Content-Type", "application/json");
+        intercambio.sendResponseHeaders(200, respuesta.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(respuesta);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.paucar.customer_ms.client;
+
+import com.paucar.customer_ms.config.ServicioCuentasPropiedades;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceadorServicioCuentasTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceadorServicioCuentasTest.class);
+
+    private final ServiceInstance rapida = instancia("rapida", 8081);
+    private final ServiceInstance lenta = instancia("lenta", 8082);
+
+    private AtomicLong reloj;
+    private CargaInstanciasCuentas cargaInstancias;
+    private BalanceadorServicioCuentas balanceador;
+
+    @BeforeEach
+    void setUp() {
+        reloj = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+        cargaInstancias = new CargaInstanciasCuentas(new ServicioCuentasPropiedades.Balanceo(), reloj::get);
+        balanceador = new BalanceadorServicioCuentas(
+                ServiceInstanceListSuppliers.toProvider("ACCOUNT-MS", rapida, lenta), "ACCOUNT-MS", cargaInstancias);
+    }
+
+    @Test
+    void choose_CuandoUnaInstanciaRespondeMasRapido_DeberiaPreferirla() {
+        log.info("Iniciando prueba: choose_CuandoUnaInstanciaRespondeMasRapido_DeberiaPreferirla");
+
+        responder(rapida, 5, false);
+        responder(lenta, 50, false);
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(rapida, balanceador.choose(new DefaultRequest<>()).block().getServer());
+        }
+    }
+
+    @Test
+    void elegir_CuandoLaInstanciaRapidaAcumulaSolicitudes_DeberiaDerivarALaOtra() {
+        log.info("Iniciando prueba: elegir_CuandoLaInstanciaRapidaAcumulaSolicitudes_DeberiaDerivarALaOtra");
+
+        responder(rapida, 5, false);
+        responder(lenta, 20, false);
+        for (int i = 0; i < 4; i++) {
+            iniciar(rapida);
+        }
+
+        assertEquals(lenta, balanceador.elegir(List.of(rapida, lenta)).getServer());
+    }
+
+    @Test
+    void elegir_CuandoUnaInstanciaFalla_DeberiaPenalizarlaAunqueFalleRapido() {
+        log.info("Iniciando prueba: elegir_CuandoUnaInstanciaFalla_DeberiaPenalizarlaAunqueFalleRapido");
+
+        responder(rapida, 1, true);
+        responder(lenta, 50, false);
+
+        assertEquals(lenta, balanceador.elegir(List.of(rapida, lenta)).getServer());
+    }
+
+    @Test
+    void elegir_CuandoUnaInstanciaNoTieneLatenciaConocida_DeberiaDecidirPorSolicitudesEnCurso() {
+        log.info("Iniciando prueba: elegir_CuandoUnaInstanciaNoTieneLatenciaConocida_DeberiaDecidirPorSolicitudesEnCurso");
+
+        ServiceInstance nueva = instancia("nueva", 8083);
+        responder(lenta, 50, false);
+        iniciar(lenta);
+
+        assertEquals(nueva, balanceador.elegir(List.of(lenta, nueva)).getServer());
+
+        iniciar(nueva);
+        iniciar(nueva);
+
+        assertEquals(lenta, balanceador.elegir(List.of(lenta, nueva)).getServer());
+    }
+
+    @Test
+    void elegir_CuandoLaLatenciaEsAntigua_DeberiaOlvidarla() {
+        log.info("Iniciando prueba: elegir_CuandoLaLatenciaEsAntigua_DeberiaOlvidarla");
+
+        responder(rapida, 5, false);
+        responder(lenta, 50, false);
+        iniciar(rapida);
+        assertEquals(rapida, balanceador.elegir(List.of(rapida, lenta)).getServer());
+
+        reloj.addAndGet(Duration.ofMinutes(1).toNanos());
+
+        assertEquals(lenta, balanceador.elegir(List.of(rapida, lenta)).getServer());
+    }
+
+    @Test
+    void olvidarInactivas_DeberiaConservarLasInstanciasConSolicitudesEnCurso() {
+        log.info("Iniciando prueba: olvidarInactivas_DeberiaConservarLasInstanciasConSolicitudesEnCurso");
+
+        responder(rapida, 5, false);
+        Request<RequestDataContext> enCurso = iniciar(lenta);
+        reloj.addAndGet(Duration.ofMinutes(1).toNanos());
+
+        cargaInstancias.olvidarInactivas();
+        assertEquals(1, cargaInstancias.instanciasConocidas());
+
+        cargaInstancias.onComplete(new CompletionContext<ResponseData, ServiceInstance, RequestDataContext>(
+                CompletionContext.Status.SUCCESS, enCurso, new DefaultResponse(lenta)));
+        cargaInstancias.olvidarInactivas();
+        assertEquals(1, cargaInstancias.instanciasConocidas());
+
+        reloj.addAndGet(Duration.ofMinutes(1).toNanos());
+        cargaInstancias.olvidarInactivas();
+        assertEquals(0, cargaInstancias.instanciasConocidas());
+    }
+
+    @Test
+    void elegir_SinInstancias_DeberiaDevolverRespuestaVacia() {
+        log.info("Iniciando prueba: elegir_SinInstancias_DeberiaDevolverRespuestaVacia");
+
+        assertFalse(balanceador.elegir(List.of()).hasServer());
+        assertEquals(lenta, balanceador.elegir(List.of(lenta)).getServer());
+    }
+
+    private Request<RequestDataContext> iniciar(ServiceInstance instancia) {
+        Request<RequestDataContext> solicitud = new DefaultRequest<>(new RequestDataContext());
+        cargaInstancias.onStartRequest(solicitud, new DefaultResponse(instancia));
+        return solicitud;
+    }
+
+    private void responder(ServiceInstance instancia, long milisegundos, boolean fallo) {
+        Request<RequestDataContext> solicitud = iniciar(instancia);
+        reloj.addAndGet(TimeUnit.MILLISECONDS.toNanos(milisegundos));
+        Response<ServiceInstance> respuesta = new DefaultResponse(instancia);
+        cargaInstancias.onComplete(fallo
+                ? new CompletionContext<ResponseData, ServiceInstance, RequestDataContext>(
+                        CompletionContext.Status.FAILED, new IllegalStateException("Connection refused"), solicitud, respuesta)
+                : new CompletionContext<ResponseData, ServiceInstance, RequestDataContext>(
+                        CompletionContext.Status.SUCCESS, solicitud, respuesta));
+    }
+
+    private static ServiceInstance instancia(String host, int puerto) {
+        return new DefaultServiceInstance(host, "ACCOUNT-MS", host, puerto, false);
+    }
+}
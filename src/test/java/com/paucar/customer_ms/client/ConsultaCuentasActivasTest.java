@@ -0,0 +1,128 @@
+package com.paucar.customer_ms.client;
+
+import com.paucar.customer_ms.client.dto.Cuenta;
+import com.paucar.customer_ms.client.dto.ResumenCuentasActivas;
+import com.paucar.customer_ms.config.ServicioCuentasPropiedades;
+import com.paucar.customer_ms.util.ApiResponse;
+import com.paucar.customer_ms.util.EstadoCuenta;
+import feign.FeignException;
+import feign.Request;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConsultaCuentasActivasTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ConsultaCuentasActivasTest.class);
+
+    @Mock
+    private CuentaFeign cuentaFeign;
+
+    private ServicioCuentasPropiedades propiedades;
+    private PoliticaLlamadasCuentas politicaLlamadasCuentas;
+    private ConsultaCuentasActivas consultaCuentasActivas;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        propiedades = new ServicioCuentasPropiedades();
+        politicaLlamadasCuentas = new PoliticaLlamadasCuentas(propiedades, new SimpleMeterRegistry(),
+                Executors.newCachedThreadPool());
+        consultaCuentasActivas = new ConsultaCuentasActivas(cuentaFeign, politicaLlamadasCuentas, propiedades);
+    }
+
+    @Test
+    void tieneCuentasActivas_CuandoExisteLaRutaLigera_NoDeberiaLeerLasCuentas() {
+        log.info("Iniciando prueba: tieneCuentasActivas_CuandoExisteLaRutaLigera_NoDeberiaLeerLasCuentas");
+
+        when(cuentaFeign.existenCuentasActivas(1L))
+                .thenReturn(ResponseEntity.ok(ApiResponse.<Boolean>builder().estado(200).datos(true).build()));
+
+        assertTrue(consultaCuentasActivas.tieneCuentasActivas(1L));
+        verify(cuentaFeign, never()).resumirCuentasPorClienteId(anyLong());
+    }
+
+    @Test
+    void tieneCuentasActivas_CuandoLaRutaLigeraResponde404_DeberiaLeerLasCuentasYNoVolverAIntentarla() {
+        log.info("Iniciando prueba: tieneCuentasActivas_CuandoLaRutaLigeraResponde404_DeberiaLeerLasCuentasYNoVolverAIntentarla");
+
+        when(cuentaFeign.existenCuentasActivas(anyLong())).thenThrow(noEncontrado());
+        when(cuentaFeign.resumirCuentasPorClienteId(1L))
+                .thenReturn(ResponseEntity.ok(new ResumenCuentasActivas(true)));
+        when(cuentaFeign.resumirCuentasPorClienteId(2L))
+                .thenReturn(ResponseEntity.ok(new ResumenCuentasActivas(false)));
+
+        assertTrue(consultaCuentasActivas.tieneCuentasActivas(1L));
+        assertFalse(consultaCuentasActivas.tieneCuentasActivas(2L));
+
+        verify(cuentaFeign, times(1)).existenCuentasActivas(anyLong());
+        verify(cuentaFeign, times(2)).resumirCuentasPorClienteId(anyLong());
+    }
+
+    @Test
+    void tieneCuentasActivas_CuandoLaRespuestaNoTraeDatos_DeberiaLanzarExcepcion() {
+        log.info("Iniciando prueba: tieneCuentasActivas_CuandoLaRespuestaNoTraeDatos_DeberiaLanzarExcepcion");
+
+        propiedades.setRutaLigeraActivas(false);
+        consultaCuentasActivas = new ConsultaCuentasActivas(cuentaFeign, politicaLlamadasCuentas, propiedades);
+        when(cuentaFeign.resumirCuentasPorClienteId(1L))
+                .thenReturn(ResponseEntity.ok(new ResumenCuentasActivas(null)));
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> consultaCuentasActivas.tieneCuentasActivas(1L));
+
+        assertEquals("No se pudo obtener información de las cuentas del cliente.", ex.getMessage());
+        verify(cuentaFeign, never()).existenCuentasActivas(anyLong());
+    }
+
+    @Test
+    void clientesConCuentasActivas_DeberiaConsultarElLoteEnUnaSolaLlamada() {
+        log.info("Iniciando prueba: clientesConCuentasActivas_DeberiaConsultarElLoteEnUnaSolaLlamada");
+
+        when(cuentaFeign.obtenerCuentasPorClienteIds(anyList())).thenReturn(ResponseEntity.ok(
+                ApiResponse.<List<Cuenta>>builder().estado(200).datos(List.of(
+                        Cuenta.builder().clienteId(1L).estado(EstadoCuenta.INACTIVO).build(),
+                        Cuenta.builder().clienteId(2L).estado(EstadoCuenta.ACTIVO).build())).build()));
+
+        assertEquals(Set.of(2L), consultaCuentasActivas.clientesConCuentasActivas(List.of(1L, 2L, 3L)));
+        verify(cuentaFeign, times(1)).obtenerCuentasPorClienteIds(List.of(1L, 2L, 3L));
+        verify(cuentaFeign, never()).existenCuentasActivas(anyLong());
+    }
+
+    @Test
+    void clientesConCuentasActivas_CuandoLaRutaDeLoteResponde404_DeberiaConsultarClientePorClienteYNoVolverAIntentarla() {
+        log.info("Iniciando prueba: clientesConCuentasActivas_CuandoLaRutaDeLoteResponde404_DeberiaConsultarClientePorClienteYNoVolverAIntentarla");
+
+        when(cuentaFeign.obtenerCuentasPorClienteIds(anyList())).thenThrow(noEncontrado());
+        when(cuentaFeign.existenCuentasActivas(1L))
+                .thenReturn(ResponseEntity.ok(ApiResponse.<Boolean>builder().estado(200).datos(true).build()));
+        when(cuentaFeign.existenCuentasActivas(2L))
+                .thenReturn(ResponseEntity.ok(ApiResponse.<Boolean>builder().estado(200).datos(false).build()));
+
+        assertEquals(Set.of(1L), consultaCuentasActivas.clientesConCuentasActivas(List.of(1L, 2L)));
+        assertEquals(Set.of(1L), consultaCuentasActivas.clientesConCuentasActivas(List.of(1L)));
+
+        verify(cuentaFeign, times(1)).obtenerCuentasPorClienteIds(anyList());
+        verify(cuentaFeign, times(2)).existenCuentasActivas(1L);
+    }
+
+    private static FeignException.NotFound noEncontrado() {
+        Request solicitud = Request.create(Request.HttpMethod.GET, "/cuentas/cliente/1/activas/existe",
+                Map.of(), null, StandardCharsets.UTF_8, null);
+        return new FeignException.NotFound("404", solicitud, null, Map.of());
+    }
+}
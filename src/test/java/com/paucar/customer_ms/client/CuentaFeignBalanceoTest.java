@@ -0,0 +1,104 @@
+package com.paucar.customer_ms.client;
+
+import com.paucar.customer_ms.config.CuentaFeignConfiguracion;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Prueba el balanceo de CuentaFeign con una lista estática de dos instancias locales, una lenta y otra rápida.
+@SpringBootTest(classes = CuentaFeignBalanceoTest.Configuracion.class,
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "eureka.client.enabled=false")
+class CuentaFeignBalanceoTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CuentaFeignBalanceoTest.class);
+
+    private static final AtomicInteger solicitudesLenta = new AtomicInteger();
+    private static final AtomicInteger solicitudesRapida = new AtomicInteger();
+    private static final HttpServer lenta = iniciarServidor(60, solicitudesLenta);
+    private static final HttpServer rapida = iniciarServidor(0, solicitudesRapida);
+
+    @Autowired
+    private CuentaFeign cuentaFeign;
+
+    @DynamicPropertySource
+    static void configurarInstancias(DynamicPropertyRegistry registro) {
+        registro.add("spring.cloud.discovery.client.simple.instances.ACCOUNT-MS[0].uri",
+                () -> "http://localhost:" + lenta.getAddress().getPort());
+        registro.add("spring.cloud.discovery.client.simple.instances.ACCOUNT-MS[1].uri",
+                () -> "http://localhost:" + rapida.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void detenerServidores() {
+        lenta.stop(0);
+        rapida.stop(0);
+    }
+
+    @Test
+    void obtenerCuentas_ConDosInstancias_DeberiaEnviarLaMayoriaALaMasRapida() {
+        log.info("Iniciando prueba: obtenerCuentas_ConDosInstancias_DeberiaEnviarLaMayoriaALaMasRapida");
+
+        for (int i = 0; i < 60; i++) {
+            assertEquals(1, cuentaFeign.obtenerCuentasPorClienteId(1L).getBody().getDatos().size());
+        }
+
+        log.info("Solicitudes: lenta={}, rápida={}", solicitudesLenta.get(), solicitudesRapida.get());
+        assertTrue(solicitudesLenta.get() >= 1);
+        assertTrue(solicitudesRapida.get() >= 50);
+    }
+
+    private static HttpServer iniciarServidor(long latenciaMs, AtomicInteger solicitudes) {
+        try {
+            HttpServer servidorStub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            servidorStub.setExecutor(Executors.newCachedThreadPool());
+            servidorStub.createContext("/cuentas/cliente/", intercambio -> {
+                solicitudes.incrementAndGet();
+                try {
+                    Thread.sleep(latenciaMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] cuerpo = "{\"estado\":200,\"mensaje\":\"stub\",\"datos\":[{\"id\":1,\"clienteId\":1,\"estado\":\"INACTIVO\"}]}"
+                        .getBytes(StandardCharsets.UTF_8);
+                intercambio.getResponseHeaders().add("Content-Type", "application/json");
+                intercambio.sendResponseHeaders(200, cuerpo.length);
+                try (OutputStream salida = intercambio.getResponseBody()) {
+                    salida.write(cuerpo);
+                }
+            });
+            servidorStub.start();
+            return servidorStub;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Configuration
+    @EnableAutoConfiguration(exclude = {DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class})
+    @EnableFeignClients(clients = CuentaFeign.class)
+    @Import({CuentaFeignFallbackFactory.class, CuentaFeignConfiguracion.class})
+    static class Configuracion {
+    }
+}
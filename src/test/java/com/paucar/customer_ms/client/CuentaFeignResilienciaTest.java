@@ -0,0 +1,206 @@
+package com.paucar.customer_ms.client;
+
+import com.paucar.customer_ms.client.dto.Cuenta;
+import com.paucar.customer_ms.client.dto.ResumenCuentasActivas;
+import com.paucar.customer_ms.config.CuentaFeignConfiguracion;
+import com.paucar.customer_ms.exception.ServicioCuentasNoDisponibleException;
+import com.paucar.customer_ms.util.ApiResponse;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Prueba CuentaFeign contra un servidor local que simula latencia y errores de ACCOUNT-MS.
+@SpringBootTest(classes = CuentaFeignResilienciaTest.Configuracion.class,
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "eureka.client.enabled=false",
+                "spring.cloud.openfeign.client.config.ACCOUNT-MS.connect-timeout=500",
+                "spring.cloud.openfeign.client.config.ACCOUNT-MS.read-timeout=1000",
+                "resilience4j.circuitbreaker.configs.default.sliding-window-size=4",
+                "resilience4j.circuitbreaker.configs.default.minimum-number-of-calls=4",
+                "resilience4j.circuitbreaker.configs.default.wait-duration-in-open-state=1m",
+                "resilience4j.bulkhead.configs.default.max-concurrent-calls=1"
+        })
+class CuentaFeignResilienciaTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CuentaFeignResilienciaTest.class);
+
+    private static final HttpServer servidor = iniciarServidor();
+    private static final AtomicInteger latenciaMs = new AtomicInteger();
+    private static final AtomicInteger estadoRespuesta = new AtomicInteger(200);
+    private static final AtomicInteger solicitudesRecibidas = new AtomicInteger();
+
+    @Autowired
+    private CuentaFeign cuentaFeign;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void configurarUrl(DynamicPropertyRegistry registro) {
+        registro.add("servicio-cuentas.url", () -> "http://localhost:" + servidor.getAddress().getPort());
+    }
+
+    @BeforeEach
+    void setUp() {
+        latenciaMs.set(0);
+        estadoRespuesta.set(200);
+        solicitudesRecibidas.set(0);
+        circuitBreakerRegistry.getAllCircuitBreakers().forEach(CircuitBreaker::reset);
+    }
+
+    @AfterAll
+    static void detenerServidor() {
+        servidor.stop(0);
+    }
+
+    @Test
+    void obtenerCuentas_CuandoElServicioResponde_DeberiaUsarElPoolYPublicarMetricas() {
+        log.info("Iniciando prueba: obtenerCuentas_CuandoElServicioResponde_DeberiaUsarElPoolYPublicarMetricas");
+
+        ResponseEntity<ApiResponse<List<Cuenta>>> respuesta = cuentaFeign.obtenerCuentasPorClienteId(1L);
+
+        assertEquals(1, respuesta.getBody().getDatos().size());
+        assertNotNull(meterRegistry.find("httpcomponents.httpclient.pool.total.max").gauge());
+        assertNotNull(meterRegistry.find("http.client.requests").timer());
+    }
+
+    @Test
+    void resumirCuentas_DeberiaDecodificarLaRespuestaSinMaterializarLasCuentas() {
+        log.info("Iniciando prueba: resumirCuentas_DeberiaDecodificarLaRespuestaSinMaterializarLasCuentas");
+
+        ResponseEntity<ResumenCuentasActivas> respuesta = cuentaFeign.resumirCuentasPorClienteId(1L);
+
+        assertEquals(Boolean.FALSE, respuesta.getBody().getTieneActivas());
+    }
+
+    @Test
+    void obtenerCuentas_CuandoElServicioTardaMasQueElReadTimeout_DeberiaFallarRapido() {
+        log.info("Iniciando prueba: obtenerCuentas_CuandoElServicioTardaMasQueElReadTimeout_DeberiaFallarRapido");
+
+        latenciaMs.set(3_000);
+        long inicio = System.nanoTime();
+
+        ServicioCuentasNoDisponibleException ex = assertThrows(ServicioCuentasNoDisponibleException.class,
+                () -> cuentaFeign.obtenerCuentasPorClienteId(1L));
+
+        long duracionMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        log.info("Excepción lanzada en {} ms: {}", duracionMs, ex.getMessage());
+        assertTrue(duracionMs < 2_500);
+    }
+
+    @Test
+    void obtenerCuentas_CuandoElServicioFallaRepetidamente_DeberiaAbrirElCircuito() {
+        log.info("Iniciando prueba: obtenerCuentas_CuandoElServicioFallaRepetidamente_DeberiaAbrirElCircuito");
+
+        estadoRespuesta.set(500);
+        for (int i = 0; i < 4; i++) {
+            assertThrows(RuntimeException.class, () -> cuentaFeign.obtenerCuentasPorClienteId(1L));
+        }
+        int solicitudesAntes = solicitudesRecibidas.get();
+
+        ServicioCuentasNoDisponibleException ex = assertThrows(ServicioCuentasNoDisponibleException.class,
+                () -> cuentaFeign.obtenerCuentasPorClienteId(1L));
+
+        log.info("Circuito abierto: {}", ex.getMessage());
+        assertEquals(solicitudesAntes, solicitudesRecibidas.get());
+    }
+
+    @Test
+    void obtenerCuentas_CuandoElServicioResponde404_NoDeberiaAbrirElCircuito() {
+        log.info("Iniciando prueba: obtenerCuentas_CuandoElServicioResponde404_NoDeberiaAbrirElCircuito");
+
+        estadoRespuesta.set(404);
+        for (int i = 0; i < 6; i++) {
+            assertThrows(feign.FeignException.NotFound.class, () -> cuentaFeign.obtenerCuentasPorClienteId(1L));
+        }
+
+        assertEquals(6, solicitudesRecibidas.get());
+    }
+
+    @Test
+    void obtenerCuentas_CuandoElBulkheadEstaLleno_DeberiaRechazarSinEsperar() throws Exception {
+        log.info("Iniciando prueba: obtenerCuentas_CuandoElBulkheadEstaLleno_DeberiaRechazarSinEsperar");
+
+        latenciaMs.set(250);
+        CompletableFuture<?> enCurso = CompletableFuture.runAsync(() -> cuentaFeign.obtenerCuentasPorClienteId(1L));
+        while (solicitudesRecibidas.get() == 0) {
+            Thread.sleep(5);
+        }
+
+        ServicioCuentasNoDisponibleException ex = assertThrows(ServicioCuentasNoDisponibleException.class,
+                () -> cuentaFeign.obtenerCuentasPorClienteId(2L));
+
+        log.info("Llamada rechazada por el bulkhead: {}", ex.getMessage());
+        enCurso.get(5, TimeUnit.SECONDS);
+        assertEquals(1, solicitudesRecibidas.get());
+    }
+
+    private static HttpServer iniciarServidor() {
+        try {
+            HttpServer servidorStub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            servidorStub.setExecutor(java.util.concurrent.Executors.newCachedThreadPool());
+            servidorStub.createContext("/cuentas/cliente/", intercambio -> {
+                solicitudesRecibidas.incrementAndGet();
+                try {
+                    Thread.sleep(latenciaMs.get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] cuerpo = ("{\"estado\":" + estadoRespuesta.get() + ",\"mensaje\":\"stub\",\"datos\":"
+                        + "[{\"id\":1,\"clienteId\":1,\"estado\":\"INACTIVO\"}]}").getBytes(StandardCharsets.UTF_8);
+                intercambio.getResponseHeaders().add("Content-Type", "application/json");
+                try {
+                    intercambio.sendResponseHeaders(estadoRespuesta.get(), cuerpo.length);
+                    try (OutputStream salida = intercambio.getResponseBody()) {
+                        salida.write(cuerpo);
+                    }
+                } catch (IOException e) {
+                    // El cliente cortó la conexión por timeout.
+                }
+            });
+            servidorStub.start();
+            return servidorStub;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Configuration
+    @EnableAutoConfiguration(exclude = {DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class})
+    @EnableFeignClients(clients = CuentaFeign.class)
+    @Import({CuentaFeignFallbackFactory.class, CuentaFeignConfiguracion.class})
+    static class Configuracion {
+    }
+}
@@ -0,0 +1,282 @@
+package com.paucar.customer_ms.client;
+
+import com.paucar.customer_ms.config.ServicioCuentasPropiedades;
+import com.paucar.customer_ms.exception.ServicioCuentasNoDisponibleException;
+import feign.FeignException;
+import feign.Request;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PoliticaLlamadasCuentasTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PoliticaLlamadasCuentasTest.class);
+
+    private ServicioCuentasPropiedades propiedades;
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService ejecutor;
+
+    @BeforeEach
+    void setUp() {
+        propiedades = new ServicioCuentasPropiedades();
+        propiedades.getRespaldo().setMuestrasMinimas(5);
+        propiedades.getRespaldo().setRetardoMinimo(Duration.ofMillis(20));
+        propiedades.getReintentos().setEsperaInicial(Duration.ofMillis(1));
+        meterRegistry = new SimpleMeterRegistry();
+        ejecutor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ejecutor.shutdownNow();
+    }
+
+    @Test
+    void ejecutar_CuandoLaPrimeraSolicitudTarda_DeberiaResponderConLaDeRespaldo() {
+        log.info("Iniciando prueba: ejecutar_CuandoLaPrimeraSolicitudTarda_DeberiaResponderConLaDeRespaldo");
+
+        PoliticaLlamadasCuentas politica = new PoliticaLlamadasCuentas(propiedades, meterRegistry, ejecutor);
+        for (int i = 0; i < 5; i++) {
+            politica.ejecutar("resumen", () -> "rapida");
+        }
+
+        CountDownLatch liberarLenta = new CountDownLatch(1);
+        CountDownLatch lentaTerminada = new CountDownLatch(1);
+        AtomicBoolean lentaInterrumpida = new AtomicBoolean();
+        AtomicInteger llamadas = new AtomicInteger();
+        long inicio = System.nanoTime();
+        String respuesta = politica.ejecutar("resumen", () -> {
+            if (llamadas.incrementAndGet() == 1) {
+                esperar(liberarLenta);
+                lentaInterrumpida.set(Thread.currentThread().isInterrupted());
+                lentaTerminada.countDown();
+                return "lenta";
+            }
+            return "respaldo";
+        });
+        long duracionMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        liberarLenta.countDown();
+        esperar(lentaTerminada);
+
+        log.info("Respuesta '{}' en {} ms", respuesta, duracionMs);
+        assertEquals("respaldo", respuesta);
+        assertTrue(duracionMs < 1_000);
+        assertFalse(Thread.currentThread().isInterrupted());
+        assertFalse(lentaInterrumpida.get());
+        assertEquals(1, contador("cliente.cuentas.respaldos", "enviado"));
+        assertEquals(1, contador("cliente.cuentas.respaldos", "ganador"));
+    }
+
+    @Test
+    void ejecutar_SoloConElRespaldoActivo_DeberiaHacerLaSolicitudPrincipalFueraDelHiloQueLlama() {
+        log.info("Iniciando prueba: ejecutar_SoloConElRespaldoActivo_DeberiaHacerLaSolicitudPrincipalFueraDelHiloQueLlama");
+
+        PoliticaLlamadasCuentas politica = new PoliticaLlamadasCuentas(propiedades, meterRegistry, ejecutor);
+        String hiloActual = Thread.currentThread().getName();
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(hiloActual, politica.ejecutar("resumen", () -> Thread.currentThread().getName()));
+        }
+        assertNotEquals(hiloActual, politica.ejecutar("resumen", () -> Thread.currentThread().getName()));
+    }
+
+    @Test
+    void ejecutar_CuandoElRespaldoLanzaUnError_NoDeberiaQuedarseEsperando() {
+        log.info("Iniciando prueba: ejecutar_CuandoElRespaldoLanzaUnError_NoDeberiaQuedarseEsperando");
+
+        PoliticaLlamadasCuentas politica = calentada();
+        CountDownLatch respaldoFallido = new CountDownLatch(1);
+        AtomicInteger llamadas = new AtomicInteger();
+
+        // Cualquiera de los dos errores puede llegar primero; si el del respaldo se perdiera, la espera terminaría
+        // por tiempo con ServicioCuentasNoDisponibleException.
+        assertThrows(Error.class, () -> politica.ejecutar("resumen", () -> {
+            if (llamadas.incrementAndGet() == 1) {
+                esperar(respaldoFallido);
+                throw new Error("fallo grave en la principal");
+            }
+            respaldoFallido.countDown();
+            throw new Error("fallo grave en el respaldo");
+        }));
+    }
+
+    @Test
+    void ejecutar_SinHilosParaElRespaldo_DeberiaSeguirConLaPrincipalYDevolverElPresupuesto() {
+        log.info("Iniciando prueba: ejecutar_SinHilosParaElRespaldo_DeberiaSeguirConLaPrincipalYDevolverElPresupuesto");
+
+        ejecutor.shutdown();
+        PoliticaLlamadasCuentas politica = calentada();
+
+        String respuesta = politica.ejecutar("resumen", () -> {
+            dormir(100);
+            return "lenta";
+        });
+
+        assertEquals("lenta", respuesta);
+        assertEquals(0, contador("cliente.cuentas.respaldos", "enviado"));
+        assertEquals(1, contador("cliente.cuentas.respaldos", "sin_hilos"));
+        assertEquals(20, meterRegistry.get("cliente.cuentas.reintentos.presupuesto").gauge().value());
+    }
+
+    @Test
+    void ejecutar_CuandoElRespaldoNoResponde_DeberiaFallarTrasLaEsperaMaxima() {
+        log.info("Iniciando prueba: ejecutar_CuandoElRespaldoNoResponde_DeberiaFallarTrasLaEsperaMaxima");
+
+        propiedades.getRespaldo().setEsperaMaxima(Duration.ofMillis(200));
+        PoliticaLlamadasCuentas politica = calentada();
+        CountDownLatch respaldoIniciado = new CountDownLatch(1);
+        CountDownLatch nuncaLiberado = new CountDownLatch(1);
+        AtomicInteger llamadas = new AtomicInteger();
+        long inicio = System.nanoTime();
+
+        ServicioCuentasNoDisponibleException ex = assertThrows(ServicioCuentasNoDisponibleException.class,
+                () -> politica.ejecutar("resumen", () -> {
+                    if (llamadas.incrementAndGet() == 1) {
+                        esperar(respaldoIniciado);
+                        throw new FeignException.NotFound("404", solicitud(), null, Map.of());
+                    }
+                    respaldoIniciado.countDown();
+                    esperar(nuncaLiberado);
+                    return "respaldo";
+                }));
+
+        long duracionMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        log.info("Excepción lanzada en {} ms: {}", duracionMs, ex.getMessage());
+        assertEquals("El servicio de cuentas no respondió a tiempo.", ex.getMessage());
+        assertTrue(duracionMs < 2_000);
+    }
+
+    @Test
+    void ejecutar_SinLatenciasSuficientes_NoDeberiaEnviarRespaldo() {
+        log.info("Iniciando prueba: ejecutar_SinLatenciasSuficientes_NoDeberiaEnviarRespaldo");
+
+        PoliticaLlamadasCuentas politica = new PoliticaLlamadasCuentas(propiedades, meterRegistry, ejecutor);
+        AtomicInteger llamadas = new AtomicInteger();
+
+        String respuesta = politica.ejecutar("resumen", () -> {
+            llamadas.incrementAndGet();
+            dormir(50);
+            return "lenta";
+        });
+
+        assertEquals("lenta", respuesta);
+        assertEquals(1, llamadas.get());
+        assertEquals(0, contador("cliente.cuentas.respaldos", "enviado"));
+    }
+
+    @Test
+    void ejecutar_CuandoFallaCon5xx_DeberiaReintentarHastaObtenerRespuesta() {
+        log.info("Iniciando prueba: ejecutar_CuandoFallaCon5xx_DeberiaReintentarHastaObtenerRespuesta");
+
+        PoliticaLlamadasCuentas politica = new PoliticaLlamadasCuentas(propiedades, meterRegistry, ejecutor);
+        AtomicInteger llamadas = new AtomicInteger();
+
+        String respuesta = politica.ejecutar("resumen", () -> {
+            if (llamadas.incrementAndGet() < 3) {
+                throw servicioNoDisponible();
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", respuesta);
+        assertEquals(3, llamadas.get());
+        assertEquals(2, contador("cliente.cuentas.reintentos", "enviado"));
+    }
+
+    @Test
+    void ejecutar_CuandoSeAgotaElPresupuesto_NoDeberiaReintentarMas() {
+        log.info("Iniciando prueba: ejecutar_CuandoSeAgotaElPresupuesto_NoDeberiaReintentarMas");
+
+        propiedades.getReintentos().setPresupuestoMaximo(1);
+        propiedades.getReintentos().setProporcionPresupuesto(0);
+        PoliticaLlamadasCuentas politica = new PoliticaLlamadasCuentas(propiedades, meterRegistry, ejecutor);
+        AtomicInteger llamadas = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(FeignException.ServiceUnavailable.class, () -> politica.ejecutar("resumen", () -> {
+                llamadas.incrementAndGet();
+                throw servicioNoDisponible();
+            }));
+        }
+
+        log.info("Llamadas realizadas: {}", llamadas.get());
+        assertEquals(4, llamadas.get());
+        assertEquals(1, contador("cliente.cuentas.reintentos", "enviado"));
+        assertEquals(3, contador("cliente.cuentas.reintentos", "sin_presupuesto"));
+        assertEquals(0, meterRegistry.get("cliente.cuentas.reintentos.presupuesto").gauge().value());
+    }
+
+    @Test
+    void esReintentable_SoloDeberiaAceptar5xxYErroresDeConexion() {
+        log.info("Iniciando prueba: esReintentable_SoloDeberiaAceptar5xxYErroresDeConexion");
+
+        CallNotPermittedException circuitoAbierto =
+                CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("ACCOUNT-MS"));
+
+        assertTrue(PoliticaLlamadasCuentas.esReintentable(servicioNoDisponible()));
+        assertTrue(PoliticaLlamadasCuentas.esReintentable(new ServicioCuentasNoDisponibleException(
+                "El servicio de cuentas no respondió a tiempo.", new IOException(new ConnectException("Connection refused")))));
+        assertFalse(PoliticaLlamadasCuentas.esReintentable(new ServicioCuentasNoDisponibleException(
+                "El servicio de cuentas no respondió a tiempo.", new SocketTimeoutException("Read timed out"))));
+        assertFalse(PoliticaLlamadasCuentas.esReintentable(new ServicioCuentasNoDisponibleException(
+                "El servicio de cuentas no está disponible temporalmente.", circuitoAbierto)));
+        assertFalse(PoliticaLlamadasCuentas.esReintentable(new FeignException.NotFound("404", solicitud(), null, Map.of())));
+    }
+
+    // Con las muestras mínimas registradas, el respaldo sale a los 20 ms.
+    private PoliticaLlamadasCuentas calentada() {
+        PoliticaLlamadasCuentas politica = new PoliticaLlamadasCuentas(propiedades, meterRegistry, ejecutor);
+        for (int i = 0; i < 5; i++) {
+            politica.ejecutar("resumen", () -> "rapida");
+        }
+        return politica;
+    }
+
+    private double contador(String metrica, String resultado) {
+        return meterRegistry.get(metrica).tag("resultado", resultado).counter().count();
+    }
+
+    private static FeignException servicioNoDisponible() {
+        return new FeignException.ServiceUnavailable("503", solicitud(), null, Map.of());
+    }
+
+    private static Request solicitud() {
+        return Request.create(Request.HttpMethod.GET, "/cuentas/cliente/1", Map.of(), null, StandardCharsets.UTF_8, null);
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void dormir(long milisegundos) {
+        try {
+            Thread.sleep(milisegundos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.paucar.customer_ms.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paucar.customer_ms.client.dto.ResumenCuentasActivas;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResumenCuentasActivasTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ResumenCuentasActivasTest.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void leer_CuandoHayUnaCuentaActiva_DeberiaDetenerseSinLeerElResto() throws IOException {
+        log.info("Iniciando prueba: leer_CuandoHayUnaCuentaActiva_DeberiaDetenerseSinLeerElResto");
+
+        // Lo que sigue a la cuenta activa no es JSON válido: solo se acepta si el lector se detuvo antes.
+        String json = "{\"estado\":200,\"mensaje\":\"ok\",\"datos\":["
+                + "{\"id\":1,\"detalle\":{\"estado\":\"ACTIVO\"},\"estado\":\"INACTIVO\"},"
+                + "{\"id\":2,\"saldo\":10.5,\"estado\":\"ACTIVO\"},"
+                + "{\"id\":3,\"estado\":";
+
+        ResumenCuentasActivas resumen = objectMapper.readValue(json, ResumenCuentasActivas.class);
+
+        assertEquals(Boolean.TRUE, resumen.getTieneActivas());
+    }
+
+    @Test
+    void leer_CuandoNingunaCuentaEstaActiva_DeberiaDevolverFalso() throws IOException {
+        log.info("Iniciando prueba: leer_CuandoNingunaCuentaEstaActiva_DeberiaDevolverFalso");
+
+        String json = "{\"datos\":[{\"id\":1,\"estado\":\"INACTIVO\"},{\"id\":2,\"estado\":null}],"
+                + "\"mensaje\":\"ok\",\"estado\":200}";
+
+        ResumenCuentasActivas resumen = objectMapper.readValue(json, ResumenCuentasActivas.class);
+
+        assertEquals(Boolean.FALSE, resumen.getTieneActivas());
+    }
+
+    @Test
+    void leer_CuandoLaRespuestaNoTraeDatos_DeberiaDejarElResultadoVacio() throws IOException {
+        log.info("Iniciando prueba: leer_CuandoLaRespuestaNoTraeDatos_DeberiaDejarElResultadoVacio");
+
+        ResumenCuentasActivas sinDatos = objectMapper.readValue("{\"estado\":200,\"datos\":null}",
+                ResumenCuentasActivas.class);
+
+        assertNull(sinDatos.getTieneActivas());
+    }
+}
@@ -1,18 +1,29 @@
 package com.paucar.customer_ms.consulta;
 
+import com.paucar.customer_ms.config.ClientePropiedades;
 import com.paucar.customer_ms.dto.ClienteDTO;
+import com.paucar.customer_ms.dto.CoincidenciaClienteDTO;
+import com.paucar.customer_ms.dto.FiltroClientesDTO;
+import com.paucar.customer_ms.dto.PaginaClientesDTO;
+import com.paucar.customer_ms.dto.ResultadoLoteDTO;
+import com.paucar.customer_ms.exception.BusquedaNoDisponibleException;
 import com.paucar.customer_ms.exception.ClienteNoEncontradoException;
-import com.paucar.customer_ms.mapper.ClienteMapper;
-import com.paucar.customer_ms.model.Cliente;
 import com.paucar.customer_ms.repository.ClienteRepository;
+import com.paucar.customer_ms.service.cache.ClienteCache;
 import com.paucar.customer_ms.service.consulta.ClienteConsultaServiceImpl;
+import com.paucar.customer_ms.service.consulta.IndiceBusquedaClientes;
+import com.paucar.customer_ms.util.IndiceTrigramas;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.util.Arrays;
 import java.util.List;
@@ -30,7 +41,13 @@ class ClienteConsultaServiceImplTest {
     private ClienteRepository clienteRepository;
 
     @Mock
-    private ClienteMapper clienteMapper;
+    private IndiceBusquedaClientes indiceBusquedaClientes;
+
+    @Spy
+    private ClientePropiedades clientePropiedades = new ClientePropiedades();
+
+    @Spy
+    private ClienteCache clienteCache = new ClienteCache(clientePropiedades, new SimpleMeterRegistry());
 
     @InjectMocks
     private ClienteConsultaServiceImpl clienteConsultaService;
@@ -41,65 +58,143 @@ class ClienteConsultaServiceImplTest {
     }
 
     @Test
-    void obtenerTodosLosClientes_DeberiaRetornarListaDeClientes() {
-        log.info("Iniciando prueba: obtenerTodosLosClientes_DeberiaRetornarListaDeClientes");
+    void obtenerClientesPaginados_SinCursor_DeberiaRetornarPrimeraPagina() {
+        log.info("Iniciando prueba: obtenerClientesPaginados_SinCursor_DeberiaRetornarPrimeraPagina");
 
-        List<Cliente> clientes = Arrays.asList(
-                Cliente.builder()
-                        .id(1L)
-                        .nombre("Juan")
-                        .apellido("Perez")
-                        .dni("12345678")
-                        .email("juan@gmail.com")
-                        .build(),
-                Cliente.builder()
+        List<ClienteDTO> clientes = Arrays.asList(
+                ClienteDTO.builder()
                         .id(2L)
                         .nombre("Maria")
                         .apellido("Lopez")
                         .dni("87654321")
                         .email("maria@gmail.com")
-                        .build()
-        );
-        when(clienteRepository.findAll()).thenReturn(clientes);
-
-        when(clienteMapper.convertiADTO(clientes.get(0)))
-                .thenReturn(ClienteDTO.builder()
+                        .build(),
+                ClienteDTO.builder()
                         .id(1L)
                         .nombre("Juan")
                         .apellido("Perez")
                         .dni("12345678")
                         .email("juan@gmail.com")
-                        .build());
-        when(clienteMapper.convertiADTO(clientes.get(1)))
-                .thenReturn(ClienteDTO.builder()
-                        .id(2L)
-                        .nombre("Maria")
-                        .apellido("Lopez")
-                        .dni("87654321")
-                        .email("maria@gmail.com")
-                        .build());
+                        .build()
+        );
+        when(clienteRepository.findDTOs(Limit.of(11))).thenReturn(clientes);
 
-        List<ClienteDTO> resultado = clienteConsultaService.obtenerTodosLosClientes();
+        PaginaClientesDTO resultado = clienteConsultaService.obtenerClientesPaginados(10, null);
 
-        resultado.forEach(cliente -> log.info("Cliente encontrado: {}", cliente.toString()));
+        resultado.getClientes().forEach(cliente -> log.info("Cliente encontrado: {}", cliente.toString()));
 
         assertNotNull(resultado);
-        assertEquals(2, resultado.size());
+        assertEquals(2, resultado.getClientes().size());
+        assertNull(resultado.getSiguienteCursor());
+    }
+
+    @Test
+    void obtenerClientesPaginados_CuandoHayMasRegistros_DeberiaRetornarSiguienteCursor() {
+        log.info("Iniciando prueba: obtenerClientesPaginados_CuandoHayMasRegistros_DeberiaRetornarSiguienteCursor");
+
+        ClienteDTO cliente9 = ClienteDTO.builder().id(9L).build();
+        ClienteDTO cliente8 = ClienteDTO.builder().id(8L).build();
+        when(clienteRepository.findDTOsByIdLessThan(10L, Limit.of(2))).thenReturn(Arrays.asList(cliente9, cliente8));
+
+        PaginaClientesDTO resultado = clienteConsultaService.obtenerClientesPaginados(1, 10L);
+
+        log.info("Siguiente cursor: {}", resultado.getSiguienteCursor());
+
+        assertEquals(1, resultado.getClientes().size());
+        assertEquals(9L, resultado.getSiguienteCursor());
+        assertEquals(List.of(cliente9), resultado.getClientes());
+    }
+
+    @Test
+    void obtenerClientesPaginados_CuandoLimiteSuperaElMaximo_DeberiaAcotarlo() {
+        log.info("Iniciando prueba: obtenerClientesPaginados_CuandoLimiteSuperaElMaximo_DeberiaAcotarlo");
+
+        when(clienteRepository.findDTOs(any(Limit.class))).thenReturn(List.of());
+
+        clienteConsultaService.obtenerClientesPaginados(1_000_000, null);
+
+        verify(clienteRepository, times(1)).findDTOs(Limit.of(501));
+    }
+
+    @Test
+    void obtenerClientesPaginados_CuandoLimiteInvalido_DeberiaLanzarExcepcion() {
+        log.info("Iniciando prueba: obtenerClientesPaginados_CuandoLimiteInvalido_DeberiaLanzarExcepcion");
+
+        assertThrows(IllegalArgumentException.class, () -> clienteConsultaService.obtenerClientesPaginados(0, null));
+        verifyNoInteractions(clienteRepository);
+    }
+
+    @Test
+    void buscarClientes_CuandoHayMasRegistros_DeberiaRetornarSiguienteCursor() {
+        log.info("Iniciando prueba: buscarClientes_CuandoHayMasRegistros_DeberiaRetornarSiguienteCursor");
+
+        ClienteDTO cliente9 = ClienteDTO.builder().id(9L).apellido("Perez").build();
+        ClienteDTO cliente8 = ClienteDTO.builder().id(8L).apellido("Peralta").build();
+        when(clienteRepository.buscarDTOs(any(Specification.class), eq(2))).thenReturn(Arrays.asList(cliente9, cliente8));
+
+        PaginaClientesDTO resultado = clienteConsultaService.buscarClientes(
+                FiltroClientesDTO.builder().apellido("Per").build(), 1, null);
+
+        log.info("Clientes encontrados: {}, siguiente cursor: {}", resultado.getClientes(), resultado.getSiguienteCursor());
+
+        assertEquals(1, resultado.getClientes().size());
+        assertEquals(9L, resultado.getSiguienteCursor());
+        verify(clienteRepository, never()).findAll();
+    }
+
+    @Test
+    void buscarClientes_SinCriterios_DeberiaLanzarExcepcion() {
+        log.info("Iniciando prueba: buscarClientes_SinCriterios_DeberiaLanzarExcepcion");
+
+        FiltroClientesDTO filtro = FiltroClientesDTO.builder().nombre(" ").build();
+
+        assertThrows(IllegalArgumentException.class, () -> clienteConsultaService.buscarClientes(filtro, 10, null));
+        verifyNoInteractions(clienteRepository);
+    }
+
+    @Test
+    void buscarClientesAproximado_DeberiaRespetarElOrdenDelIndiceYOmitirEliminados() {
+        log.info("Iniciando prueba: buscarClientesAproximado_DeberiaRespetarElOrdenDelIndiceYOmitirEliminados");
+
+        ClienteDTO cliente3 = ClienteDTO.builder().id(3L).nombre("Juan").apellido("Paucar").build();
+        ClienteDTO cliente1 = ClienteDTO.builder().id(1L).nombre("Pedro").apellido("Paucar Quispe").build();
+        when(indiceBusquedaClientes.estaListo()).thenReturn(true);
+        when(indiceBusquedaClientes.buscar("Juan Paukar", 10)).thenReturn(List.of(
+                new IndiceTrigramas.Coincidencia(3L, 0.8),
+                new IndiceTrigramas.Coincidencia(7L, 0.6),
+                new IndiceTrigramas.Coincidencia(1L, 0.5)));
+        when(clienteRepository.findDTOsByIdIn(List.of(3L, 7L, 1L))).thenReturn(List.of(cliente1, cliente3));
+
+        List<CoincidenciaClienteDTO> resultado = clienteConsultaService.buscarClientesAproximado("Juan Paukar", null);
+
+        resultado.forEach(coincidencia -> log.info("Coincidencia: {}", coincidencia));
+        assertEquals(List.of(3L, 1L), resultado.stream().map(coincidencia -> coincidencia.getCliente().getId()).toList());
+        assertEquals(0.8, resultado.get(0).getSimilitud());
+    }
+
+    @Test
+    void buscarClientesAproximado_CuandoElIndiceNoEstaListo_DeberiaLanzarExcepcion() {
+        log.info("Iniciando prueba: buscarClientesAproximado_CuandoElIndiceNoEstaListo_DeberiaLanzarExcepcion");
+
+        when(indiceBusquedaClientes.estaListo()).thenReturn(false);
+
+        assertThrows(BusquedaNoDisponibleException.class,
+                () -> clienteConsultaService.buscarClientesAproximado("Paucar", 5));
+        verifyNoInteractions(clienteRepository);
+    }
+
+    @Test
+    void buscarClientesAproximado_SinTexto_DeberiaLanzarExcepcion() {
+        log.info("Iniciando prueba: buscarClientesAproximado_SinTexto_DeberiaLanzarExcepcion");
+
+        assertThrows(IllegalArgumentException.class, () -> clienteConsultaService.buscarClientesAproximado("  ", 5));
+        verifyNoInteractions(indiceBusquedaClientes);
     }
 
     @Test
     void buscarClientePorId_CuandoClienteExiste_DeberiaRetornarCliente() {
         log.info("Iniciando prueba: buscarClientePorId_CuandoClienteExiste_DeberiaRetornarCliente");
 
-        Cliente cliente = Cliente.builder()
-                .id(1L)
-                .nombre("Juan")
-                .apellido("Perez")
-                .dni("12345678")
-                .email("juan@gmail.com")
-                .build();
-        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
-
         ClienteDTO clienteDTO = ClienteDTO.builder()
                 .id(1L)
                 .nombre("Juan")
@@ -107,7 +202,7 @@ class ClienteConsultaServiceImplTest {
                 .dni("12345678")
                 .email("juan@gmail.com")
                 .build();
-        when(clienteMapper.convertiADTO(cliente)).thenReturn(clienteDTO);
+        when(clienteRepository.findDTOById(1L)).thenReturn(Optional.of(clienteDTO));
 
         Optional<ClienteDTO> resultado = clienteConsultaService.buscarClientePorId(1L);
 
@@ -121,10 +216,71 @@ class ClienteConsultaServiceImplTest {
     void buscarClientePorId_CuandoClienteNoExiste_DeberiaLanzarExcepcion() {
         log.info("Iniciando prueba: buscarClientePorId_CuandoClienteNoExiste_DeberiaLanzarExcepcion");
 
-        when(clienteRepository.findById(99L)).thenReturn(Optional.empty());
+        when(clienteRepository.findDTOById(99L)).thenReturn(Optional.empty());
 
         ClienteNoEncontradoException exception = assertThrows(ClienteNoEncontradoException.class, () -> clienteConsultaService.buscarClientePorId(99L));
 
         log.error("Excepción lanzada: Cliente con ID {} no encontrado. Mensaje: {}", 99L, exception.getMessage());
     }
+
+    @Test
+    void buscarClientePorId_CuandoSeConsultaDosVeces_DeberiaUsarLaCache() {
+        log.info("Iniciando prueba: buscarClientePorId_CuandoSeConsultaDosVeces_DeberiaUsarLaCache");
+
+        when(clienteRepository.findDTOById(1L)).thenReturn(Optional.of(ClienteDTO.builder().id(1L).nombre("Juan").build()));
+
+        clienteConsultaService.buscarClientePorId(1L);
+        Optional<ClienteDTO> resultado = clienteConsultaService.buscarClientePorId(1L);
+
+        assertEquals("Juan", resultado.get().getNombre());
+        verify(clienteRepository, times(1)).findDTOById(1L);
+    }
+
+    @Test
+    void buscarClientesPorIds_DeberiaRespetarElOrdenEInformarLosInexistentes() {
+        log.info("Iniciando prueba: buscarClientesPorIds_DeberiaRespetarElOrdenEInformarLosInexistentes");
+
+        ClienteDTO cliente1 = ClienteDTO.builder().id(1L).nombre("Juan").build();
+        ClienteDTO cliente3 = ClienteDTO.builder().id(3L).nombre("Maria").build();
+        when(clienteRepository.findDTOsByIdIn(List.of(3L, 7L, 1L))).thenReturn(List.of(cliente1, cliente3));
+
+        ResultadoLoteDTO resultado = clienteConsultaService.buscarClientesPorIds(Arrays.asList(3L, 7L, null, 1L, 3L));
+
+        log.info("Resultado del lote: {}", resultado);
+        assertEquals(5, resultado.getTotal());
+        assertEquals(3, resultado.getExitosos());
+        assertEquals(2, resultado.getFallidos());
+        assertEquals(Arrays.asList("Maria", null, null, "Juan", "Maria"), resultado.getResultados().stream()
+                .map(item -> item.getCliente() == null ? null : item.getCliente().getNombre())
+                .toList());
+        assertEquals("Cliente no encontrado con el ID: 7", resultado.getResultados().get(1).getMensaje());
+        assertEquals("El ID del cliente es obligatorio.", resultado.getResultados().get(2).getMensaje());
+        verify(clienteRepository, times(1)).findDTOsByIdIn(anyCollection());
+    }
+
+    @Test
+    void buscarClientesPorIds_DeberiaConsultarPorBloques() {
+        log.info("Iniciando prueba: buscarClientesPorIds_DeberiaConsultarPorBloques");
+
+        clientePropiedades.getLote().setIdsPorConsulta(2);
+        when(clienteRepository.findDTOsByIdIn(anyCollection())).thenReturn(List.of());
+
+        ResultadoLoteDTO resultado = clienteConsultaService.buscarClientesPorIds(List.of(1L, 2L, 3L, 4L, 5L));
+
+        assertEquals(5, resultado.getFallidos());
+        verify(clienteRepository).findDTOsByIdIn(List.of(1L, 2L));
+        verify(clienteRepository).findDTOsByIdIn(List.of(3L, 4L));
+        verify(clienteRepository).findDTOsByIdIn(List.of(5L));
+    }
+
+    @Test
+    void buscarClientesPorIds_CuandoSuperaElTamanoMaximo_DeberiaLanzarExcepcion() {
+        log.info("Iniciando prueba: buscarClientesPorIds_CuandoSuperaElTamanoMaximo_DeberiaLanzarExcepcion");
+
+        clientePropiedades.getLote().setTamanoMaximo(2);
+
+        assertThrows(IllegalArgumentException.class, () -> clienteConsultaService.buscarClientesPorIds(List.of(1L, 2L, 3L)));
+        assertThrows(IllegalArgumentException.class, () -> clienteConsultaService.buscarClientesPorIds(List.of()));
+        verifyNoInteractions(clienteRepository);
+    }
 }
@@ -0,0 +1,169 @@
+package com.paucar.customer_ms.consulta;
+
+import com.paucar.customer_ms.config.ClientePropiedades;
+import com.paucar.customer_ms.repository.ClienteRepository;
+import com.paucar.customer_ms.repository.NombreCliente;
+import com.paucar.customer_ms.service.consulta.IndiceBusquedaClientes;
+import com.paucar.customer_ms.util.IndiceTrigramas;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class IndiceBusquedaClientesTest {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceBusquedaClientesTest.class);
+
+    @Mock
+    private ClienteRepository clienteRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ClientePropiedades clientePropiedades;
+    private IndiceBusquedaClientes indice;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        clientePropiedades = new ClientePropiedades();
+        indice = new IndiceBusquedaClientes(clienteRepository, transactionManager, clientePropiedades, meterRegistry);
+
+        when(clienteRepository.streamNombres()).thenReturn(Stream.of(
+                nombre(1L, "Juan", "Paucar"),
+                nombre(2L, "María", "Pérez"),
+                nombre(3L, "Pedro", "Paucar Quispe"),
+                nombre(4L, "Ana", "Gómez")));
+    }
+
+    @Test
+    void buscar_AntesDeConstruirse_NoDeberiaDevolverNada() {
+        log.info("Iniciando prueba: buscar_AntesDeConstruirse_NoDeberiaDevolverNada");
+
+        assertFalse(indice.estaListo());
+        assertTrue(indice.buscar("Paucar", 10).isEmpty());
+    }
+
+    @Test
+    void buscar_ConErrorDeEscritura_DeberiaEncontrarYOrdenarPorSimilitud() {
+        log.info("Iniciando prueba: buscar_ConErrorDeEscritura_DeberiaEncontrarYOrdenarPorSimilitud");
+
+        indice.reconstruir();
+        List<IndiceTrigramas.Coincidencia> coincidencias = indice.buscar("Paukar", 10);
+        List<IndiceTrigramas.Coincidencia> conNombre = indice.buscar("Juan Paukar", 10);
+
+        log.info("Coincidencias: {}, con nombre: {}", coincidencias, conNombre);
+        assertTrue(indice.estaListo());
+        // A igual similitud gana el texto con menos trigramas sobrantes.
+        assertEquals(List.of(1L, 3L), coincidencias.stream().map(IndiceTrigramas.Coincidencia::id).toList());
+        assertEquals(coincidencias.get(0).similitud(), coincidencias.get(1).similitud());
+        assertEquals(List.of(1L), conNombre.stream().map(IndiceTrigramas.Coincidencia::id).toList());
+        assertTrue(conNombre.get(0).similitud() > 0.4 && conNombre.get(0).similitud() < 1.0);
+    }
+
+    @Test
+    void buscar_SinTildesNiMayusculas_DeberiaEncontrarNombresConTildes() {
+        log.info("Iniciando prueba: buscar_SinTildesNiMayusculas_DeberiaEncontrarNombresConTildes");
+
+        indice.reconstruir();
+
+        assertEquals(2L, indice.buscar("maria perez", 1).get(0).id());
+        assertEquals(4L, indice.buscar("GOMES", 1).get(0).id());
+    }
+
+    @Test
+    void registrarYQuitar_DeberianReemplazarLaEntradaAnterior() {
+        log.info("Iniciando prueba: registrarYQuitar_DeberianReemplazarLaEntradaAnterior");
+
+        indice.reconstruir();
+        indice.registrar(4L, "Ana", "Mamani");
+        indice.registrar(5L, "Rosa", "Gomez");
+        indice.quitar(1L);
+
+        assertEquals(List.of(5L), indice.buscar("Gomez", 10).stream().map(IndiceTrigramas.Coincidencia::id).toList());
+        assertEquals(List.of(4L), indice.buscar("Mamani", 10).stream().map(IndiceTrigramas.Coincidencia::id).toList());
+        assertEquals(List.of(3L), indice.buscar("Paucar", 10).stream().map(IndiceTrigramas.Coincidencia::id).toList());
+    }
+
+    @Test
+    void registrar_DespuesDeConstruirConLaTablaVacia_DeberiaAgregarClientes() {
+        log.info("Iniciando prueba: registrar_DespuesDeConstruirConLaTablaVacia_DeberiaAgregarClientes");
+
+        when(clienteRepository.streamNombres()).thenReturn(Stream.empty());
+        indice.reconstruir();
+        indice.registrar(1L, "Juan", "Paucar");
+        indice.registrar(1L, "Juan", "Mamani");
+        indice.registrar(2L, "Rosa", "Paucar");
+
+        assertEquals(List.of(2L), indice.buscar("Paucar", 10).stream().map(IndiceTrigramas.Coincidencia::id).toList());
+        assertEquals(List.of(1L), indice.buscar("Mamani", 10).stream().map(IndiceTrigramas.Coincidencia::id).toList());
+    }
+
+    @Test
+    void reconstruir_CuandoHayCambiosDuranteLaLectura_DeberiaConservarLosCambios() {
+        log.info("Iniciando prueba: reconstruir_CuandoHayCambiosDuranteLaLectura_DeberiaConservarLosCambios");
+
+        // El cambio llega mientras se recorre la tabla, antes de que se lea la fila con el nombre anterior.
+        when(clienteRepository.streamNombres()).thenAnswer(invocacion -> Stream.of(nombre(1L, "Juan", "Paucar"))
+                .peek(fila -> indice.registrar(1L, "Juan", "Mamani")));
+        indice.reconstruir();
+
+        assertTrue(indice.buscar("Paucar", 10).isEmpty());
+        assertEquals(1L, indice.buscar("Mamani", 10).get(0).id());
+    }
+
+    @Test
+    void reconstruir_DeberiaPublicarMetricasDelIndice() {
+        log.info("Iniciando prueba: reconstruir_DeberiaPublicarMetricasDelIndice");
+
+        indice.reconstruir();
+
+        double entradas = meterRegistry.get("cliente.busqueda.indice.entradas").gauge().value();
+        double bytes = meterRegistry.get("cliente.busqueda.indice.bytes").gauge().value();
+        log.info("Entradas: {}, bytes: {}", entradas, bytes);
+        assertEquals(4.0, entradas);
+        assertTrue(bytes > 0);
+    }
+
+    @Test
+    void reconstruir_CuandoEstaDeshabilitado_NoDeberiaLeerLaTabla() {
+        log.info("Iniciando prueba: reconstruir_CuandoEstaDeshabilitado_NoDeberiaLeerLaTabla");
+
+        clientePropiedades.getBusqueda().setHabilitado(false);
+        indice.reconstruir();
+
+        assertFalse(indice.estaListo());
+        verify(clienteRepository, never()).streamNombres();
+    }
+
+    private NombreCliente nombre(Long id, String nombre, String apellido) {
+        return new NombreCliente() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getNombre() {
+                return nombre;
+            }
+
+            @Override
+            public String getApellido() {
+                return apellido;
+            }
+        };
+    }
+}
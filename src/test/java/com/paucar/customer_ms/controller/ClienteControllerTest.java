@@ -1,25 +1,56 @@
 package com.paucar.customer_ms.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paucar.customer_ms.config.ClientePropiedades;
+import com.paucar.customer_ms.dto.CambiosClienteDTO;
 import com.paucar.customer_ms.dto.ClienteDTO;
+import com.paucar.customer_ms.dto.CoincidenciaClienteDTO;
+import com.paucar.customer_ms.dto.ConteoCuentasActivasDTO;
+import com.paucar.customer_ms.dto.FiltroClientesDTO;
+import com.paucar.customer_ms.dto.PaginaClientesDTO;
+import com.paucar.customer_ms.dto.ResultadoLoteDTO;
+import com.paucar.customer_ms.service.cache.ListadoClientesCache;
 import com.paucar.customer_ms.service.consulta.ClienteConsultaService;
+import com.paucar.customer_ms.service.cuentas.VistaCuentasActivasService;
 import com.paucar.customer_ms.service.gestion.ClienteGestionService;
 import com.paucar.customer_ms.util.ApiResponse;
+import com.paucar.customer_ms.util.EtiquetaCliente;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
+import static org.hamcrest.Matchers.hasItem;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class ClienteControllerTest {
 
@@ -31,9 +62,18 @@ class ClienteControllerTest {
     @Mock
     private ClienteGestionService clienteGestionService;
 
+    @Mock
+    private VistaCuentasActivasService vistaCuentasActivasService;
+
+    @Spy
+    private ListadoClientesCache listadoClientesCache =
+            new ListadoClientesCache(new ClientePropiedades(), new ObjectMapper(), new SimpleMeterRegistry());
+
     @InjectMocks
     private ClienteController clienteController;
 
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -41,18 +81,65 @@ class ClienteControllerTest {
     }
 
     @Test
-    void obtenerTodosLosClientes() {
+    void obtenerTodosLosClientes() throws IOException {
         log.info("Prueba: obtenerTodosLosClientes");
 
         List<ClienteDTO> listaClientes = Arrays.asList(new ClienteDTO(), new ClienteDTO());
-        when(clienteConsultaService.obtenerTodosLosClientes()).thenReturn(listaClientes);
+        PaginaClientesDTO pagina = PaginaClientesDTO.builder()
+                .clientes(listaClientes)
+                .siguienteCursor(5L)
+                .build();
+        when(clienteConsultaService.obtenerClientesPaginados(2, null)).thenReturn(pagina);
+
+        ResponseEntity<byte[]> response = clienteController.obtenerTodosLosClientes(2, null, null);
+        JsonNode cuerpo = objectMapper.readTree(response.getBody());
+
+        log.info("Resultado: HttpStatus = {}, Mensaje = {}", response.getStatusCode(), cuerpo.get("mensaje").asText());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("Lista de clientes recuperada exitosamente", cuerpo.get("mensaje").asText());
+        assertEquals(2, cuerpo.get("datos").size());
+        assertEquals(5L, cuerpo.get("siguienteCursor").asLong());
+        verify(clienteConsultaService, times(1)).obtenerClientesPaginados(2, null);
+    }
+
+    @Test
+    void buscarClientes() {
+        log.info("Prueba: buscarClientes");
 
-        ResponseEntity<ApiResponse<List<ClienteDTO>>> response = clienteController.obtenerTodosLosClientes();
+        FiltroClientesDTO filtro = FiltroClientesDTO.builder().apellido("Per").dni("123").build();
+        PaginaClientesDTO pagina = PaginaClientesDTO.builder()
+                .clientes(List.of(ClienteDTO.builder().id(7L).apellido("Perez").dni("12345678").build()))
+                .build();
+        when(clienteConsultaService.buscarClientes(filtro, 20, 10L)).thenReturn(pagina);
+
+        ResponseEntity<ApiResponse<List<ClienteDTO>>> response =
+                clienteController.buscarClientes(null, "Per", "123", null, 20, 10L);
+
+        log.info("Resultado: HttpStatus = {}, Mensaje = {}", response.getStatusCode(), response.getBody().getMensaje());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Búsqueda de clientes realizada exitosamente", response.getBody().getMensaje());
+        assertEquals(1, response.getBody().getDatos().size());
+        verify(clienteConsultaService, times(1)).buscarClientes(filtro, 20, 10L);
+    }
+
+    @Test
+    void buscarClientesAproximado() {
+        log.info("Prueba: buscarClientesAproximado");
+
+        List<CoincidenciaClienteDTO> coincidencias = List.of(CoincidenciaClienteDTO.builder()
+                .cliente(ClienteDTO.builder().id(7L).apellido("Paucar").build())
+                .similitud(0.75)
+                .build());
+        when(clienteConsultaService.buscarClientesAproximado("Paukar", 5)).thenReturn(coincidencias);
+
+        ResponseEntity<ApiResponse<List<CoincidenciaClienteDTO>>> response =
+                clienteController.buscarClientesAproximado("Paukar", 5);
 
         log.info("Resultado: HttpStatus = {}, Mensaje = {}", response.getStatusCode(), response.getBody().getMensaje());
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals("Lista de clientes recuperada exitosamente", response.getBody().getMensaje());
-        verify(clienteConsultaService, times(1)).obtenerTodosLosClientes();
+        assertEquals("Búsqueda aproximada realizada exitosamente", response.getBody().getMensaje());
+        assertEquals(coincidencias, response.getBody().getDatos());
     }
 
     @Test
@@ -102,6 +189,38 @@ class ClienteControllerTest {
         verify(clienteGestionService, times(1)).guardarCliente(clienteDTO);
     }
 
+    @Test
+    void crearClientesEnLote() {
+        log.info("Prueba: crearClientesEnLote");
+
+        List<ClienteDTO> lote = Arrays.asList(new ClienteDTO(), new ClienteDTO());
+        ResultadoLoteDTO resultado = ResultadoLoteDTO.builder().total(2).exitosos(1).fallidos(1).build();
+        when(clienteGestionService.guardarClientesEnLote(lote)).thenReturn(resultado);
+
+        ResponseEntity<ApiResponse<ResultadoLoteDTO>> response = clienteController.crearClientesEnLote(lote);
+
+        log.info("Resultado: HttpStatus = {}, Mensaje = {}", response.getStatusCode(), response.getBody().getMensaje());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Lote procesado: 1 clientes creados, 1 con errores", response.getBody().getMensaje());
+        verify(clienteGestionService, times(1)).guardarClientesEnLote(lote);
+    }
+
+    @Test
+    void eliminarClientesEnLote() {
+        log.info("Prueba: eliminarClientesEnLote");
+
+        List<Long> ids = Arrays.asList(1L, 2L, 3L);
+        ResultadoLoteDTO resultado = ResultadoLoteDTO.builder().total(3).exitosos(2).fallidos(1).build();
+        when(clienteGestionService.eliminarClientesEnLote(ids)).thenReturn(resultado);
+
+        ResponseEntity<ApiResponse<ResultadoLoteDTO>> response = clienteController.eliminarClientesEnLote(ids);
+
+        log.info("Resultado: HttpStatus = {}, Mensaje = {}", response.getStatusCode(), response.getBody().getMensaje());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Lote procesado: 2 clientes eliminados, 1 con errores", response.getBody().getMensaje());
+        verify(clienteGestionService, times(1)).eliminarClientesEnLote(ids);
+    }
+
     @Test
     void actualizarCliente() {
         log.info("Prueba: actualizarCliente");
@@ -109,14 +228,34 @@ class ClienteControllerTest {
         Long id = 1L;
         ClienteDTO clienteDTO = new ClienteDTO();
         clienteDTO.setNombre("Juan Actualizado");
-        when(clienteGestionService.actualizarCliente(id, clienteDTO)).thenReturn(clienteDTO);
+        clienteDTO.setVersion(4L);
+        when(clienteGestionService.actualizarCliente(id, clienteDTO, 3L)).thenReturn(clienteDTO);
 
-        ResponseEntity<ApiResponse<ClienteDTO>> response = clienteController.actualizarCliente(id, clienteDTO);
+        ResponseEntity<ApiResponse<ClienteDTO>> response = clienteController.actualizarCliente(id, clienteDTO, "\"3\"");
 
         log.info("Resultado: HttpStatus = {}, Mensaje = {}", response.getStatusCode(), response.getBody().getMensaje());
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Cliente actualizado exitosamente", response.getBody().getMensaje());
-        verify(clienteGestionService, times(1)).actualizarCliente(id, clienteDTO);
+        assertEquals("\"4\"", response.getHeaders().getETag());
+        verify(clienteGestionService, times(1)).actualizarCliente(id, clienteDTO, 3L);
+    }
+
+    @Test
+    void actualizarClienteParcialmente() {
+        log.info("Prueba: actualizarClienteParcialmente");
+
+        CambiosClienteDTO cambios = CambiosClienteDTO.builder().email("nuevo@gmail.com").build();
+
+        ResponseEntity<ApiResponse<Void>> conVersion = clienteController.actualizarClienteParcialmente(1L, cambios, "\"3\"");
+        ResponseEntity<ApiResponse<Void>> sinVersion = clienteController.actualizarClienteParcialmente(1L, cambios, null);
+
+        log.info("Resultado: HttpStatus = {}, ETag = {}", conVersion.getStatusCode(), conVersion.getHeaders().getETag());
+        assertEquals(HttpStatus.OK, conVersion.getStatusCode());
+        assertEquals("Cliente actualizado exitosamente", conVersion.getBody().getMensaje());
+        assertEquals("\"4\"", conVersion.getHeaders().getETag());
+        assertNull(sinVersion.getHeaders().getETag());
+        verify(clienteGestionService, times(1)).actualizarClienteParcialmente(1L, cambios, 3L);
+        verify(clienteGestionService, times(1)).actualizarClienteParcialmente(1L, cambios, null);
     }
 
     @Test
@@ -124,13 +263,137 @@ class ClienteControllerTest {
         log.info("Prueba: eliminarCliente");
 
         Long id = 1L;
-        doNothing().when(clienteGestionService).eliminarClientePorId(id);
+        doNothing().when(clienteGestionService).eliminarClientePorId(id, null);
 
-        ResponseEntity<ApiResponse<Void>> response = clienteController.eliminarCliente(id);
+        ResponseEntity<ApiResponse<Void>> response = clienteController.eliminarCliente(id, null);
 
         log.info("Resultado: HttpStatus = {}, Mensaje = {}", response.getStatusCode(), response.getBody().getMensaje());
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Cliente eliminado exitosamente", response.getBody().getMensaje());
-        verify(clienteGestionService, times(1)).eliminarClientePorId(id);
+        verify(clienteGestionService, times(1)).eliminarClientePorId(id, null);
+    }
+
+    @Test
+    void eliminarCliente_ConEtiquetaDebil_DeberiaPasarUnaVersionQueNuncaCoincide() {
+        log.info("Prueba: eliminarCliente_ConEtiquetaDebil_DeberiaPasarUnaVersionQueNuncaCoincide");
+
+        clienteController.eliminarCliente(1L, "W/\"3\"");
+
+        verify(clienteGestionService, times(1)).eliminarClientePorId(1L, EtiquetaCliente.VERSION_INVALIDA);
+    }
+
+    @Test
+    void buscarClientePorId_ConIfNoneMatchVigente_DeberiaResponder304SinCuerpo() throws Exception {
+        log.info("Prueba: buscarClientePorId_ConIfNoneMatchVigente_DeberiaResponder304SinCuerpo");
+
+        when(clienteConsultaService.buscarClientePorId(1L))
+                .thenReturn(Optional.of(ClienteDTO.builder().id(1L).nombre("Juan").version(7L).build()));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(clienteController).build();
+
+        mockMvc.perform(get("/cliente/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"7\""));
+        mockMvc.perform(get("/cliente/1").header(HttpHeaders.IF_NONE_MATCH, "\"7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/cliente/1").header(HttpHeaders.IF_NONE_MATCH, "\"6\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void obtenerTodosLosClientes_DeberiaCambiarElETagCuandoCambiaUnCliente() {
+        log.info("Prueba: obtenerTodosLosClientes_DeberiaCambiarElETagCuandoCambiaUnCliente");
+
+        ClienteDTO cliente = ClienteDTO.builder().id(5L).version(1L).build();
+        when(clienteConsultaService.obtenerClientesPaginados(10, null))
+                .thenReturn(PaginaClientesDTO.builder().clientes(List.of(cliente)).build())
+                .thenReturn(PaginaClientesDTO.builder().clientes(List.of(cliente)).build())
+                .thenReturn(PaginaClientesDTO.builder().clientes(List.of(cliente.toBuilder().version(2L).build())).build());
+
+        String primera = clienteController.obtenerTodosLosClientes(10, null, null).getHeaders().getETag();
+        listadoClientesCache.invalidar();
+        String repetida = clienteController.obtenerTodosLosClientes(10, null, null).getHeaders().getETag();
+        listadoClientesCache.invalidar();
+        String modificada = clienteController.obtenerTodosLosClientes(10, null, null).getHeaders().getETag();
+
+        log.info("ETags: {}, {}, {}", primera, repetida, modificada);
+        assertEquals(primera, repetida);
+        assertNotEquals(primera, modificada);
+    }
+
+    @Test
+    void buscarClientesPorIds() {
+        log.info("Prueba: buscarClientesPorIds");
+
+        ResultadoLoteDTO resultadoLote = ResultadoLoteDTO.builder().total(2).exitosos(1).fallidos(1).build();
+        when(clienteConsultaService.buscarClientesPorIds(List.of(1L, 9L))).thenReturn(resultadoLote);
+
+        ResponseEntity<ApiResponse<ResultadoLoteDTO>> response = clienteController.buscarClientesPorIds(List.of(1L, 9L));
+
+        log.info("Resultado: HttpStatus = {}, Mensaje = {}", response.getStatusCode(), response.getBody().getMensaje());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Lote procesado: 1 clientes encontrados, 1 con errores", response.getBody().getMensaje());
+        verify(clienteConsultaService, times(1)).buscarClientesPorIds(List.of(1L, 9L));
+    }
+
+    @Test
+    void registrarConteosCuentasActivas() {
+        log.info("Prueba: registrarConteosCuentasActivas");
+
+        List<ConteoCuentasActivasDTO> conteos = List.of(
+                ConteoCuentasActivasDTO.builder().clienteId(1L).cuentasActivas(2).actualizadoEn(Instant.now()).build());
+        ResultadoLoteDTO resultadoLote = ResultadoLoteDTO.builder().total(1).exitosos(1).fallidos(0).build();
+        when(vistaCuentasActivasService.registrarConteos(conteos)).thenReturn(resultadoLote);
+
+        ResponseEntity<ApiResponse<ResultadoLoteDTO>> response = clienteController.registrarConteosCuentasActivas(conteos);
+
+        log.info("Resultado: HttpStatus = {}, Mensaje = {}", response.getStatusCode(), response.getBody().getMensaje());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Lote procesado: 1 conteos recibidos, 0 con errores", response.getBody().getMensaje());
+        verify(vistaCuentasActivasService, times(1)).registrarConteos(conteos);
+    }
+
+    @Test
+    void obtenerTodosLosClientes_SinEscriturasEntreMedias_DeberiaServirLosBytesCacheados() {
+        log.info("Prueba: obtenerTodosLosClientes_SinEscriturasEntreMedias_DeberiaServirLosBytesCacheados");
+
+        when(clienteConsultaService.obtenerClientesPaginados(10, null))
+                .thenReturn(PaginaClientesDTO.builder().clientes(List.of(ClienteDTO.builder().id(5L).build())).build());
+
+        byte[] primera = clienteController.obtenerTodosLosClientes(10, null, null).getBody();
+        byte[] segunda = clienteController.obtenerTodosLosClientes(10, null, null).getBody();
+
+        assertSame(primera, segunda);
+        verify(clienteConsultaService, times(1)).obtenerClientesPaginados(10, null);
+    }
+
+    @Test
+    void obtenerTodosLosClientes_ConAcceptEncodingGzip_DeberiaEnviarLaVarianteComprimida() throws Exception {
+        log.info("Prueba: obtenerTodosLosClientes_ConAcceptEncodingGzip_DeberiaEnviarLaVarianteComprimida");
+
+        when(clienteConsultaService.obtenerClientesPaginados(null, null))
+                .thenReturn(PaginaClientesDTO.builder().clientes(List.of(ClienteDTO.builder().id(5L).build())).build());
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(clienteController).build();
+
+        MvcResult comprimida = mockMvc.perform(get("/cliente").header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andReturn();
+        String etiquetaGzip = comprimida.getResponse().getHeader(HttpHeaders.ETAG);
+        byte[] json;
+        try (GZIPInputStream gzip = new GZIPInputStream(
+                new ByteArrayInputStream(comprimida.getResponse().getContentAsByteArray()))) {
+            json = gzip.readAllBytes();
+        }
+        assertEquals(5L, objectMapper.readTree(json).get("datos").get(0).get("id").asLong());
+
+        mockMvc.perform(get("/cliente").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().bytes(json));
+        mockMvc.perform(get("/cliente").header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, etiquetaGzip))
+                .andExpect(status().isNotModified());
     }
 }
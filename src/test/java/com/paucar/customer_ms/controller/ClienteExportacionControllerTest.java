@@ -0,0 +1,80 @@
+package com.paucar.customer_ms.controller;
+
+import com.paucar.customer_ms.exception.ExcepcionesGlobales;
+import com.paucar.customer_ms.exception.ExportacionInterrumpidaException;
+import com.paucar.customer_ms.service.exportacion.ClienteExportacionService;
+import com.paucar.customer_ms.util.FormatoExportacion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ClienteExportacionControllerTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ClienteExportacionControllerTest.class);
+
+    @Mock
+    private ClienteExportacionService clienteExportacionService;
+
+    @InjectMocks
+    private ClienteExportacionController clienteExportacionController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(clienteExportacionController)
+                .setControllerAdvice(new ExcepcionesGlobales(new SimpleMeterRegistry()))
+                .build();
+    }
+
+    @Test
+    void exportarClientes_CuandoFallaAntesDeEnviarDatos_DeberiaResponderConElErrorEnJson() throws Exception {
+        log.info("Iniciando prueba: exportarClientes_CuandoFallaAntesDeEnviarDatos_DeberiaResponderConElErrorEnJson");
+
+        when(clienteExportacionService.exportarClientes(eq(FormatoExportacion.NDJSON), any()))
+                .thenThrow(new IllegalStateException("sin conexión"));
+
+        mockMvc.perform(get("/cliente/exportacion"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.estado").value(500));
+    }
+
+    @Test
+    void exportarClientes_CuandoFallaConLaRespuestaYaEnviada_NoDeberiaEscribirUnCuerpoDeError() throws Exception {
+        log.info("Iniciando prueba: exportarClientes_CuandoFallaConLaRespuestaYaEnviada_NoDeberiaEscribirUnCuerpoDeError");
+
+        when(clienteExportacionService.exportarClientes(eq(FormatoExportacion.NDJSON), any())).thenAnswer(invocacion -> {
+            OutputStream salida = invocacion.getArgument(1);
+            salida.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            salida.flush();
+            throw new IllegalStateException("se perdió la conexión a la base de datos");
+        });
+
+        // Si ExcepcionesGlobales hubiera respondido con JSON, la excepción no llegaría al contenedor.
+        ServletException ex = assertThrows(ServletException.class, () -> mockMvc.perform(get("/cliente/exportacion")));
+
+        log.info("Excepción recibida por el contenedor: {}", ex.getCause().getMessage());
+        assertInstanceOf(ExportacionInterrumpidaException.class, ex.getCause());
+    }
+}
@@ -0,0 +1,163 @@
+package com.paucar.customer_ms.cuentas;
+
+import com.paucar.customer_ms.config.ClientePropiedades;
+import com.paucar.customer_ms.dto.ConteoCuentasActivasDTO;
+import com.paucar.customer_ms.dto.ResultadoLoteDTO;
+import com.paucar.customer_ms.model.CuentasActivasCliente;
+import com.paucar.customer_ms.repository.CuentasActivasClienteRepository;
+import com.paucar.customer_ms.service.cuentas.VistaCuentasActivasServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class VistaCuentasActivasServiceImplTest {
+
+    private static final Logger log = LoggerFactory.getLogger(VistaCuentasActivasServiceImplTest.class);
+
+    @Mock
+    private CuentasActivasClienteRepository cuentasActivasClienteRepository;
+
+    private ClientePropiedades clientePropiedades;
+    private SimpleMeterRegistry meterRegistry;
+    private VistaCuentasActivasServiceImpl vistaCuentasActivasService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        clientePropiedades = new ClientePropiedades();
+        meterRegistry = new SimpleMeterRegistry();
+        vistaCuentasActivasService = new VistaCuentasActivasServiceImpl(
+                cuentasActivasClienteRepository, clientePropiedades, meterRegistry);
+    }
+
+    @Test
+    void registrarConteos_DeberiaReemplazarSoloConteosMasAntiguos() {
+        log.info("Iniciando prueba: registrarConteos_DeberiaReemplazarSoloConteosMasAntiguos");
+
+        Instant ahora = Instant.now();
+        CuentasActivasCliente existente = new CuentasActivasCliente(1L, 3, ahora.minusSeconds(60));
+        when(cuentasActivasClienteRepository.findAllById(anyIterable())).thenReturn(List.of(existente));
+
+        ResultadoLoteDTO resultado = vistaCuentasActivasService.registrarConteos(Arrays.asList(
+                conteo(1L, 0, ahora.minusSeconds(30)),
+                conteo(1L, 5, ahora.minusSeconds(90)),
+                conteo(2L, 1, ahora.minusSeconds(10)),
+                conteo(2L, 0, ahora.minusSeconds(5)),
+                conteo(3L, -1, ahora),
+                null));
+
+        log.info("Resultado: {} exitosos, {} fallidos", resultado.getExitosos(), resultado.getFallidos());
+        assertEquals(4, resultado.getExitosos());
+        assertEquals(2, resultado.getFallidos());
+        assertEquals("Conteo ignorado: ya hay uno igual o más reciente", resultado.getResultados().get(1).getMensaje());
+        assertEquals("La cantidad de cuentas activas debe ser un número mayor o igual a cero.",
+                resultado.getResultados().get(4).getMensaje());
+        assertEquals("El ID del cliente es obligatorio.", resultado.getResultados().get(5).getMensaje());
+
+        assertEquals(0, existente.getCuentasActivas());
+        assertEquals(ahora.minusSeconds(30), existente.getActualizadoEn());
+        verify(cuentasActivasClienteRepository, times(1)).saveAll(argThat(nuevos -> {
+            List<CuentasActivasCliente> lista = (List<CuentasActivasCliente>) nuevos;
+            return lista.size() == 1 && lista.get(0).getClienteId() == 2L && lista.get(0).getCuentasActivas() == 0;
+        }));
+    }
+
+    @Test
+    void registrarConteos_ConFechaFutura_DeberiaGuardarLaDeRecepcion() {
+        log.info("Iniciando prueba: registrarConteos_ConFechaFutura_DeberiaGuardarLaDeRecepcion");
+
+        Instant futuro = Instant.now().plus(Duration.ofDays(1));
+        when(cuentasActivasClienteRepository.findAllById(anyIterable())).thenReturn(List.of());
+
+        vistaCuentasActivasService.registrarConteos(List.of(conteo(1L, 1, futuro)));
+
+        verify(cuentasActivasClienteRepository).saveAll(argThat(nuevos ->
+                ((List<CuentasActivasCliente>) nuevos).get(0).getActualizadoEn().isBefore(futuro)));
+    }
+
+    @Test
+    void registrarConteos_CuandoElLoteEstaVacio_DeberiaLanzarExcepcion() {
+        log.info("Iniciando prueba: registrarConteos_CuandoElLoteEstaVacio_DeberiaLanzarExcepcion");
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> vistaCuentasActivasService.registrarConteos(List.of()));
+
+        assertEquals("El lote de conteos no puede estar vacío.", ex.getMessage());
+        verifyNoInteractions(cuentasActivasClienteRepository);
+    }
+
+    @Test
+    void tieneCuentasActivas_DeberiaUsarSoloConteosVigentes() {
+        log.info("Iniciando prueba: tieneCuentasActivas_DeberiaUsarSoloConteosVigentes");
+
+        Instant ahora = Instant.now();
+        when(cuentasActivasClienteRepository.findById(1L))
+                .thenReturn(Optional.of(new CuentasActivasCliente(1L, 2, ahora.minusSeconds(30))));
+        when(cuentasActivasClienteRepository.findById(2L))
+                .thenReturn(Optional.of(new CuentasActivasCliente(2L, 0, ahora.minusSeconds(30))));
+        when(cuentasActivasClienteRepository.findById(3L))
+                .thenReturn(Optional.of(new CuentasActivasCliente(3L, 0, ahora.minus(Duration.ofHours(1)))));
+        when(cuentasActivasClienteRepository.findById(4L)).thenReturn(Optional.empty());
+
+        assertEquals(Optional.of(true), vistaCuentasActivasService.tieneCuentasActivas(1L));
+        assertEquals(Optional.of(false), vistaCuentasActivasService.tieneCuentasActivas(2L));
+        assertEquals(Optional.empty(), vistaCuentasActivasService.tieneCuentasActivas(3L));
+        assertEquals(Optional.empty(), vistaCuentasActivasService.tieneCuentasActivas(4L));
+
+        assertEquals(2, meterRegistry.get("cliente.cuentas.vista.consultas").tag("resultado", "vigente").counter().count());
+        assertEquals(1, meterRegistry.get("cliente.cuentas.vista.consultas").tag("resultado", "vencido").counter().count());
+        assertEquals(1, meterRegistry.get("cliente.cuentas.vista.consultas").tag("resultado", "ausente").counter().count());
+    }
+
+    @Test
+    void tieneCuentasActivas_EnLote_DeberiaLeerUnaVezYDevolverSoloLosVigentes() {
+        log.info("Iniciando prueba: tieneCuentasActivas_EnLote_DeberiaLeerUnaVezYDevolverSoloLosVigentes");
+
+        Instant ahora = Instant.now();
+        when(cuentasActivasClienteRepository.findAllById(anyIterable())).thenReturn(List.of(
+                new CuentasActivasCliente(1L, 2, ahora.minusSeconds(30)),
+                new CuentasActivasCliente(2L, 0, ahora.minusSeconds(30)),
+                new CuentasActivasCliente(3L, 0, ahora.minus(Duration.ofHours(1)))));
+
+        Map<Long, Boolean> vigentes = vistaCuentasActivasService.tieneCuentasActivas(Set.of(1L, 2L, 3L, 4L));
+
+        assertEquals(Map.of(1L, true, 2L, false), vigentes);
+        verify(cuentasActivasClienteRepository, never()).findById(anyLong());
+        assertEquals(2, meterRegistry.get("cliente.cuentas.vista.consultas").tag("resultado", "vigente").counter().count());
+        assertEquals(1, meterRegistry.get("cliente.cuentas.vista.consultas").tag("resultado", "vencido").counter().count());
+        assertEquals(1, meterRegistry.get("cliente.cuentas.vista.consultas").tag("resultado", "ausente").counter().count());
+    }
+
+    @Test
+    void tieneCuentasActivas_CuandoEstaDeshabilitada_NoDeberiaLeerLaTabla() {
+        log.info("Iniciando prueba: tieneCuentasActivas_CuandoEstaDeshabilitada_NoDeberiaLeerLaTabla");
+
+        clientePropiedades.getVistaCuentas().setHabilitado(false);
+
+        assertEquals(Optional.empty(), vistaCuentasActivasService.tieneCuentasActivas(1L));
+        verifyNoInteractions(cuentasActivasClienteRepository);
+    }
+
+    private static ConteoCuentasActivasDTO conteo(Long clienteId, int cuentasActivas, Instant actualizadoEn) {
+        return ConteoCuentasActivasDTO.builder()
+                .clienteId(clienteId)
+                .cuentasActivas(cuentasActivas)
+                .actualizadoEn(actualizadoEn)
+                .build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.paucar.customer_ms.exception;
+
+import com.paucar.customer_ms.util.ApiResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ExcepcionesGlobalesTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ExcepcionesGlobalesTest.class);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ExcepcionesGlobales excepcionesGlobales = new ExcepcionesGlobales(meterRegistry);
+
+    @Test
+    void manejarExcepcionIntegridadDatos_CuandoViolaEmailUnico_DeberiaResponderComoEmailYaRegistrado() {
+        log.info("Prueba: manejarExcepcionIntegridadDatos_CuandoViolaEmailUnico_DeberiaResponderComoEmailYaRegistrado");
+
+        DataIntegrityViolationException ex = new DataIntegrityViolationException("duplicado",
+                new ConstraintViolationException("Duplicate entry", new SQLException("Duplicate entry"), "cliente.UK_CLIENTE_EMAIL"));
+
+        ResponseEntity<ApiResponse<Void>> response = excepcionesGlobales.manejarExcepcionIntegridadDatos(ex);
+
+        log.info("Resultado: HttpStatus = {}, Mensaje = {}", response.getStatusCode(), response.getBody().getMensaje());
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("El correo electrónico ya está en uso.", response.getBody().getMensaje());
+    }
+
+    @Test
+    void manejarExcepcionIntegridadDatos_CuandoElMensajeMencionaDniUnico_DeberiaResponderComoDniYaRegistrado() {
+        log.info("Prueba: manejarExcepcionIntegridadDatos_CuandoElMensajeMencionaDniUnico_DeberiaResponderComoDniYaRegistrado");
+
+        DataIntegrityViolationException ex = new DataIntegrityViolationException("duplicado",
+                new SQLException("Duplicate entry '12345678' for key 'cliente.uk_cliente_dni'"));
+
+        ResponseEntity<ApiResponse<Void>> response = excepcionesGlobales.manejarExcepcionIntegridadDatos(ex);
+
+        log.info("Resultado: HttpStatus = {}, Mensaje = {}", response.getStatusCode(), response.getBody().getMensaje());
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("El DNI ya está en uso.", response.getBody().getMensaje());
+    }
+
+    @Test
+    void manejarExcepcionIntegridadDatos_CuandoEsOtraRestriccion_DeberiaResponderConflicto() {
+        log.info("Prueba: manejarExcepcionIntegridadDatos_CuandoEsOtraRestriccion_DeberiaResponderConflicto");
+
+        DataIntegrityViolationException ex = new DataIntegrityViolationException("otra", new SQLException("fk_violada"));
+
+        ResponseEntity<ApiResponse<Void>> response = excepcionesGlobales.manejarExcepcionIntegridadDatos(ex);
+
+        log.info("Resultado: HttpStatus = {}, Mensaje = {}", response.getStatusCode(), response.getBody().getMensaje());
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    }
+
+    @Test
+    void manejarExcepciones_DeberiaContarPorTipoDeExcepcion() {
+        log.info("Prueba: manejarExcepciones_DeberiaContarPorTipoDeExcepcion");
+
+        excepcionesGlobales.manejarExcepcionClienteNoEncontrado(new ClienteNoEncontradoException("no existe"));
+        excepcionesGlobales.manejarExcepcionClienteNoEncontrado(new ClienteNoEncontradoException("no existe"));
+        excepcionesGlobales.manejarExcepcionIntegridadDatos(new DataIntegrityViolationException("duplicado",
+                new SQLException("Duplicate entry '12345678' for key 'cliente.uk_cliente_dni'")));
+
+        assertEquals(2.0, meterRegistry.get("cliente.excepciones")
+                .tag("excepcion", "ClienteNoEncontradoException").counter().count());
+        assertEquals(1.0, meterRegistry.get("cliente.excepciones")
+                .tag("excepcion", "DataIntegrityViolationException").counter().count());
+        assertNull(meterRegistry.find("cliente.excepciones").tag("excepcion", "DniYaRegistradoException").counter());
+    }
+}
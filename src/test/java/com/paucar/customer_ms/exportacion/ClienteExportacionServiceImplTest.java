@@ -0,0 +1,117 @@
+package com.paucar.customer_ms.exportacion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paucar.customer_ms.config.ClientePropiedades;
+import com.paucar.customer_ms.dto.ClienteDTO;
+import com.paucar.customer_ms.mapper.ClienteMapper;
+import com.paucar.customer_ms.model.Cliente;
+import com.paucar.customer_ms.repository.ClienteRepository;
+import com.paucar.customer_ms.service.exportacion.ClienteExportacionServiceImpl;
+import com.paucar.customer_ms.util.FormatoExportacion;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ClienteExportacionServiceImplTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ClienteExportacionServiceImplTest.class);
+
+    @Mock
+    private ClienteRepository clienteRepository;
+
+    @Mock
+    private ClienteMapper clienteMapper;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private ClientePropiedades clientePropiedades = new ClientePropiedades();
+
+    @InjectMocks
+    private ClienteExportacionServiceImpl clienteExportacionService;
+
+    private Cliente juan;
+    private Cliente maria;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        juan = Cliente.builder().id(1L).nombre("Juan").apellido("Perez").dni("12345678").email("juan@gmail.com").build();
+        maria = Cliente.builder().id(2L).nombre("Maria, \"Mary\"").apellido("Lopez").dni("87654321").email("maria@gmail.com").build();
+
+        when(clienteRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(juan, maria));
+        when(clienteMapper.convertiADTO(juan)).thenReturn(ClienteDTO.builder()
+                .id(1L).nombre("Juan").apellido("Perez").dni("12345678").email("juan@gmail.com").build());
+        when(clienteMapper.convertiADTO(maria)).thenReturn(ClienteDTO.builder()
+                .id(2L).nombre("Maria, \"Mary\"").apellido("Lopez").dni("87654321").email("maria@gmail.com").build());
+    }
+
+    @Test
+    void exportarClientes_EnNdjson_DeberiaEscribirUnaLineaPorCliente() throws Exception {
+        log.info("Iniciando prueba: exportarClientes_EnNdjson_DeberiaEscribirUnaLineaPorCliente");
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        long filas = clienteExportacionService.exportarClientes(FormatoExportacion.NDJSON, salida);
+
+        String contenido = salida.toString(StandardCharsets.UTF_8);
+        log.info("Contenido exportado:\n{}", contenido);
+
+        String[] lineas = contenido.split("\n");
+        assertEquals(2, filas);
+        assertEquals(2, lineas.length);
+        assertEquals("Juan", objectMapper.readTree(lineas[0]).get("nombre").asText());
+        assertEquals(2L, objectMapper.readTree(lineas[1]).get("id").asLong());
+        assertTrue(contenido.endsWith("\n"));
+    }
+
+    @Test
+    void exportarClientes_EnCsv_DeberiaEscaparCamposYEscribirCabecera() throws Exception {
+        log.info("Iniciando prueba: exportarClientes_EnCsv_DeberiaEscaparCamposYEscribirCabecera");
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        clienteExportacionService.exportarClientes(FormatoExportacion.CSV, salida);
+
+        String contenido = salida.toString(StandardCharsets.UTF_8);
+        log.info("Contenido exportado:\n{}", contenido);
+
+        assertEquals("id,nombre,apellido,dni,email\n"
+                + "1,Juan,Perez,12345678,juan@gmail.com\n"
+                + "2,\"Maria, \"\"Mary\"\"\",Lopez,87654321,maria@gmail.com\n", contenido);
+    }
+
+    @Test
+    void exportarClientes_DeberiaDesacoplarCadaEntidadDelContextoDePersistencia() throws Exception {
+        log.info("Iniciando prueba: exportarClientes_DeberiaDesacoplarCadaEntidadDelContextoDePersistencia");
+
+        clienteExportacionService.exportarClientes(FormatoExportacion.NDJSON, new ByteArrayOutputStream());
+
+        verify(entityManager, times(1)).detach(juan);
+        verify(entityManager, times(1)).detach(maria);
+    }
+
+    @Test
+    void formatoExportacion_CuandoNoEsSoportado_DeberiaLanzarExcepcion() {
+        log.info("Iniciando prueba: formatoExportacion_CuandoNoEsSoportado_DeberiaLanzarExcepcion");
+
+        assertThrows(IllegalArgumentException.class, () -> FormatoExportacion.desde("xml"));
+        assertEquals(FormatoExportacion.CSV, FormatoExportacion.desde("CSV"));
+    }
+}
@@ -1,29 +1,45 @@
 package com.paucar.customer_ms.gestion;
 
-import com.paucar.customer_ms.client.CuentaFeign;
+import com.paucar.customer_ms.client.ConsultaCuentasActivas;
+import com.paucar.customer_ms.config.ClientePropiedades;
+import com.paucar.customer_ms.dto.CambiosClienteDTO;
 import com.paucar.customer_ms.dto.ClienteDTO;
+import com.paucar.customer_ms.dto.ResultadoLoteDTO;
 import com.paucar.customer_ms.exception.ClienteConCuentasActivasException;
 import com.paucar.customer_ms.exception.ClienteNoEncontradoException;
+import com.paucar.customer_ms.exception.EmailYaRegistradoException;
+import com.paucar.customer_ms.exception.ServicioCuentasNoDisponibleException;
+import com.paucar.customer_ms.exception.VersionClienteNoCoincideException;
 import com.paucar.customer_ms.mapper.ClienteMapper;
 import com.paucar.customer_ms.model.Cliente;
-import com.paucar.customer_ms.client.dto.Cuenta;
 import com.paucar.customer_ms.repository.ClienteRepository;
+import com.paucar.customer_ms.repository.NombreCliente;
+import com.paucar.customer_ms.service.cache.ClienteCache;
+import com.paucar.customer_ms.service.cache.ListadoClientesCache;
+import com.paucar.customer_ms.service.consulta.IndiceBusquedaClientes;
+import com.paucar.customer_ms.service.cuentas.VistaCuentasActivasService;
 import com.paucar.customer_ms.service.gestion.ClienteGestionServiceImpl;
+import com.paucar.customer_ms.service.gestion.ConsultasParalelas;
 import com.paucar.customer_ms.service.validacion.ClienteValidacionService;
-import com.paucar.customer_ms.util.ApiResponse;
-import com.paucar.customer_ms.util.EstadoCuenta;
+import com.paucar.customer_ms.service.validacion.IndiceClientesRegistrados;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -39,11 +55,32 @@ class ClienteGestionServiceImplTest {
     private ClienteMapper clienteMapper;
 
     @Mock
-    private CuentaFeign cuentaFeign;
+    private ConsultaCuentasActivas consultaCuentasActivas;
+
+    @Mock
+    private VistaCuentasActivasService vistaCuentasActivasService;
 
     @Mock
     private ClienteValidacionService clienteValidacionService;
 
+    @Spy
+    private ClientePropiedades clientePropiedades = new ClientePropiedades();
+
+    @Mock
+    private ClienteCache clienteCache;
+
+    @Mock
+    private ListadoClientesCache listadoClientesCache;
+
+    @Mock
+    private IndiceClientesRegistrados indiceClientesRegistrados;
+
+    @Mock
+    private IndiceBusquedaClientes indiceBusquedaClientes;
+
+    @Spy
+    private ConsultasParalelas consultasParalelas = new ConsultasParalelas(new ClientePropiedades(), new MockEnvironment());
+
     @InjectMocks
     private ClienteGestionServiceImpl clienteGestionService;
 
@@ -83,6 +120,81 @@ class ClienteGestionServiceImplTest {
         assertNotNull(resultado);
         assertEquals("Juan", resultado.getNombre());
         verify(clienteRepository, times(1)).save(clienteEntidad);
+        verify(listadoClientesCache, times(1)).invalidar();
+        verify(indiceClientesRegistrados, times(1)).registrar("juan@gmail.com", "12345678");
+        verify(indiceBusquedaClientes, times(1)).registrar(1L, "Juan", "Perez");
+    }
+
+    @Test
+    void guardarClientesEnLote_CuandoHayErrores_DeberiaGuardarSoloLosValidosYReportarPorItem() {
+        log.info("Iniciando prueba: guardarClientesEnLote_CuandoHayErrores_DeberiaGuardarSoloLosValidosYReportarPorItem");
+
+        ClienteDTO juanDTO = ClienteDTO.builder().nombre("Juan").apellido("Perez").dni("12345678").email("juan@gmail.com").build();
+        ClienteDTO mariaDTO = ClienteDTO.builder().nombre("Maria").apellido("Lopez").dni("12345678").email("maria@gmail.com").build();
+        Cliente juan = Cliente.builder().nombre("Juan").apellido("Perez").dni("12345678").email("juan@gmail.com").build();
+        Cliente maria = Cliente.builder().nombre("Maria").apellido("Lopez").dni("12345678").email("maria@gmail.com").build();
+
+        when(clienteMapper.convertirAEntidad(juanDTO)).thenReturn(juan);
+        when(clienteMapper.convertirAEntidad(mariaDTO)).thenReturn(maria);
+        when(clienteValidacionService.validarClientesEnLote(List.of(juan, maria)))
+                .thenReturn(Arrays.asList(null, "El DNI está repetido en el lote: 12345678"));
+        when(clienteRepository.saveAll(List.of(juan))).thenAnswer(invocacion -> {
+            juan.setId(10L);
+            return List.of(juan);
+        });
+        when(clienteMapper.convertiADTO(juan)).thenReturn(juanDTO);
+
+        ResultadoLoteDTO resultado = clienteGestionService.guardarClientesEnLote(List.of(juanDTO, mariaDTO));
+
+        log.info("Resultado del lote: {}", resultado);
+
+        assertEquals(2, resultado.getTotal());
+        assertEquals(1, resultado.getExitosos());
+        assertEquals(1, resultado.getFallidos());
+        assertTrue(resultado.getResultados().get(0).isExitoso());
+        assertEquals(10L, resultado.getResultados().get(0).getId());
+        assertFalse(resultado.getResultados().get(1).isExitoso());
+        assertEquals("El DNI está repetido en el lote: 12345678", resultado.getResultados().get(1).getMensaje());
+        verify(clienteRepository, times(1)).saveAll(List.of(juan));
+        verify(listadoClientesCache, times(1)).invalidar();
+    }
+
+    @Test
+    void guardarClientesEnLote_DentroDeUnaTransaccion_DeberiaRegistrarEnLosIndicesSoloAlConfirmar() {
+        log.info("Iniciando prueba: guardarClientesEnLote_DentroDeUnaTransaccion_DeberiaRegistrarEnLosIndicesSoloAlConfirmar");
+
+        ClienteDTO juanDTO = ClienteDTO.builder().nombre("Juan").apellido("Perez").dni("12345678").email("juan@gmail.com").build();
+        Cliente juan = Cliente.builder().nombre("Juan").apellido("Perez").dni("12345678").email("juan@gmail.com").build();
+        when(clienteMapper.convertirAEntidad(juanDTO)).thenReturn(juan);
+        when(clienteValidacionService.validarClientesEnLote(List.of(juan))).thenReturn(Arrays.asList((String) null));
+        when(clienteRepository.saveAll(List.of(juan))).thenAnswer(invocacion -> {
+            juan.setId(10L);
+            return List.of(juan);
+        });
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            clienteGestionService.guardarClientesEnLote(List.of(juanDTO));
+
+            verifyNoInteractions(indiceClientesRegistrados, indiceBusquedaClientes);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(indiceClientesRegistrados, times(1)).registrar("juan@gmail.com", "12345678");
+        verify(indiceBusquedaClientes, times(1)).registrar(10L, "Juan", "Perez");
+    }
+
+    @Test
+    void guardarClientesEnLote_CuandoSuperaElTamanoMaximo_DeberiaLanzarExcepcion() {
+        log.info("Iniciando prueba: guardarClientesEnLote_CuandoSuperaElTamanoMaximo_DeberiaLanzarExcepcion");
+
+        clientePropiedades.getLote().setTamanoMaximo(1);
+        List<ClienteDTO> lote = List.of(new ClienteDTO(), new ClienteDTO());
+
+        assertThrows(IllegalArgumentException.class, () -> clienteGestionService.guardarClientesEnLote(lote));
+        verify(clienteRepository, never()).saveAll(any());
     }
 
     @Test
@@ -110,13 +222,162 @@ class ClienteGestionServiceImplTest {
         when(clienteRepository.save(clienteExistente)).thenReturn(clienteExistente);
         when(clienteMapper.convertiADTO(clienteExistente)).thenReturn(clienteDTO);
 
-        ClienteDTO resultado = clienteGestionService.actualizarCliente(1L, clienteDTO);
+        ClienteDTO resultado = clienteGestionService.actualizarCliente(1L, clienteDTO, null);
 
         log.info("Resultado de actualización de cliente: {}", resultado);
 
         assertNotNull(resultado);
         assertEquals("Juanito", resultado.getNombre());
         verify(clienteRepository, times(1)).save(clienteExistente);
+        verify(clienteCache, times(1)).invalidar(1L);
+        verify(listadoClientesCache, times(1)).invalidar();
+        verify(indiceBusquedaClientes, times(1)).registrar(eq(1L), anyString(), anyString());
+    }
+
+    @Test
+    void actualizarCliente_ConVersionDesactualizada_NoDeberiaGuardar() {
+        log.info("Iniciando prueba: actualizarCliente_ConVersionDesactualizada_NoDeberiaGuardar");
+
+        Cliente clienteExistente = Cliente.builder().id(1L).nombre("Juan").version(5L).build();
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(clienteExistente));
+        // La validación corre a la vez que la lectura, pero su error no desplaza al de la versión.
+        doThrow(new EmailYaRegistradoException("El correo electrónico ya está en uso: juan@gmail.com"))
+                .when(clienteValidacionService).validarCliente(any(), eq(1L));
+
+        VersionClienteNoCoincideException exception = assertThrows(VersionClienteNoCoincideException.class,
+                () -> clienteGestionService.actualizarCliente(1L, ClienteDTO.builder().nombre("Juanito").build(), 4L));
+
+        log.error("Excepción lanzada: {}", exception.getMessage());
+        verify(clienteRepository, never()).save(any());
+    }
+
+    @Test
+    void actualizarCliente_CuandoElEmailYaEstaRegistrado_DeberiaPropagarLaExcepcionDeValidacion() {
+        log.info("Iniciando prueba: actualizarCliente_CuandoElEmailYaEstaRegistrado_DeberiaPropagarLaExcepcionDeValidacion");
+
+        Cliente clienteExistente = Cliente.builder().id(1L).nombre("Juan").version(5L).build();
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(clienteExistente));
+        doThrow(new EmailYaRegistradoException("El correo electrónico ya está en uso: juan@gmail.com"))
+                .when(clienteValidacionService).validarCliente(any(), eq(1L));
+
+        EmailYaRegistradoException exception = assertThrows(EmailYaRegistradoException.class,
+                () -> clienteGestionService.actualizarCliente(1L, ClienteDTO.builder().email("juan@gmail.com").build(), 5L));
+
+        assertEquals("El correo electrónico ya está en uso: juan@gmail.com", exception.getMessage());
+        verify(clienteRepository, never()).save(any());
+    }
+
+    @Test
+    void actualizarCliente_CuandoOtraOperacionLoModificaAntesDeGuardar_DeberiaFallarLaPrecondicion() {
+        log.info("Iniciando prueba: actualizarCliente_CuandoOtraOperacionLoModificaAntesDeGuardar_DeberiaFallarLaPrecondicion");
+
+        Cliente clienteExistente = Cliente.builder().id(1L).nombre("Juan").apellido("Perez").dni("12345678").version(5L).build();
+        ClienteDTO clienteDTO = ClienteDTO.builder().nombre("Juanito").apellido("Perez").dni("12345678").build();
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(clienteExistente));
+        when(clienteMapper.convertirAEntidad(clienteDTO)).thenReturn(Cliente.builder().nombre("Juanito").apellido("Perez").dni("12345678").build());
+        when(clienteRepository.save(clienteExistente)).thenThrow(new ObjectOptimisticLockingFailureException(Cliente.class, 1L));
+
+        assertThrows(VersionClienteNoCoincideException.class,
+                () -> clienteGestionService.actualizarCliente(1L, clienteDTO, 5L));
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> clienteGestionService.actualizarCliente(1L, clienteDTO, null));
+        verify(indiceBusquedaClientes, never()).registrar(any(), any(), any());
+    }
+
+    @Test
+    void eliminarClientePorId_ConVersion_DeberiaEliminarSoloSiNoCambio() {
+        log.info("Iniciando prueba: eliminarClientePorId_ConVersion_DeberiaEliminarSoloSiNoCambio");
+
+        when(clienteRepository.findVersionById(1L)).thenReturn(Optional.of(3L));
+        when(consultaCuentasActivas.tieneCuentasActivas(1L)).thenReturn(false);
+        when(clienteRepository.eliminarPorIdYVersion(1L, 3L)).thenReturn(1).thenReturn(0);
+
+        clienteGestionService.eliminarClientePorId(1L, 3L);
+        assertThrows(VersionClienteNoCoincideException.class, () -> clienteGestionService.eliminarClientePorId(1L, 3L));
+        assertThrows(VersionClienteNoCoincideException.class, () -> clienteGestionService.eliminarClientePorId(1L, 2L));
+
+        verify(clienteRepository, times(2)).eliminarPorIdYVersion(1L, 3L);
+        verify(clienteRepository, never()).deleteById(anyLong());
+        verify(indiceBusquedaClientes, times(1)).quitar(1L);
+    }
+
+    @Test
+    void actualizarClienteParcialmente_DeberiaActualizarSinLeerElCliente() {
+        log.info("Iniciando prueba: actualizarClienteParcialmente_DeberiaActualizarSinLeerElCliente");
+
+        CambiosClienteDTO cambios = CambiosClienteDTO.builder().email("nuevo@gmail.com").build();
+        when(clienteRepository.actualizarCampos(1L, cambios, null)).thenReturn(1);
+
+        clienteGestionService.actualizarClienteParcialmente(1L, cambios, null);
+
+        verify(clienteValidacionService, times(1)).validarCambios(1L, cambios);
+        verify(clienteRepository, never()).findById(anyLong());
+        verify(clienteRepository, never()).save(any());
+        verify(clienteCache, times(1)).invalidar(1L);
+        verify(listadoClientesCache, times(1)).invalidar();
+        verify(indiceClientesRegistrados, times(1)).registrar("nuevo@gmail.com", null);
+        verifyNoInteractions(indiceBusquedaClientes);
+    }
+
+    @Test
+    void actualizarClienteParcialmente_CuandoCambiaElNombreCompleto_DeberiaIndexarloSinLeer() {
+        log.info("Iniciando prueba: actualizarClienteParcialmente_CuandoCambiaElNombreCompleto_DeberiaIndexarloSinLeer");
+
+        CambiosClienteDTO cambios = CambiosClienteDTO.builder().nombre("Juanito").apellido("Quispe").dni("87654321").build();
+        when(clienteRepository.actualizarCampos(1L, cambios, null)).thenReturn(1);
+
+        clienteGestionService.actualizarClienteParcialmente(1L, cambios, null);
+
+        verify(indiceClientesRegistrados, times(1)).registrar(null, "87654321");
+        verify(indiceClientesRegistrados, never()).quitarDni(any());
+        verify(indiceBusquedaClientes, times(1)).registrar(1L, "Juanito", "Quispe");
+        verify(clienteRepository, never()).actualizarCamposYLeerNombre(anyLong(), any(), any());
+        verify(clienteRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void actualizarClienteParcialmente_CuandoCambiaSoloElNombre_DeberiaLeerElApellidoConElUpdate() {
+        log.info("Iniciando prueba: actualizarClienteParcialmente_CuandoCambiaSoloElNombre_DeberiaLeerElApellidoConElUpdate");
+
+        CambiosClienteDTO cambios = CambiosClienteDTO.builder().nombre("Juanito").build();
+        NombreCliente nombre = mock(NombreCliente.class);
+        when(nombre.getNombre()).thenReturn("Juanito");
+        when(nombre.getApellido()).thenReturn("Perez");
+        when(clienteRepository.actualizarCamposYLeerNombre(1L, cambios, 2L)).thenReturn(Optional.of(nombre));
+
+        clienteGestionService.actualizarClienteParcialmente(1L, cambios, 2L);
+
+        verify(indiceBusquedaClientes, times(1)).registrar(1L, "Juanito", "Perez");
+        verify(clienteRepository, never()).actualizarCampos(anyLong(), any(), any());
+    }
+
+    @Test
+    void actualizarClienteParcialmente_CuandoNoActualizaNingunaFila_DeberiaDistinguirInexistenteDeVersionDistinta() {
+        log.info("Iniciando prueba: actualizarClienteParcialmente_CuandoNoActualizaNingunaFila_DeberiaDistinguirInexistenteDeVersionDistinta");
+
+        CambiosClienteDTO cambios = CambiosClienteDTO.builder().apellido("Quispe").build();
+        when(clienteRepository.actualizarCamposYLeerNombre(anyLong(), eq(cambios), any())).thenReturn(Optional.empty());
+        when(clienteRepository.findVersionById(1L)).thenReturn(Optional.of(4L));
+        when(clienteRepository.findVersionById(999L)).thenReturn(Optional.empty());
+
+        assertThrows(ClienteNoEncontradoException.class,
+                () -> clienteGestionService.actualizarClienteParcialmente(999L, cambios, null));
+        assertThrows(ClienteNoEncontradoException.class,
+                () -> clienteGestionService.actualizarClienteParcialmente(999L, cambios, 3L));
+        assertThrows(VersionClienteNoCoincideException.class,
+                () -> clienteGestionService.actualizarClienteParcialmente(1L, cambios, 3L));
+        verify(clienteRepository, times(2)).findVersionById(anyLong());
+        verify(clienteCache, never()).invalidar(anyLong());
+        verify(listadoClientesCache, never()).invalidar();
+    }
+
+    @Test
+    void actualizarClienteParcialmente_SinCampos_DeberiaLanzarExcepcion() {
+        log.info("Iniciando prueba: actualizarClienteParcialmente_SinCampos_DeberiaLanzarExcepcion");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> clienteGestionService.actualizarClienteParcialmente(1L, new CambiosClienteDTO(), null));
+        verifyNoInteractions(clienteRepository);
     }
 
     @Test
@@ -124,15 +385,9 @@ class ClienteGestionServiceImplTest {
         log.info("Iniciando prueba: eliminarClientePorId_CuandoClienteTieneCuentasActivas_DeberiaLanzarExcepcion");
 
         when(clienteRepository.existsById(1L)).thenReturn(true);
+        when(consultaCuentasActivas.tieneCuentasActivas(1L)).thenReturn(true);
 
-        Cuenta cuentaActiva = Cuenta.builder().estado(EstadoCuenta.ACTIVO).build();
-        ApiResponse<List<Cuenta>> apiResponse = ApiResponse.<List<Cuenta>>builder()
-                .datos(Arrays.asList(cuentaActiva))
-                .build();
-
-        when(cuentaFeign.obtenerCuentasPorClienteId(1L)).thenReturn(ResponseEntity.ok(apiResponse));
-
-        assertThrows(ClienteConCuentasActivasException.class, () -> clienteGestionService.eliminarClientePorId(1L));
+        assertThrows(ClienteConCuentasActivasException.class, () -> clienteGestionService.eliminarClientePorId(1L, null));
         verify(clienteRepository, never()).deleteById(1L);
     }
 
@@ -143,7 +398,7 @@ class ClienteGestionServiceImplTest {
         when(clienteRepository.existsById(999L)).thenReturn(false);
 
         ClienteNoEncontradoException exception = assertThrows(ClienteNoEncontradoException.class, () -> {
-            clienteGestionService.eliminarClientePorId(999L);
+            clienteGestionService.eliminarClientePorId(999L, null);
         });
 
         String mensajeEsperado = "Cliente no encontrado con el ID: 999";
@@ -160,16 +415,138 @@ class ClienteGestionServiceImplTest {
         log.info("Iniciando prueba: eliminarClientePorId_CuandoClienteNoTieneCuentasActivas_DeberiaEliminarExitosamente");
 
         when(clienteRepository.existsById(1L)).thenReturn(true);
+        when(consultaCuentasActivas.tieneCuentasActivas(1L)).thenReturn(false);
 
-        ApiResponse<List<Cuenta>> apiResponse = ApiResponse.<List<Cuenta>>builder()
-                .datos(Arrays.asList())
-                .build();
-        when(cuentaFeign.obtenerCuentasPorClienteId(1L)).thenReturn(ResponseEntity.ok(apiResponse));
-
-        clienteGestionService.eliminarClientePorId(1L);
+        clienteGestionService.eliminarClientePorId(1L, null);
 
         log.info("Cliente con ID {} eliminado exitosamente.", 1L);
 
         verify(clienteRepository, times(1)).deleteById(1L);
+        verify(clienteCache, times(1)).invalidar(1L);
+        verify(listadoClientesCache, times(1)).invalidar();
+        verify(indiceBusquedaClientes, times(1)).quitar(1L);
+        verify(vistaCuentasActivasService, times(1)).quitar(List.of(1L));
+    }
+
+    @Test
+    void eliminarClientePorId_ConVersionDistinta_NoDeberiaConsultarLasCuentas() {
+        log.info("Iniciando prueba: eliminarClientePorId_ConVersionDistinta_NoDeberiaConsultarLasCuentas");
+
+        when(clienteRepository.findVersionById(1L)).thenReturn(Optional.of(4L));
+
+        assertThrows(VersionClienteNoCoincideException.class, () -> clienteGestionService.eliminarClientePorId(1L, 3L));
+        verifyNoInteractions(vistaCuentasActivasService, consultaCuentasActivas);
+        verify(clienteRepository, never()).eliminarPorIdYVersion(anyLong(), anyLong());
+    }
+
+    @Test
+    void eliminarClientePorId_CuandoNoExisteYElServicioDeCuentasFalla_DeberiaResponderNoEncontrado() {
+        log.info("Iniciando prueba: eliminarClientePorId_CuandoNoExisteYElServicioDeCuentasFalla_DeberiaResponderNoEncontrado");
+
+        when(clienteRepository.existsById(999L)).thenReturn(false);
+        when(consultaCuentasActivas.tieneCuentasActivas(999L)).thenThrow(new ServicioCuentasNoDisponibleException(
+                "El servicio de cuentas no está disponible temporalmente.", new IllegalStateException()));
+
+        assertThrows(ClienteNoEncontradoException.class, () -> clienteGestionService.eliminarClientePorId(999L, null));
+        verify(clienteRepository, never()).deleteById(anyLong());
+        verifyNoInteractions(consultaCuentasActivas);
+    }
+
+    @Test
+    void eliminarClientePorId_CuandoElServicioDeCuentasFalla_DeberiaPropagarSuExcepcion() {
+        log.info("Iniciando prueba: eliminarClientePorId_CuandoElServicioDeCuentasFalla_DeberiaPropagarSuExcepcion");
+
+        when(clienteRepository.existsById(1L)).thenReturn(true);
+        when(consultaCuentasActivas.tieneCuentasActivas(1L)).thenThrow(new ServicioCuentasNoDisponibleException(
+                "El servicio de cuentas no está disponible temporalmente.", new IllegalStateException()));
+
+        ServicioCuentasNoDisponibleException exception = assertThrows(ServicioCuentasNoDisponibleException.class,
+                () -> clienteGestionService.eliminarClientePorId(1L, null));
+
+        assertEquals("El servicio de cuentas no está disponible temporalmente.", exception.getMessage());
+        verify(clienteRepository, never()).deleteById(anyLong());
+    }
+
+    @Test
+    void eliminarClientePorId_ConConteoLocalVigente_NoDeberiaConsultarAlServicioDeCuentas() {
+        log.info("Iniciando prueba: eliminarClientePorId_ConConteoLocalVigente_NoDeberiaConsultarAlServicioDeCuentas");
+
+        when(clienteRepository.existsById(1L)).thenReturn(true);
+        when(clienteRepository.existsById(2L)).thenReturn(true);
+        when(vistaCuentasActivasService.tieneCuentasActivas(1L)).thenReturn(Optional.of(true));
+        when(vistaCuentasActivasService.tieneCuentasActivas(2L)).thenReturn(Optional.of(false));
+
+        assertThrows(ClienteConCuentasActivasException.class, () -> clienteGestionService.eliminarClientePorId(1L, null));
+        clienteGestionService.eliminarClientePorId(2L, null);
+
+        verifyNoInteractions(consultaCuentasActivas);
+        verify(clienteRepository, never()).deleteById(1L);
+        verify(clienteRepository, times(1)).deleteById(2L);
+    }
+
+    @Test
+    void eliminarClientesEnLote_CuandoHayCasosMixtos_DeberiaConsultarCuentasUnaVezYReportarPorItem() {
+        log.info("Iniciando prueba: eliminarClientesEnLote_CuandoHayCasosMixtos_DeberiaConsultarCuentasUnaVezYReportarPorItem");
+
+        when(clienteRepository.findIdsExistentes(anyCollection())).thenReturn(List.of(1L, 2L, 3L));
+        when(vistaCuentasActivasService.tieneCuentasActivas(anyCollection())).thenReturn(Map.of(3L, false));
+        when(consultaCuentasActivas.clientesConCuentasActivas(anyCollection())).thenReturn(Set.of(2L));
+
+        ResultadoLoteDTO resultado = clienteGestionService.eliminarClientesEnLote(Arrays.asList(1L, 2L, 3L, 999L, 1L));
+
+        log.info("Resultado del lote: {}", resultado);
+
+        assertEquals(5, resultado.getTotal());
+        assertEquals(2, resultado.getExitosos());
+        assertEquals(3, resultado.getFallidos());
+        assertTrue(resultado.getResultados().get(0).isExitoso());
+        assertEquals("No se puede eliminar el cliente con ID: 2 porque tiene cuentas activas.",
+                resultado.getResultados().get(1).getMensaje());
+        assertTrue(resultado.getResultados().get(2).isExitoso());
+        assertEquals("Cliente no encontrado con el ID: 999", resultado.getResultados().get(3).getMensaje());
+        assertEquals("El ID está repetido en el lote: 1", resultado.getResultados().get(4).getMensaje());
+
+        // El 3 tiene conteo local vigente: solo el 1 y el 2 se consultan a ACCOUNT-MS, en una única llamada.
+        verify(consultaCuentasActivas, times(1)).clientesConCuentasActivas(
+                argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(1L, 2L))));
+        verify(consultaCuentasActivas, never()).tieneCuentasActivas(anyLong());
+        verify(clienteRepository, times(1)).eliminarPorIds(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(1L, 3L))));
+        verify(vistaCuentasActivasService, times(1)).quitar(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(1L, 3L))));
+        verify(clienteRepository, never()).deleteById(anyLong());
+        verify(clienteCache, times(1)).invalidar(1L);
+        verify(indiceBusquedaClientes, times(1)).quitar(1L);
+        verify(indiceBusquedaClientes, times(1)).quitar(3L);
+        verify(clienteCache, times(1)).invalidar(3L);
+        verify(listadoClientesCache, times(1)).invalidar();
+    }
+
+    @Test
+    void eliminarClientesEnLote_CuandoNingunIdExiste_NoDeberiaLlamarAlServicioDeCuentas() {
+        log.info("Iniciando prueba: eliminarClientesEnLote_CuandoNingunIdExiste_NoDeberiaLlamarAlServicioDeCuentas");
+
+        when(clienteRepository.findIdsExistentes(anyCollection())).thenReturn(List.of());
+
+        ResultadoLoteDTO resultado = clienteGestionService.eliminarClientesEnLote(List.of(998L, 999L));
+
+        assertEquals(0, resultado.getExitosos());
+        assertEquals(2, resultado.getFallidos());
+        verifyNoInteractions(consultaCuentasActivas);
+        verify(clienteRepository, never()).eliminarPorIds(any());
+    }
+
+    @Test
+    void eliminarClientesEnLote_ConConteosLocalesVigentes_NoDeberiaConsultarAlServicioDeCuentas() {
+        log.info("Iniciando prueba: eliminarClientesEnLote_ConConteosLocalesVigentes_NoDeberiaConsultarAlServicioDeCuentas");
+
+        when(clienteRepository.findIdsExistentes(anyCollection())).thenReturn(List.of(1L, 2L));
+        when(vistaCuentasActivasService.tieneCuentasActivas(anyCollection())).thenReturn(Map.of(1L, true, 2L, false));
+
+        ResultadoLoteDTO resultado = clienteGestionService.eliminarClientesEnLote(List.of(1L, 2L));
+
+        assertEquals(1, resultado.getExitosos());
+        assertEquals("No se puede eliminar el cliente con ID: 1 porque tiene cuentas activas.",
+                resultado.getResultados().get(0).getMensaje());
+        verifyNoInteractions(consultaCuentasActivas);
+        verify(clienteRepository, times(1)).eliminarPorIds(List.of(2L));
     }
 }
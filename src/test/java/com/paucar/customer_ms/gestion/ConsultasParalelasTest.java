@@ -0,0 +1,77 @@
+package com.paucar.customer_ms.gestion;
+
+import com.paucar.customer_ms.config.ClientePropiedades;
+import com.paucar.customer_ms.exception.ClienteNoEncontradoException;
+import com.paucar.customer_ms.service.gestion.ConsultasParalelas;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsultasParalelasTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ConsultasParalelasTest.class);
+
+    private ConsultasParalelas consultasParalelas;
+
+    @AfterEach
+    void tearDown() {
+        consultasParalelas.destroy();
+    }
+
+    @Test
+    void iniciar_CuandoElPoolEstaLleno_DeberiaEjecutarEnElHiloQueLaPide() {
+        log.info("Iniciando prueba: iniciar_CuandoElPoolEstaLleno_DeberiaEjecutarEnElHiloQueLaPide");
+
+        ClientePropiedades propiedades = new ClientePropiedades();
+        propiedades.getConsultasParalelas().setHilosMaximos(1);
+        consultasParalelas = new ConsultasParalelas(propiedades, new MockEnvironment());
+
+        CountDownLatch liberar = new CountDownLatch(1);
+        Future<String> ocupada = consultasParalelas.iniciar(() -> {
+            liberar.await(5, TimeUnit.SECONDS);
+            return Thread.currentThread().getName();
+        });
+        Future<String> siguiente = consultasParalelas.iniciar(() -> Thread.currentThread().getName());
+
+        assertTrue(siguiente.isDone());
+        assertEquals(Thread.currentThread().getName(), consultasParalelas.esperar(siguiente));
+        liberar.countDown();
+        assertTrue(consultasParalelas.esperar(ocupada).startsWith("gestion-"));
+    }
+
+    @Test
+    void esperar_CuandoLaConsultaFalla_DeberiaRelanzarLaExcepcionOriginal() {
+        log.info("Iniciando prueba: esperar_CuandoLaConsultaFalla_DeberiaRelanzarLaExcepcionOriginal");
+
+        consultasParalelas = new ConsultasParalelas(new ClientePropiedades(), new MockEnvironment());
+        ClienteNoEncontradoException error = new ClienteNoEncontradoException("Cliente no encontrado con el ID: 1");
+
+        Future<Object> consulta = consultasParalelas.iniciar(() -> {
+            throw error;
+        });
+
+        assertSame(error, assertThrows(ClienteNoEncontradoException.class, () -> consultasParalelas.esperar(consulta)));
+    }
+
+    @Test
+    void iniciar_Deshabilitado_DeberiaEjecutarAlMomentoEnElHiloQueLaPide() {
+        log.info("Iniciando prueba: iniciar_Deshabilitado_DeberiaEjecutarAlMomentoEnElHiloQueLaPide");
+
+        ClientePropiedades propiedades = new ClientePropiedades();
+        propiedades.getConsultasParalelas().setHabilitado(false);
+        consultasParalelas = new ConsultasParalelas(propiedades, new MockEnvironment());
+
+        Future<String> consulta = consultasParalelas.iniciar(() -> Thread.currentThread().getName());
+
+        assertTrue(consulta.isDone());
+        assertEquals(Thread.currentThread().getName(), consultasParalelas.esperar(consulta));
+    }
+}
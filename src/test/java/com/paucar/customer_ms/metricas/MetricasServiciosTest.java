@@ -0,0 +1,82 @@
+package com.paucar.customer_ms.metricas;
+
+import com.paucar.customer_ms.config.ClientePropiedades;
+import com.paucar.customer_ms.dto.ClienteDTO;
+import com.paucar.customer_ms.repository.ClienteRepository;
+import com.paucar.customer_ms.service.cache.ClienteCache;
+import com.paucar.customer_ms.service.consulta.ClienteConsultaService;
+import com.paucar.customer_ms.service.consulta.ClienteConsultaServiceImpl;
+import com.paucar.customer_ms.service.consulta.IndiceBusquedaClientes;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+class MetricasServiciosTest {
+
+    private static final Logger log = LoggerFactory.getLogger(MetricasServiciosTest.class);
+
+    @Mock
+    private ClienteRepository clienteRepository;
+
+    @Mock
+    private ClienteCache clienteCache;
+
+    @Mock
+    private IndiceBusquedaClientes indiceBusquedaClientes;
+
+    private final PrometheusMeterRegistry meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+
+    private ClienteConsultaService clienteConsultaService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        AspectJProxyFactory fabrica = new AspectJProxyFactory(new ClienteConsultaServiceImpl(
+                clienteRepository, new ClientePropiedades(), clienteCache, indiceBusquedaClientes));
+        fabrica.addAspect(new TimedAspect(meterRegistry));
+        clienteConsultaService = fabrica.getProxy();
+    }
+
+    @Test
+    void metodoDeServicio_DeberiaRegistrarUnTimerPorMetodoConHistograma() {
+        log.info("Iniciando prueba: metodoDeServicio_DeberiaRegistrarUnTimerPorMetodoConHistograma");
+
+        when(clienteCache.obtener(eq(1L), any())).thenReturn(new ClienteDTO());
+
+        clienteConsultaService.buscarClientePorId(1L);
+        clienteConsultaService.buscarClientePorId(1L);
+
+        Timer timer = meterRegistry.get("cliente.consulta")
+                .tag("class", ClienteConsultaService.class.getName())
+                .tag("method", "buscarClientePorId")
+                .timer();
+        log.info("Timer registrado: {} llamadas", timer.count());
+        assertEquals(2, timer.count());
+        assertTrue(meterRegistry.scrape().contains("cliente_consulta_seconds_bucket{"));
+    }
+
+    @Test
+    void metodoDeServicio_CuandoLanzaExcepcion_DeberiaEtiquetarLaExcepcion() {
+        log.info("Iniciando prueba: metodoDeServicio_CuandoLanzaExcepcion_DeberiaEtiquetarLaExcepcion");
+
+        assertThrows(IllegalArgumentException.class, () -> clienteConsultaService.obtenerClientesPaginados(0, null));
+
+        assertEquals(1, meterRegistry.get("cliente.consulta")
+                .tag("method", "obtenerClientesPaginados")
+                .tag("exception", "IllegalArgumentException")
+                .timer().count());
+    }
+}
@@ -0,0 +1,85 @@
+package com.paucar.customer_ms.repository;
+
+import com.paucar.customer_ms.dto.FiltroClientesDTO;
+import com.paucar.customer_ms.model.Cliente;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Ejecuta las especificaciones contra el H2 del perfil "benchmark" para comprobar el SQL generado.
+@DataJpaTest
+@ActiveProfiles("benchmark")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ClienteEspecificacionesTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ClienteEspecificacionesTest.class);
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @BeforeEach
+    void setUp() {
+        clienteRepository.saveAll(List.of(
+                cliente("Juan", "Perez", "12345678", "juan@gmail.com"),
+                cliente("Maria", "Peralta", "12399999", "maria@gmail.com"),
+                cliente("Pedro", "Gomez", "87654321", "pedro@gmail.com"),
+                cliente("Ana", "Per%ez", "55555555", "ana@gmail.com")));
+    }
+
+    @Test
+    void buscar_PorPrefijoDeApellidoYDni_DeberiaCombinarCriterios() {
+        log.info("Iniciando prueba: buscar_PorPrefijoDeApellidoYDni_DeberiaCombinarCriterios");
+
+        List<String> nombres = buscar(FiltroClientesDTO.builder().apellido("Per").dni("123").build(), null);
+
+        assertEquals(List.of("Maria", "Juan"), nombres);
+    }
+
+    @Test
+    void buscar_PorEmail_DeberiaSerCoincidenciaExacta() {
+        log.info("Iniciando prueba: buscar_PorEmail_DeberiaSerCoincidenciaExacta");
+
+        assertEquals(List.of("Pedro"), buscar(FiltroClientesDTO.builder().email(" pedro@gmail.com ").build(), null));
+        assertEquals(List.of(), buscar(FiltroClientesDTO.builder().email("pedro@").build(), null));
+    }
+
+    @Test
+    void buscar_ConComodinesEnElTexto_DeberiaTratarlosComoLiterales() {
+        log.info("Iniciando prueba: buscar_ConComodinesEnElTexto_DeberiaTratarlosComoLiterales");
+
+        assertEquals(List.of("Ana"), buscar(FiltroClientesDTO.builder().apellido("Per%").build(), null));
+        assertEquals(List.of(), buscar(FiltroClientesDTO.builder().nombre("_uan").build(), null));
+    }
+
+    @Test
+    void buscar_ConCursor_DeberiaDevolverSoloIdsMenores() {
+        log.info("Iniciando prueba: buscar_ConCursor_DeberiaDevolverSoloIdsMenores");
+
+        Long idMaria = clienteRepository.findByDni("12399999").orElseThrow().getId();
+
+        assertEquals(List.of("Juan"), buscar(FiltroClientesDTO.builder().apellido("Per").build(), idMaria));
+    }
+
+    private List<String> buscar(FiltroClientesDTO filtro, Long cursor) {
+        return clienteRepository.findBy(ClienteEspecificaciones.buscar(filtro, cursor), consulta -> consulta
+                        .sortBy(Sort.by(Sort.Direction.DESC, "id"))
+                        .all())
+                .stream()
+                .map(Cliente::getNombre)
+                .toList();
+    }
+
+    private Cliente cliente(String nombre, String apellido, String dni, String email) {
+        return Cliente.builder().nombre(nombre).apellido(apellido).dni(dni).email(email).build();
+    }
+}
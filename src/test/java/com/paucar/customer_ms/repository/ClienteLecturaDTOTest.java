@@ -0,0 +1,101 @@
+package com.paucar.customer_ms.repository;
+
+import com.paucar.customer_ms.dto.ClienteDTO;
+import com.paucar.customer_ms.dto.FiltroClientesDTO;
+import com.paucar.customer_ms.model.Cliente;
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Las consultas DTO se ejecutan contra el H2 del perfil "benchmark": la proyección debe devolver los mismos
+// datos que la entidad sin dejar nada en el contexto de persistencia.
+@DataJpaTest
+@ActiveProfiles("benchmark")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ClienteLecturaDTOTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ClienteLecturaDTOTest.class);
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private List<Cliente> clientes;
+
+    @BeforeEach
+    void setUp() {
+        clientes = clienteRepository.saveAll(List.of(
+                cliente("Juan", "Perez", "12345678", "juan@gmail.com"),
+                cliente("Maria", "Peralta", "12399999", "maria@gmail.com"),
+                cliente("Pedro", "Gomez", "87654321", "pedro@gmail.com")));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findDTOById_DeberiaCopiarTodasLasColumnasSinCargarLaEntidad() {
+        log.info("Iniciando prueba: findDTOById_DeberiaCopiarTodasLasColumnasSinCargarLaEntidad");
+
+        Cliente juan = clientes.get(0);
+        ClienteDTO resultado = clienteRepository.findDTOById(juan.getId()).orElseThrow();
+
+        assertEquals(new ClienteDTO(juan.getId(), "Juan", "Perez", "12345678", "juan@gmail.com", juan.getVersion()),
+                resultado);
+        assertEquals(0, entityManager.unwrap(SessionImplementor.class).getPersistenceContext().getNumberOfManagedEntities());
+        assertTrue(clienteRepository.findDTOById(-1L).isEmpty());
+    }
+
+    @Test
+    void findDTOs_ConCursor_DeberiaPaginarPorIdDescendente() {
+        log.info("Iniciando prueba: findDTOs_ConCursor_DeberiaPaginarPorIdDescendente");
+
+        List<String> primera = nombres(clienteRepository.findDTOs(Limit.of(2)));
+        List<String> siguiente = nombres(clienteRepository.findDTOsByIdLessThan(clientes.get(1).getId(), Limit.of(2)));
+
+        assertEquals(List.of("Pedro", "Maria"), primera);
+        assertEquals(List.of("Juan"), siguiente);
+    }
+
+    @Test
+    void findDTOsByIdIn_DeberiaOmitirLosIdsInexistentes() {
+        log.info("Iniciando prueba: findDTOsByIdIn_DeberiaOmitirLosIdsInexistentes");
+
+        List<ClienteDTO> resultado = clienteRepository.findDTOsByIdIn(
+                List.of(clientes.get(2).getId(), -1L, clientes.get(0).getId()));
+
+        assertEquals(2, resultado.size());
+    }
+
+    @Test
+    void buscarDTOs_DeberiaAplicarEspecificacionOrdenYLimite() {
+        log.info("Iniciando prueba: buscarDTOs_DeberiaAplicarEspecificacionOrdenYLimite");
+
+        FiltroClientesDTO filtro = FiltroClientesDTO.builder().apellido("Per").build();
+
+        assertEquals(List.of("Maria"), nombres(clienteRepository.buscarDTOs(ClienteEspecificaciones.buscar(filtro, null), 1)));
+        assertEquals(List.of("Juan"), nombres(clienteRepository.buscarDTOs(
+                ClienteEspecificaciones.buscar(filtro, clientes.get(1).getId()), 10)));
+    }
+
+    private List<String> nombres(List<ClienteDTO> clientes) {
+        return clientes.stream().map(ClienteDTO::getNombre).toList();
+    }
+
+    private Cliente cliente(String nombre, String apellido, String dni, String email) {
+        return Cliente.builder().nombre(nombre).apellido(apellido).dni(dni).email(email).build();
+    }
+}
@@ -0,0 +1,134 @@
+package com.paucar.customer_ms.repository;
+
+import com.paucar.customer_ms.dto.CambiosClienteDTO;
+import com.paucar.customer_ms.model.Cliente;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Sin la transacción de cada prueba: cada llamada al repositorio se confirma por separado, como en el servicio.
+@DataJpaTest
+@ActiveProfiles("benchmark")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ClienteVersionTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ClienteVersionTest.class);
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @AfterEach
+    void limpiar() {
+        clienteRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void save_DeberiaIncrementarLaVersionEnCadaModificacion() {
+        log.info("Iniciando prueba: save_DeberiaIncrementarLaVersionEnCadaModificacion");
+
+        Cliente cliente = clienteRepository.save(cliente());
+        assertEquals(0L, cliente.getVersion());
+
+        cliente.setNombre("Juanito");
+        Cliente modificado = clienteRepository.save(cliente);
+
+        assertEquals(1L, modificado.getVersion());
+        assertEquals(Optional.of(1L), clienteRepository.findVersionById(cliente.getId()));
+    }
+
+    @Test
+    void save_ConUnaCopiaDesactualizada_NoDeberiaPisarLaModificacionAnterior() {
+        log.info("Iniciando prueba: save_ConUnaCopiaDesactualizada_NoDeberiaPisarLaModificacionAnterior");
+
+        Long id = clienteRepository.save(cliente()).getId();
+        Cliente primera = clienteRepository.findById(id).orElseThrow();
+        Cliente segunda = clienteRepository.findById(id).orElseThrow();
+
+        primera.setNombre("Primera");
+        clienteRepository.save(primera);
+        segunda.setNombre("Segunda");
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> clienteRepository.save(segunda));
+        assertEquals("Primera", clienteRepository.findById(id).orElseThrow().getNombre());
+    }
+
+    @Test
+    void eliminarPorIdYVersion_DeberiaEliminarSoloConLaVersionVigente() {
+        log.info("Iniciando prueba: eliminarPorIdYVersion_DeberiaEliminarSoloConLaVersionVigente");
+
+        Cliente cliente = clienteRepository.save(cliente());
+        cliente.setNombre("Juanito");
+        clienteRepository.save(cliente);
+
+        assertEquals(0, clienteRepository.eliminarPorIdYVersion(cliente.getId(), 0L));
+        assertEquals(1, clienteRepository.eliminarPorIdYVersion(cliente.getId(), 1L));
+        assertEquals(Optional.empty(), clienteRepository.findVersionById(cliente.getId()));
+    }
+
+    @Test
+    void actualizarCampos_DeberiaModificarSoloLasColumnasEnviadasEIncrementarLaVersion() {
+        log.info("Iniciando prueba: actualizarCampos_DeberiaModificarSoloLasColumnasEnviadasEIncrementarLaVersion");
+
+        Long id = clienteRepository.save(cliente()).getId();
+
+        int filas = clienteRepository.actualizarCampos(id, CambiosClienteDTO.builder().email("nuevo@gmail.com").build(), null);
+
+        Cliente actualizado = clienteRepository.findById(id).orElseThrow();
+        assertEquals(1, filas);
+        assertEquals("nuevo@gmail.com", actualizado.getEmail());
+        assertEquals("Juan", actualizado.getNombre());
+        assertEquals("12345678", actualizado.getDni());
+        assertEquals(1L, actualizado.getVersion());
+    }
+
+    @Test
+    void actualizarCampos_ConVersionDistintaOIdInexistente_NoDeberiaModificarNada() {
+        log.info("Iniciando prueba: actualizarCampos_ConVersionDistintaOIdInexistente_NoDeberiaModificarNada");
+
+        Long id = clienteRepository.save(cliente()).getId();
+        CambiosClienteDTO cambios = CambiosClienteDTO.builder().nombre("Pedro").build();
+
+        assertEquals(0, clienteRepository.actualizarCampos(id, cambios, 5L));
+        assertEquals(0, clienteRepository.actualizarCampos(id + 1_000, cambios, null));
+        assertEquals(1, clienteRepository.actualizarCampos(id, cambios, 0L));
+        assertEquals("Pedro", clienteRepository.findById(id).orElseThrow().getNombre());
+    }
+
+    @Test
+    void actualizarCamposYLeerNombre_DeberiaDevolverElNombreResultante() {
+        log.info("Iniciando prueba: actualizarCamposYLeerNombre_DeberiaDevolverElNombreResultante");
+
+        Long id = clienteRepository.save(cliente()).getId();
+        CambiosClienteDTO cambios = CambiosClienteDTO.builder().apellido("Quispe").build();
+
+        assertEquals(Optional.empty(), clienteRepository.actualizarCamposYLeerNombre(id, cambios, 5L));
+        NombreCliente nombre = clienteRepository.actualizarCamposYLeerNombre(id, cambios, 0L).orElseThrow();
+        assertEquals(id, nombre.getId());
+        assertEquals("Juan", nombre.getNombre());
+        assertEquals("Quispe", nombre.getApellido());
+        assertEquals(Optional.of(1L), clienteRepository.findVersionById(id));
+    }
+
+    private Cliente cliente() {
+        return Cliente.builder()
+                .nombre("Juan")
+                .apellido("Perez")
+                .dni("12345678")
+                .email("juan@gmail.com")
+                .build();
+    }
+}
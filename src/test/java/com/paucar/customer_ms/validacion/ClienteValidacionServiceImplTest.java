@@ -1,18 +1,25 @@
 package com.paucar.customer_ms.validacion;
 
+import com.paucar.customer_ms.dto.CambiosClienteDTO;
 import com.paucar.customer_ms.exception.DniYaRegistradoException;
 import com.paucar.customer_ms.exception.EmailYaRegistradoException;
 import com.paucar.customer_ms.model.Cliente;
 import com.paucar.customer_ms.repository.ClienteRepository;
 import com.paucar.customer_ms.service.validacion.ClienteValidacionServiceImpl;
+import com.paucar.customer_ms.service.validacion.IndiceClientesRegistrados;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,12 +32,20 @@ class ClienteValidacionServiceImplTest {
     @Mock
     private ClienteRepository clienteRepository;
 
+    @Mock
+    private IndiceClientesRegistrados indiceClientesRegistrados;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
     @InjectMocks
     private ClienteValidacionServiceImpl clienteValidacionService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(indiceClientesRegistrados.podriaContenerEmail(any())).thenReturn(true);
+        when(indiceClientesRegistrados.podriaContenerDni(any())).thenReturn(true);
     }
 
     @Test
@@ -46,12 +61,12 @@ class ClienteValidacionServiceImplTest {
                 .build();
 
         Cliente clienteExistente = Cliente.builder().id(2L).email("luis.gonzales@gmail.com").build();
-        when(clienteRepository.findByEmail("luis.gonzales@gmail.com")).thenReturn(Optional.of(clienteExistente));
+        when(clienteRepository.findByEmailOrDni("luis.gonzales@gmail.com", "87654321")).thenReturn(List.of(clienteExistente));
 
         assertThrows(EmailYaRegistradoException.class, () -> clienteValidacionService.validarCliente(cliente, 1L));
 
         log.info("Resultado: se lanzó la excepción EmailYaRegistradoException correctamente");
-        verify(clienteRepository, times(1)).findByEmail("luis.gonzales@gmail.com");
+        verify(clienteRepository, times(1)).findByEmailOrDni("luis.gonzales@gmail.com", "87654321");
     }
 
     @Test
@@ -66,13 +81,13 @@ class ClienteValidacionServiceImplTest {
                 .email("maria.rojas@hotmail.com")
                 .build();
 
-        Cliente clienteExistente = Cliente.builder().id(2L).dni("65432178").build();
-        when(clienteRepository.findByDni("65432178")).thenReturn(Optional.of(clienteExistente));
+        Cliente clienteExistente = Cliente.builder().id(2L).dni("65432178").email("otro@hotmail.com").build();
+        when(clienteRepository.findByEmailOrDni("maria.rojas@hotmail.com", "65432178")).thenReturn(List.of(clienteExistente));
 
         assertThrows(DniYaRegistradoException.class, () -> clienteValidacionService.validarCliente(cliente, 1L));
 
         log.info("Resultado: se lanzó la excepción DniYaRegistradoException correctamente");
-        verify(clienteRepository, times(1)).findByDni("65432178");
+        verify(clienteRepository, times(1)).findByEmailOrDni("maria.rojas@hotmail.com", "65432178");
     }
 
     @Test
@@ -87,14 +102,14 @@ class ClienteValidacionServiceImplTest {
                 .email("juan.quispe@outlook.com")
                 .build();
 
-        when(clienteRepository.findByEmail("juan.quispe@outlook.com")).thenReturn(Optional.empty());
-        when(clienteRepository.findByDni("78965432")).thenReturn(Optional.empty());
+        when(clienteRepository.findByEmailOrDni("juan.quispe@outlook.com", "78965432")).thenReturn(List.of());
 
         assertDoesNotThrow(() -> clienteValidacionService.validarCliente(cliente, 1L));
 
         log.info("Resultado: la validación se completó sin excepciones");
-        verify(clienteRepository, times(1)).findByEmail("juan.quispe@outlook.com");
-        verify(clienteRepository, times(1)).findByDni("78965432");
+        verify(clienteRepository, times(1)).findByEmailOrDni("juan.quispe@outlook.com", "78965432");
+        verify(clienteRepository, never()).findByEmail(anyString());
+        verify(clienteRepository, never()).findByDni(anyString());
     }
 
     @Test
@@ -115,13 +130,130 @@ class ClienteValidacionServiceImplTest {
                 .email("ana.flores@peru.com")
                 .build();
 
-        when(clienteRepository.findByEmail("ana.flores@peru.com")).thenReturn(Optional.of(clienteExistente));
-        when(clienteRepository.findByDni("76543219")).thenReturn(Optional.of(clienteExistente));
+        when(clienteRepository.findByEmailOrDni("ana.flores@peru.com", "76543219")).thenReturn(List.of(clienteExistente));
 
         assertDoesNotThrow(() -> clienteValidacionService.validarCliente(cliente, 1L));
 
         log.info("Resultado: la validación del cliente se completó sin excepciones");
-        verify(clienteRepository, times(1)).findByEmail("ana.flores@peru.com");
-        verify(clienteRepository, times(1)).findByDni("76543219");
+        verify(clienteRepository, times(1)).findByEmailOrDni("ana.flores@peru.com", "76543219");
+    }
+
+    @Test
+    void validarClientesEnLote_DeberiaReportarErroresPorClienteConUnaSolaConsulta() {
+        log.info("Iniciando prueba: validarClientesEnLote_DeberiaReportarErroresPorClienteConUnaSolaConsulta");
+
+        Cliente valido = Cliente.builder().nombre("Juan").apellido("Quispe").dni("78965432").email("juan.quispe@outlook.com").build();
+        Cliente emailRegistrado = Cliente.builder().nombre("Luis").apellido("Gonzales").dni("87654321").email("Luis.Gonzales@gmail.com").build();
+        Cliente dniRepetido = Cliente.builder().nombre("Rosa").apellido("Quispe").dni("78965432").email("rosa.quispe@outlook.com").build();
+        Cliente invalido = Cliente.builder().nombre("A").apellido("Flores").dni("123").email("no-es-email").build();
+
+        when(clienteRepository.findByEmailInOrDniIn(anyCollection(), anyCollection()))
+                .thenReturn(List.of(Cliente.builder().id(5L).dni("11111111").email("luis.gonzales@gmail.com").build()));
+
+        List<String> errores = clienteValidacionService.validarClientesEnLote(List.of(valido, emailRegistrado, dniRepetido, invalido));
+
+        errores.forEach(error -> log.info("Error de validación: {}", error));
+
+        assertNull(errores.get(0));
+        assertEquals("El correo electrónico ya está en uso: Luis.Gonzales@gmail.com", errores.get(1));
+        assertEquals("El DNI está repetido en el lote: 78965432", errores.get(2));
+        assertTrue(errores.get(3).contains("dni"));
+        assertTrue(errores.get(3).contains("email"));
+        verify(clienteRepository, times(1)).findByEmailInOrDniIn(anyCollection(), anyCollection());
+        verify(clienteRepository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    void validarCliente_CuandoEmailRegistradoConOtrasMayusculas_DeberiaLanzarExcepcion() {
+        log.info("Iniciando prueba: validarCliente_CuandoEmailRegistradoConOtrasMayusculas_DeberiaLanzarExcepcion");
+
+        Cliente cliente = Cliente.builder()
+                .nombre("Pedro")
+                .apellido("Castillo")
+                .dni("45678912")
+                .email("Pedro.Castillo@Gmail.com")
+                .build();
+
+        Cliente clienteExistente = Cliente.builder().id(3L).dni("11122233").email("pedro.castillo@gmail.com").build();
+        when(clienteRepository.findByEmailOrDni("Pedro.Castillo@Gmail.com", "45678912")).thenReturn(List.of(clienteExistente));
+
+        assertThrows(EmailYaRegistradoException.class, () -> clienteValidacionService.validarCliente(cliente, null));
+
+        log.info("Resultado: se lanzó la excepción EmailYaRegistradoException correctamente");
+    }
+
+    @Test
+    void validarCliente_CuandoElIndiceDescartaDuplicados_NoDeberiaConsultarLaBaseDeDatos() {
+        log.info("Iniciando prueba: validarCliente_CuandoElIndiceDescartaDuplicados_NoDeberiaConsultarLaBaseDeDatos");
+
+        Cliente cliente = Cliente.builder()
+                .nombre("Rosa")
+                .apellido("Huaman")
+                .dni("45612378")
+                .email("rosa.huaman@gmail.com")
+                .build();
+        when(indiceClientesRegistrados.descartaDuplicados("rosa.huaman@gmail.com", "45612378")).thenReturn(true);
+
+        assertDoesNotThrow(() -> clienteValidacionService.validarCliente(cliente, null));
+
+        log.info("Resultado: la validación se resolvió sin consultar la base de datos");
+        verifyNoInteractions(clienteRepository);
+    }
+
+    @Test
+    void validarCliente_CuandoElIndiceNoDescarta_DeberiaInformarElResultadoDeLaConsulta() {
+        log.info("Iniciando prueba: validarCliente_CuandoElIndiceNoDescarta_DeberiaInformarElResultadoDeLaConsulta");
+
+        Cliente cliente = Cliente.builder()
+                .nombre("Rosa")
+                .apellido("Huaman")
+                .dni("45612378")
+                .email("rosa.huaman@gmail.com")
+                .build();
+        when(clienteRepository.findByEmailOrDni("rosa.huaman@gmail.com", "45612378")).thenReturn(List.of());
+
+        clienteValidacionService.validarCliente(cliente, null);
+
+        verify(indiceClientesRegistrados, times(1)).registrarVerificacion("rosa.huaman@gmail.com", "45612378", false, false);
+    }
+
+    @Test
+    void validarCambios_CuandoUnCampoNoCumpleElFormato_DeberiaLanzarViolacionDeRestricciones() {
+        log.info("Iniciando prueba: validarCambios_CuandoUnCampoNoCumpleElFormato_DeberiaLanzarViolacionDeRestricciones");
+
+        CambiosClienteDTO cambios = CambiosClienteDTO.builder().dni("12AB").email("no-es-email").build();
+
+        ConstraintViolationException exception = assertThrows(ConstraintViolationException.class,
+                () -> clienteValidacionService.validarCambios(1L, cambios));
+
+        log.info("Violaciones: {}", exception.getConstraintViolations());
+        assertEquals(3, exception.getConstraintViolations().size());
+        verifyNoInteractions(clienteRepository);
+    }
+
+    @Test
+    void validarCambios_CuandoSoloCambiaElEmail_DeberiaConsultarSoloElEmail() {
+        log.info("Iniciando prueba: validarCambios_CuandoSoloCambiaElEmail_DeberiaConsultarSoloElEmail");
+
+        Cliente otroCliente = Cliente.builder().id(2L).email("Ana@Gmail.com").build();
+        when(clienteRepository.findByEmail("ana@gmail.com")).thenReturn(Optional.of(otroCliente));
+
+        assertThrows(EmailYaRegistradoException.class, () -> clienteValidacionService.validarCambios(1L,
+                CambiosClienteDTO.builder().nombre("Ana").email("ana@gmail.com").build()));
+        clienteValidacionService.validarCambios(2L, CambiosClienteDTO.builder().email("ana@gmail.com").build());
+
+        verify(clienteRepository, never()).findByEmailOrDni(any(), any());
+        verify(clienteRepository, never()).findByDni(any());
+    }
+
+    @Test
+    void validarCambios_CuandoElIndiceDescartaElDni_NoDeberiaConsultarLaBaseDeDatos() {
+        log.info("Iniciando prueba: validarCambios_CuandoElIndiceDescartaElDni_NoDeberiaConsultarLaBaseDeDatos");
+
+        when(indiceClientesRegistrados.podriaContenerDni("11223344")).thenReturn(false);
+
+        clienteValidacionService.validarCambios(1L, CambiosClienteDTO.builder().dni("11223344").build());
+
+        verifyNoInteractions(clienteRepository);
     }
 }
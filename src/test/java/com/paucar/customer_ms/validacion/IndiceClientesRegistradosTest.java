@@ -0,0 +1,138 @@
+package com.paucar.customer_ms.validacion;
+
+import com.paucar.customer_ms.config.ClientePropiedades;
+import com.paucar.customer_ms.repository.ClaveUnicaCliente;
+import com.paucar.customer_ms.repository.ClienteRepository;
+import com.paucar.customer_ms.service.validacion.IndiceClientesRegistrados;
+import com.paucar.customer_ms.util.FiltroBloom;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class IndiceClientesRegistradosTest {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceClientesRegistradosTest.class);
+
+    @Mock
+    private ClienteRepository clienteRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ClientePropiedades clientePropiedades;
+    private IndiceClientesRegistrados indice;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        clientePropiedades = new ClientePropiedades();
+        clientePropiedades.getIndice().setCapacidadEmails(1_000);
+        indice = new IndiceClientesRegistrados(clienteRepository, transactionManager, clientePropiedades, meterRegistry);
+
+        when(clienteRepository.streamClavesUnicas()).thenReturn(Stream.of(clave("Juan@Gmail.com", "12345678")));
+    }
+
+    @Test
+    void descartaDuplicados_AntesDeConstruirse_NoDeberiaDescartarNada() {
+        log.info("Iniciando prueba: descartaDuplicados_AntesDeConstruirse_NoDeberiaDescartarNada");
+
+        assertFalse(indice.estaListo());
+        assertFalse(indice.descartaDuplicados("nuevo@gmail.com", "87654321"));
+    }
+
+    @Test
+    void descartaDuplicados_CuandoEmailYDniSonNuevos_DeberiaDescartar() {
+        log.info("Iniciando prueba: descartaDuplicados_CuandoEmailYDniSonNuevos_DeberiaDescartar");
+
+        indice.reconstruir();
+
+        assertTrue(indice.estaListo());
+        assertTrue(indice.descartaDuplicados("nuevo@gmail.com", "87654321"));
+        assertFalse(indice.descartaDuplicados("juan@gmail.com", "87654321"));
+        assertFalse(indice.descartaDuplicados("nuevo@gmail.com", "12345678"));
+    }
+
+    @Test
+    void registrarYQuitarDni_DeberianActualizarElIndice() {
+        log.info("Iniciando prueba: registrarYQuitarDni_DeberianActualizarElIndice");
+
+        indice.reconstruir();
+        indice.registrar("maria@gmail.com", "87654321");
+        assertTrue(indice.podriaContenerDni("87654321"));
+
+        indice.quitarDni("87654321");
+        assertFalse(indice.podriaContenerDni("87654321"));
+        assertTrue(indice.podriaContenerEmail("MARIA@gmail.com"));
+    }
+
+    @Test
+    void podriaContenerDni_CuandoElDniNoEsIndexable_DeberiaResponderPosible() {
+        log.info("Iniciando prueba: podriaContenerDni_CuandoElDniNoEsIndexable_DeberiaResponderPosible");
+
+        indice.reconstruir();
+
+        assertTrue(indice.podriaContenerDni("12AB"));
+    }
+
+    @Test
+    void registrarVerificacion_DeberiaMedirFalsosPositivos() {
+        log.info("Iniciando prueba: registrarVerificacion_DeberiaMedirFalsosPositivos");
+
+        indice.reconstruir();
+        indice.registrarVerificacion("juan@gmail.com", "12345678", true, false);
+
+        double tasaDni = meterRegistry.get("cliente.indice.tasa.falsos.positivos").tag("tipo", "dni").gauge().value();
+        double tasaEmail = meterRegistry.get("cliente.indice.tasa.falsos.positivos").tag("tipo", "email").gauge().value();
+        log.info("Tasa de falsos positivos: dni = {}, email = {}", tasaDni, tasaEmail);
+        assertEquals(1.0, tasaDni);
+        assertEquals(0.0, tasaEmail);
+    }
+
+    @Test
+    void filtroBloom_DeberiaRespetarLaTasaDeFalsosPositivosConfigurada() {
+        log.info("Iniciando prueba: filtroBloom_DeberiaRespetarLaTasaDeFalsosPositivosConfigurada");
+
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.agregar("cliente" + i + "@gmail.com");
+        }
+        int falsosPositivos = 0;
+        for (int i = 10_000; i < 20_000; i++) {
+            if (filtro.podriaContener("cliente" + i + "@gmail.com")) {
+                falsosPositivos++;
+            }
+        }
+
+        log.info("Falsos positivos: {} de 10000, tasa estimada = {}", falsosPositivos, filtro.tasaFalsosPositivosEstimada());
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filtro.podriaContener("cliente" + i + "@gmail.com"));
+        }
+        assertTrue(falsosPositivos < 200);
+    }
+
+    private ClaveUnicaCliente clave(String email, String dni) {
+        return new ClaveUnicaCliente() {
+            @Override
+            public String getEmail() {
+                return email;
+            }
+
+            @Override
+            public String getDni() {
+                return dni;
+            }
+        };
+    }
+}